@@ -0,0 +1,66 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.h2.tools.Server;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+
+import br.com.fiap.bluehope.BluehopeApplication;
+
+/**
+ * Sobe a aplicação numa porta livre, sobre um H2 em memória, para os
+ * benchmarks que passam pelos repositórios. Com {@code rede = true} o H2 roda
+ * como servidor TCP local, de modo que cada comando paga uma ida e volta pela
+ * rede, como acontece com o Oracle.
+ */
+final class BancoEmbutido {
+
+    private BancoEmbutido() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String nome, Map<String, Object> propriedades) {
+        return iniciar(nome, false, propriedades);
+    }
+
+    static ConfigurableApplicationContext iniciar(String nome, boolean rede, Map<String, Object> propriedades) {
+        Server servidor = rede ? servidorTcp() : null;
+        String url = rede
+                ? "jdbc:h2:tcp://localhost:" + servidor.getPort() + "/mem:" + nome + ";DB_CLOSE_DELAY=-1"
+                : "jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1";
+
+        Map<String, Object> padrao = new HashMap<>();
+        padrao.put("server.port", "0");
+        padrao.put("spring.datasource.url", url);
+        padrao.put("spring.datasource.username", "sa");
+        padrao.put("spring.jpa.hibernate.ddl-auto", "create");
+        padrao.put("spring.flyway.enabled", "false");
+        padrao.put("spring.jpa.open-in-view", "false");
+        padrao.put("logging.level.root", "WARN");
+        padrao.put("bluehope.armazenamento.diretorio",
+                System.getProperty("java.io.tmpdir") + "/bluehope-benchmark/" + nome);
+
+        var builder = new SpringApplicationBuilder(BluehopeApplication.class)
+                .properties(padrao)
+                .properties(propriedades);
+        if (servidor != null) {
+            builder.listeners(evento -> {
+                if (evento instanceof ContextClosedEvent) {
+                    servidor.stop();
+                }
+            });
+        }
+        return builder.run();
+    }
+
+    private static Server servidorTcp() {
+        try {
+            return Server.createTcpServer("-tcpPort", "0", "-tcpAllowOthers", "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível iniciar o servidor H2", e);
+        }
+    }
+}
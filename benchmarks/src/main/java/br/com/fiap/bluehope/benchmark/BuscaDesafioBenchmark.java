@@ -0,0 +1,134 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.bluehope.busca.IndiceInvertido;
+
+/**
+ * Busca de desafios no {@link IndiceInvertido} contra a varredura das
+ * descrições com {@code contains}. As descrições seguem o gerador do profile
+ * {@code bench} (ação e objeto) com um complemento tirado de um vocabulário de
+ * {@code vocabulario} palavras, para o dicionário ter um tamanho realista.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaDesafioBenchmark {
+
+    private static final String[] ACOES = { "Recolher", "Separar", "Reciclar", "Reutilizar", "Doar" };
+    private static final String[] OBJETOS = { "garrafas PET", "latas", "papelão", "óleo de cozinha", "pilhas", "roupas" };
+    private static final String[] CONSULTAS = { "r", "rec", "reciclar", "oleo cozinha", "doar pil", "sep papelao" };
+    private static final int LIMITE = 20;
+
+    @Param("1000000")
+    int desafios;
+
+    @Param("50000")
+    int vocabulario;
+
+    IndiceInvertido indice;
+    List<String> descricoes;
+    String[] palavras;
+    SplittableRandom random;
+
+    @Setup
+    public void preparar() {
+        random = new SplittableRandom(42);
+        palavras = new String[vocabulario];
+        for (int i = 0; i < vocabulario; i++) {
+            palavras[i] = Long.toString(random.nextLong(Long.MAX_VALUE), 36).substring(0, 4 + random.nextInt(6));
+        }
+        indice = new IndiceInvertido();
+        descricoes = new ArrayList<>(desafios);
+        for (int id = 1; id <= desafios; id++) {
+            String descricao = ACOES[random.nextInt(ACOES.length)] + " " + OBJETOS[random.nextInt(OBJETOS.length)]
+                    + " no " + palavras[random.nextInt(vocabulario)];
+            indice.indexar(id, descricao);
+            descricoes.add(normalizar(descricao));
+        }
+    }
+
+    @Benchmark
+    public long[] buscarIndice() {
+        return indice.buscar(CONSULTAS[random.nextInt(CONSULTAS.length)], 0, LIMITE);
+    }
+
+    @Benchmark
+    public long[] buscarIndicePaginaProfunda() {
+        return indice.buscar(CONSULTAS[random.nextInt(CONSULTAS.length)], desafios / 2, LIMITE);
+    }
+
+    @Benchmark
+    public long[] buscarIndicePalavraRara() {
+        return indice.buscar(palavraRara(), 0, LIMITE);
+    }
+
+    @Benchmark
+    public long[] buscarIndiceUmaLetra() {
+        return indice.buscar(Character.toString('a' + random.nextInt(26)), 0, LIMITE);
+    }
+
+    @Benchmark
+    public void reindexar() {
+        int id = 1 + random.nextInt(desafios);
+        indice.indexar(id, ACOES[random.nextInt(ACOES.length)] + " " + OBJETOS[random.nextInt(OBJETOS.length)]);
+    }
+
+    @Benchmark
+    public long[] buscarVarrendoDescricoes() {
+        return varrer(normalizar(CONSULTAS[random.nextInt(CONSULTAS.length)]).split(" "));
+    }
+
+    @Benchmark
+    public long[] buscarVarrendoPalavraRara() {
+        return varrer(new String[] { palavraRara() });
+    }
+
+    /** Prefixo de três letras de uma palavra do complemento: poucos desafios a têm. */
+    private String palavraRara() {
+        return palavras[random.nextInt(vocabulario)].substring(0, 3);
+    }
+
+    private long[] varrer(String[] palavras) {
+        long[] encontrados = new long[LIMITE];
+        int quantidade = 0;
+        for (int i = 0; i < descricoes.size() && quantidade < LIMITE; i++) {
+            String descricao = descricoes.get(i);
+            boolean todas = true;
+            for (String palavra : palavras) {
+                if (!descricao.contains(palavra)) {
+                    todas = false;
+                    break;
+                }
+            }
+            if (todas) {
+                encontrados[quantidade++] = i + 1;
+            }
+        }
+        return encontrados;
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+}
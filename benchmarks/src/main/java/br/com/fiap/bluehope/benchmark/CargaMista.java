@@ -0,0 +1,386 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Driver de carga para a aplicação rodando com o profile {@code bench}.
+ * Descobre os ids existentes percorrendo as listagens e depois dispara, a
+ * partir de {@code clientes} threads, uma mistura de leituras e escritas nos
+ * cinco controllers. Ao final imprime p50/p99/p999 e vazão por operação.
+ *
+ * <p>Argumentos: {@code url clientes duracaoSegundos aquecimentoSegundos taxa}.
+ * Com {@code taxa = 0} cada cliente dispara a próxima requisição assim que a
+ * anterior responde (laço fechado). Com {@code taxa > 0} as requisições são
+ * agendadas em intervalos fixos e a latência é medida a partir do horário
+ * agendado, de modo que a espera causada por um servidor lento também entra
+ * nos percentis.
+ *
+ * <p>Um 503 com {@code Retry-After} conta como recusa, não como erro, e o
+ * cliente espera o tempo pedido antes da próxima requisição.
+ */
+public final class CargaMista {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final long SUCESSO = 0;
+    private static final long ERRO = -1;
+
+    private final String url;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    private long[] usuarios;
+    private long[] perfis;
+    private long[] desafios;
+    private long[] fotos;
+    private long[] validacoes;
+    private final ConcurrentLinkedQueue<Long> desafiosSemValidacao = new ConcurrentLinkedQueue<>();
+
+    private final List<Operacao> operacoes = List.of(
+            new Operacao("usuario.listar", 2, c -> get("usuario?limit=20&after=" + (c.sortear(usuarios) - 1))),
+            new Operacao("usuario.detalhe", 8, c -> get("usuario/" + c.sortear(usuarios))),
+            new Operacao("usuario.atualizar", 1, c -> {
+                long id = c.sortear(usuarios);
+                String etag = etag("usuario/" + id);
+                return etag == null ? null : put("usuario/" + id, etag, """
+                        {"email":"carga%d@bluehope.example","telefone":"11999990000","cpf":"9%010d","senha":"carga"}"""
+                        .formatted(id, id));
+            }),
+            new Operacao("perfil.listar", 3, c -> get("perfil?limit=20&after=" + (c.sortear(perfis) - 1))),
+            new Operacao("perfil.detalhe", 8, c -> get("perfil/" + c.sortear(perfis))),
+            new Operacao("perfil.ranking", 8, c -> get("perfil/ranking?top=10")),
+            new Operacao("perfil.posicao", 5, c -> get("perfil/" + c.sortear(perfis) + "/rank")),
+            new Operacao("perfil.criar", 2, c -> post("perfil", """
+                    {"nome":"Carga %d","medalha":"Iniciante"}""".formatted(c.random().nextInt(1_000_000)))),
+            new Operacao("desafio.listar", 6, c -> get("desafio?size=20&page=" + c.random().nextInt(desafios.length / 20))),
+            new Operacao("desafio.detalhe", 18, c -> get("desafio/" + c.sortear(desafios))),
+            new Operacao("desafio.criar", 4, c -> post("desafio", """
+                    {"descricao":"Desafio de carga","pontos":50,"perfil":{"id":%d}}""".formatted(c.sortear(perfis))),
+                    corpo -> desafiosSemValidacao.add(JSON.readTree(corpo).path("id").asLong())),
+            new Operacao("foto.listar", 3, c -> get("foto?limit=20&after=" + (c.sortear(fotos) - 1))),
+            new Operacao("foto.detalhe", 14, c -> get("foto/" + c.sortear(fotos))),
+            new Operacao("foto.criar", 3, c -> post("foto", """
+                    {"caminhoFoto":"carga/%d.jpg","desafio":{"id":%d}}"""
+                    .formatted(c.random().nextInt(1_000_000), c.sortear(desafios)))),
+            new Operacao("validacao.listar", 2, c -> get("validacaodesafio?limit=20&after=" + (c.sortear(validacoes) - 1))),
+            new Operacao("validacao.detalhe", 10, c -> get("validacaodesafio/" + c.sortear(validacoes))),
+            new Operacao("validacao.criar", 3, c -> {
+                Long desafio = desafiosSemValidacao.poll();
+                return desafio == null ? null : post("validacaodesafio", """
+                        {"valido":true,"desafio":{"id":%d}}""".formatted(desafio));
+            }));
+
+    private final int pesoTotal = operacoes.stream().mapToInt(Operacao::peso).sum();
+
+    private CargaMista(String url) {
+        this.url = url.endsWith("/") ? url : url + "/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int duracao = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int aquecimento = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        double taxa = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+
+        var carga = new CargaMista(url);
+        carga.descobrirIds();
+        carga.executar(clientes, aquecimento, duracao, taxa);
+    }
+
+    private void descobrirIds() throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        usuarios = coletarIds("usuario?limit=100");
+        perfis = coletarIds("perfil?limit=100");
+        desafios = coletarIds("desafio?size=100");
+        fotos = coletarIds("foto?limit=100");
+        validacoes = coletarIds("validacaodesafio?limit=100");
+        System.out.printf(Locale.ROOT, "Ids descobertos em %d ms: %d usuários, %d perfis, %d desafios, %d fotos, %d validações%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio),
+                usuarios.length, perfis.length, desafios.length, fotos.length, validacoes.length);
+        for (long[] ids : List.of(usuarios, perfis, desafios, fotos, validacoes)) {
+            if (ids.length == 0) {
+                throw new IllegalStateException("A aplicação não tem dados; suba-a com --spring.profiles.active=bench");
+            }
+        }
+    }
+
+    /**
+     * Segue os links {@code next} a partir de {@code caminho} e devolve os ids
+     * de todos os itens, em ordem crescente.
+     */
+    private long[] coletarIds(String caminho) throws IOException, InterruptedException {
+        var ids = new Amostras();
+        URI proxima = URI.create(url + caminho);
+        while (proxima != null) {
+            var resposta = http.send(HttpRequest.newBuilder(proxima).timeout(TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (resposta.statusCode() != 200) {
+                throw new IllegalStateException("GET " + proxima + " respondeu " + resposta.statusCode());
+            }
+            JsonNode pagina = JSON.readTree(resposta.body());
+            pagina.path("_embedded").forEach(itens -> itens.forEach(item -> ids.adicionar(item.path("id").asLong())));
+            JsonNode next = pagina.path("_links").path("next").path("href");
+            proxima = next.isMissingNode() ? null : URI.create(next.asText());
+        }
+        return ids.ordenadas();
+    }
+
+    private void executar(int clientes, int aquecimento, int duracao, double taxa) throws InterruptedException {
+        long inicioMedicao = System.nanoTime() + TimeUnit.SECONDS.toNanos(aquecimento);
+        long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+        long intervalo = taxa > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * clientes / taxa) : 0;
+
+        System.out.printf(Locale.ROOT, "%d clientes, %ds de aquecimento, %ds de medição, %s%n",
+                clientes, aquecimento, duracao, taxa > 0 ? "taxa de " + taxa + " req/s" : "laço fechado");
+
+        var resultados = new ArrayList<Cliente>(clientes);
+        var threads = new ArrayList<Thread>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            var cliente = new Cliente(operacoes.size());
+            resultados.add(cliente);
+            threads.add(Thread.ofPlatform().name("carga-" + i).start(
+                    () -> cliente.rodar(inicioMedicao, fim, intervalo)));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        relatorio(resultados, duracao);
+    }
+
+    private void relatorio(List<Cliente> clientes, int duracao) {
+        System.out.printf(Locale.ROOT, "%n%-20s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+                "operação", "n", "erros", "503", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        var total = new Amostras();
+        long errosTotal = 0;
+        long recusadasTotal = 0;
+        for (int i = 0; i < operacoes.size(); i++) {
+            var amostras = new Amostras();
+            long erros = 0;
+            long recusadas = 0;
+            for (var cliente : clientes) {
+                amostras.adicionar(cliente.latencias[i]);
+                erros += cliente.erros[i];
+                recusadas += cliente.recusadas[i];
+            }
+            total.adicionar(amostras);
+            errosTotal += erros;
+            recusadasTotal += recusadas;
+            linha(operacoes.get(i).nome(), amostras.ordenadas(), erros, recusadas, duracao);
+        }
+        linha("total", total.ordenadas(), errosTotal, recusadasTotal, duracao);
+    }
+
+    private static void linha(String nome, long[] latencias, long erros, long recusadas, int duracao) {
+        System.out.printf(Locale.ROOT, "%-20s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                nome, latencias.length, erros, recusadas, (double) latencias.length / duracao,
+                ms(percentil(latencias, 0.50)), ms(percentil(latencias, 0.99)),
+                ms(percentil(latencias, 0.999)), ms(latencias.length == 0 ? 0 : latencias[latencias.length - 1]));
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private HttpRequest get(String caminho) {
+        return requisicao(caminho).GET().build();
+    }
+
+    private HttpRequest post(String caminho, String corpo) {
+        return requisicao(caminho).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    private HttpRequest put(String caminho, String etag, String corpo) {
+        return requisicao(caminho).header("Content-Type", "application/json").header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    /**
+     * ETag atual do recurso, exigida no {@code If-Match} das atualizações. O
+     * GET entra na latência da operação, como num cliente que lê antes de gravar.
+     */
+    private String etag(String caminho) {
+        try {
+            return http.send(get(caminho), HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElse(null);
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create(url + caminho)).timeout(TIMEOUT);
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        /** Monta a requisição, ou devolve {@code null} se ela não puder ser feita agora. */
+        HttpRequest montar(Cliente cliente);
+    }
+
+    @FunctionalInterface
+    private interface Resposta {
+        void receber(byte[] corpo) throws IOException;
+    }
+
+    private record Operacao(String nome, int peso, Requisicao requisicao, Resposta resposta) {
+
+        Operacao(String nome, int peso, Requisicao requisicao) {
+            this(nome, peso, requisicao, corpo -> {
+            });
+        }
+    }
+
+    private final class Cliente {
+
+        final Amostras[] latencias;
+        final long[] erros;
+        final long[] recusadas;
+
+        Cliente(int operacoes) {
+            latencias = new Amostras[operacoes];
+            Arrays.setAll(latencias, i -> new Amostras());
+            erros = new long[operacoes];
+            recusadas = new long[operacoes];
+        }
+
+        ThreadLocalRandom random() {
+            return ThreadLocalRandom.current();
+        }
+
+        long sortear(long[] ids) {
+            return ids[random().nextInt(ids.length)];
+        }
+
+        void rodar(long inicioMedicao, long fim, long intervalo) {
+            long agendado = System.nanoTime();
+            while (true) {
+                if (intervalo > 0) {
+                    agendado += intervalo;
+                    long espera = agendado - System.nanoTime();
+                    if (espera > 0) {
+                        LockSupport.parkNanos(espera);
+                    }
+                } else {
+                    agendado = System.nanoTime();
+                }
+                if (agendado >= fim) {
+                    return;
+                }
+                int indice = sortearOperacao();
+                var requisicao = operacoes.get(indice).requisicao().montar(this);
+                if (requisicao == null) {
+                    continue;
+                }
+                long retryAfter = enviar(indice, requisicao);
+                long latencia = System.nanoTime() - agendado;
+                if (agendado >= inicioMedicao) {
+                    if (retryAfter == SUCESSO) {
+                        latencias[indice].adicionar(latencia);
+                    } else if (retryAfter == ERRO) {
+                        erros[indice]++;
+                    } else {
+                        recusadas[indice]++;
+                    }
+                }
+                if (retryAfter > 0) {
+                    LockSupport.parkNanos(retryAfter);
+                }
+            }
+        }
+
+        private int sortearOperacao() {
+            int sorteio = random().nextInt(pesoTotal);
+            for (int i = 0; i < operacoes.size(); i++) {
+                sorteio -= operacoes.get(i).peso();
+                if (sorteio < 0) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        /**
+         * Devolve {@link #SUCESSO}, {@link #ERRO} ou, para um 503 com
+         * {@code Retry-After}, a espera pedida em nanossegundos.
+         */
+        private long enviar(int indice, HttpRequest requisicao) {
+            try {
+                var resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+                if (resposta.statusCode() == 503) {
+                    var retryAfter = resposta.headers().firstValueAsLong("Retry-After");
+                    if (retryAfter.isPresent()) {
+                        return Math.max(1, TimeUnit.SECONDS.toNanos(retryAfter.getAsLong()));
+                    }
+                }
+                if (resposta.statusCode() >= 400) {
+                    return ERRO;
+                }
+                operacoes.get(indice).resposta().receber(resposta.body());
+                return SUCESSO;
+            } catch (IOException e) {
+                return ERRO;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ERRO;
+            }
+        }
+    }
+
+    /** Lista de longs sem boxing. */
+    private static final class Amostras {
+
+        private long[] valores = new long[1024];
+        private int tamanho;
+
+        void adicionar(long valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        void adicionar(Amostras outras) {
+            if (tamanho + outras.tamanho > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(valores.length * 2, tamanho + outras.tamanho));
+            }
+            System.arraycopy(outras.valores, 0, valores, tamanho, outras.tamanho);
+            tamanho += outras.tamanho;
+        }
+
+        long[] ordenadas() {
+            long[] copia = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(copia);
+            return copia;
+        }
+    }
+}
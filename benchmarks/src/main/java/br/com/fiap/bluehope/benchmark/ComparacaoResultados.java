@@ -0,0 +1,66 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dois resultados JSON do JMH (por exemplo, de duas versões) e
+ * imprime a variação de cada benchmark. Uso:
+ * {@code ComparacaoResultados anterior.json atual.json}
+ */
+public final class ComparacaoResultados {
+
+    private ComparacaoResultados() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: ComparacaoResultados <anterior.json> <atual.json>");
+            System.exit(2);
+        }
+        var anterior = ler(new File(args[0]));
+        var atual = ler(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "anterior", "atual", "delta");
+        for (var entrada : atual.entrySet()) {
+            var antes = anterior.get(entrada.getKey());
+            var depois = entrada.getValue();
+            String variacao = antes == null ? "novo" : String.format("%+.1f%%", 100 * (depois.score() - antes.score()) / antes.score());
+            System.out.printf("%-90s %14s %14s %9s%n", entrada.getKey(),
+                    antes == null ? "-" : antes, depois, variacao);
+        }
+        anterior.keySet().stream()
+                .filter(nome -> !atual.containsKey(nome))
+                .forEach(nome -> System.out.printf("%-90s %14s %14s %9s%n", nome, anterior.get(nome), "-", "removido"));
+    }
+
+    private record Resultado(double score, String unidade) {
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", score, unidade);
+        }
+    }
+
+    private static Map<String, Resultado> ler(File arquivo) throws IOException {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        for (JsonNode execucao : new ObjectMapper().readTree(arquivo)) {
+            var nome = new StringBuilder(execucao.path("benchmark").asText()
+                    .replace("br.com.fiap.bluehope.benchmark.", ""));
+            Map<String, String> parametros = new TreeMap<>();
+            execucao.path("params").fields().forEachRemaining(p -> parametros.put(p.getKey(), p.getValue().asText()));
+            if (!parametros.isEmpty()) {
+                nome.append(parametros);
+            }
+            var metrica = execucao.path("primaryMetric");
+            resultados.put(nome.toString(),
+                    new Resultado(metrica.path("score").asDouble(), metrica.path("scoreUnit").asText()));
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+
+/**
+ * Conversão de uma página de entidades em {@code EntityModel}, como os
+ * controllers fazem no detalhe ({@code toEntityModel}) e nas listagens
+ * ({@code toModel}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversaoModeloBenchmark {
+
+    @Param({ "desafio", "foto", "perfil", "usuario", "validacaodesafio" })
+    String entidade;
+
+    @Param("100")
+    int tamanhoPagina;
+
+    List<Object> entidades;
+    Function<Object, EntityModel<?>> detalhe;
+    Function<Object, EntityModel<?>> listagem;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        switch (entidade) {
+            case "desafio" -> preparar(id -> {
+                var desafio = new Desafio();
+                desafio.setId(id);
+                desafio.setDescricao("Recolher 10 garrafas da praia");
+                desafio.setPontos(10);
+                return desafio;
+            }, Desafio::toEntityModel, Desafio::toModel);
+            case "foto" -> preparar(id -> {
+                var foto = new Foto();
+                foto.setId(id);
+                foto.setCaminhoFoto("fotos/" + id + ".jpg");
+                return foto;
+            }, Foto::toEntityModel, Foto::toModel);
+            case "perfil" -> preparar(id -> {
+                var perfil = new Perfil();
+                perfil.setId(id);
+                perfil.setNome("Perfil " + id);
+                perfil.setMedalha("Iniciante");
+                return perfil;
+            }, Perfil::toEntityModel, Perfil::toModel);
+            case "usuario" -> preparar(id -> {
+                var usuario = new Usuario();
+                usuario.setId(id);
+                usuario.setEmail("usuario" + id + "@bluehope.example");
+                return usuario;
+            }, Usuario::toEntityModel, Usuario::toModel);
+            case "validacaodesafio" -> preparar(id -> {
+                var validacao = new ValidacaoDesafio();
+                validacao.setId(id);
+                validacao.setValido(true);
+                return validacao;
+            }, ValidacaoDesafio::toEntityModel, ValidacaoDesafio::toModel);
+            default -> throw new IllegalArgumentException(entidade);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void preparar(LongFunction<T> criar, Function<T, EntityModel<T>> detalhe,
+            Function<T, EntityModel<T>> listagem) {
+        entidades = new ArrayList<>(tamanhoPagina);
+        for (long id = 1; id <= tamanhoPagina; id++) {
+            entidades.add(criar.apply(id));
+        }
+        this.detalhe = e -> detalhe.apply((T) e);
+        this.listagem = e -> listagem.apply((T) e);
+    }
+
+    @Setup(Level.Invocation)
+    public void novaRequisicao() {
+        RequisicaoSimulada.iniciar("/" + entidade);
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerrarRequisicao() {
+        RequisicaoSimulada.encerrar();
+    }
+
+    @Benchmark
+    public List<EntityModel<?>> detalhe() {
+        var modelos = new ArrayList<EntityModel<?>>(entidades.size());
+        for (var e : entidades) {
+            modelos.add(detalhe.apply(e));
+        }
+        return modelos;
+    }
+
+    @Benchmark
+    public List<EntityModel<?>> listagem() {
+        var modelos = new ArrayList<EntityModel<?>>(entidades.size());
+        for (var e : entidades) {
+            modelos.add(listagem.apply(e));
+        }
+        return modelos;
+    }
+}
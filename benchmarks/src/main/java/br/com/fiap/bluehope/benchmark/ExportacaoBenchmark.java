@@ -0,0 +1,92 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.bluehope.exportacao.ExportacaoService;
+
+/**
+ * Vazão da exportação NDJSON de fotos. O contador auxiliar {@code linhas}
+ * aparece no resultado como linhas exportadas por segundo; rodar com
+ * {@code -prof gc} mostra que a alocação por linha não cresce com a tabela.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class ExportacaoBenchmark {
+
+    @Param("2000000")
+    int fotos;
+
+    @Param("1000")
+    int desafios;
+
+    ConfigurableApplicationContext contexto;
+    ExportacaoService service;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Contador {
+        public long linhas;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = BancoEmbutido.iniciar("exportacao", Map.of());
+        service = contexto.getBean(ExportacaoService.class);
+        var jdbc = contexto.getBean(JdbcTemplate.class);
+
+        List<Object[]> linhas = new ArrayList<>();
+        for (long id = 1; id <= desafios; id++) {
+            linhas.add(new Object[] { id, "Desafio " + id, 10 });
+        }
+        jdbc.batchUpdate("insert into desafio (id, descricao, pontos) values (?, ?, ?)", linhas);
+
+        linhas.clear();
+        for (long id = 1; id <= fotos; id++) {
+            linhas.add(new Object[] { id, "fotos/" + id + ".jpg", 1 + id % desafios });
+            if (linhas.size() == 10_000) {
+                jdbc.batchUpdate("insert into foto (id, caminho_foto, desafio_id) values (?, ?, ?)", linhas);
+                linhas.clear();
+            }
+        }
+        if (!linhas.isEmpty()) {
+            jdbc.batchUpdate("insert into foto (id, caminho_foto, desafio_id) values (?, ?, ?)", linhas);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long exportarFotos(Contador contador) {
+        long linhas = service.exportar("foto", OutputStream.nullOutputStream());
+        contador.linhas += linhas;
+        return linhas;
+    }
+}
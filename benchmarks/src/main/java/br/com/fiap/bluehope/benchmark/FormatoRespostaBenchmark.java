@@ -0,0 +1,140 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import br.com.fiap.bluehope.config.FormatosBinariosConfiguration;
+import br.com.fiap.bluehope.model.DesafioResumo;
+import br.com.fiap.bluehope.model.FotoResumo;
+import br.com.fiap.bluehope.model.StatusVariantes;
+
+/**
+ * Tamanho e custo de escrita das listagens em HAL JSON, CBOR e Smile, pelo
+ * mesmo conversor que o Spring MVC escolhe para cada {@code Accept}: uma
+ * página de 1000 desafios de {@code GET /desafio} e as 100 fotos de
+ * {@code GET /foto}, o maior limite do cursor. {@code serializarComGzip}
+ * soma a compressão do {@code CompressaoGzipFilter}; os tamanhos, com e sem
+ * gzip, são impressos no início de cada combinação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatoRespostaBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    String formato;
+
+    @Param({ "desafios", "fotos" })
+    String lista;
+
+    ConfigurableApplicationContext contexto;
+    HttpMessageConverter<Object> conversor;
+    MediaType tipo;
+    RepresentationModel<?> modelo;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void preparar() throws IOException {
+        contexto = BancoEmbutido.iniciar("formato", Map.of());
+        tipo = switch (formato) {
+            case "cbor" -> MediaType.APPLICATION_CBOR;
+            case "smile" -> FormatosBinariosConfiguration.APPLICATION_SMILE;
+            default -> MediaTypes.HAL_JSON;
+        };
+
+        RequisicaoSimulada.iniciar("/" + lista.substring(0, lista.length() - 1));
+        modelo = lista.equals("fotos") ? fotos() : desafios(contexto.getBean(PagedResourcesAssembler.class));
+        RequisicaoSimulada.encerrar();
+
+        conversor = (HttpMessageConverter<Object>) contexto.getBean(RequestMappingHandlerAdapter.class)
+                .getMessageConverters().stream()
+                .filter(c -> c.canWrite(modelo.getClass(), tipo))
+                .findFirst()
+                .orElseThrow();
+        System.out.printf(Locale.ROOT, "%n%s %s: %d bytes, %d com gzip%n",
+                lista, formato, serializar().length, serializarComGzip().length);
+    }
+
+    private static RepresentationModel<?> desafios(PagedResourcesAssembler<DesafioResumo> assembler) {
+        var desafios = new ArrayList<DesafioResumo>(1000);
+        for (long id = 1; id <= 1000; id++) {
+            desafios.add(new DesafioResumo(id, "Recolher " + id + " kg de plástico na orla", (int) (id % 50) + 1,
+                    id % 40 + 1));
+        }
+        return assembler.toModel(new PageImpl<>(desafios, PageRequest.of(3, 1000), 10_000),
+                DesafioResumo::toEntityModel);
+    }
+
+    private static RepresentationModel<?> fotos() {
+        var fotos = new ArrayList<FotoResumo>(100);
+        for (long id = 1; id <= 100; id++) {
+            fotos.add(new FotoResumo(id, "fotos/" + id + "/original.jpg", id / 2 + 1, "image/jpeg",
+                    180_000 + id * 37, StatusVariantes.PRONTA));
+        }
+        return CollectionModel.of(fotos.stream().map(FotoResumo::toModel).toList(),
+                Link.of("http://bluehope.example:8080/foto?limit=100"),
+                Link.of("http://bluehope.example:8080/foto?after=100&limit=100", "next"));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        var mensagem = new MockHttpOutputMessage();
+        conversor.write(modelo, tipo, mensagem);
+        return mensagem.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] serializarComGzip() throws IOException {
+        var corpo = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(corpo, 8192, true)) {
+            var mensagem = new MockHttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return gzip;
+                }
+            };
+            conversor.write(modelo, tipo, mensagem);
+        }
+        return corpo.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.bluehope.lote.LoteService;
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+
+/**
+ * Tempo para inserir {@code linhas} desafios: um {@code save} por linha, cada
+ * um na sua transação (como em {@code POST /desafio}), contra o
+ * {@link LoteService} com lotes JDBC do tamanho informado, com o H2 em
+ * memória e via TCP. Linhas por segundo = linhas / tempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class InsercaoEmLoteBenchmark {
+
+    @Param("100000")
+    int linhas;
+
+    @Param({ "1", "50" })
+    int tamanhoLote;
+
+    @Param({ "false", "true" })
+    boolean rede;
+
+    ConfigurableApplicationContext contexto;
+    DesafioRepository repository;
+    LoteService loteService;
+    JdbcTemplate jdbc;
+    List<Desafio> desafios;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BancoEmbutido.iniciar("insercao" + tamanhoLote, rede, Map.of(
+                "spring.jpa.properties.hibernate.jdbc.batch_size", tamanhoLote,
+                "spring.jpa.properties.hibernate.order_inserts", true));
+        repository = contexto.getBean(DesafioRepository.class);
+        loteService = contexto.getBean(LoteService.class);
+        jdbc = contexto.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        jdbc.execute("delete from desafio");
+        desafios = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            var desafio = new Desafio();
+            desafio.setDescricao("Desafio " + i);
+            desafio.setPontos(1 + i % 100);
+            desafios.add(desafio);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int saveUmPorUm() {
+        desafios.forEach(repository::save);
+        return desafios.size();
+    }
+
+    @Benchmark
+    public int inserirEmLote() {
+        return loteService.inserir(desafios, Desafio::getId).inseridos();
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.fiap.bluehope.benchmark;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+
+import br.com.fiap.bluehope.controller.FotoController;
+import br.com.fiap.bluehope.model.Foto;
+
+/**
+ * Montagem dos links de uma lista de fotos com {@code linkTo(methodOn(...))},
+ * como era feito antes, contra os templates do {@code LinksRecurso}. Cada
+ * invocação simula uma requisição nova, então o cálculo da URI base entra na
+ * conta das duas abordagens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinksBenchmark {
+
+    @Param("10000")
+    int entidades;
+
+    List<Foto> fotos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        fotos = new ArrayList<>(entidades);
+        for (long id = 1; id <= entidades; id++) {
+            var foto = new Foto();
+            foto.setId(id);
+            foto.setCaminhoFoto("fotos/" + id + ".jpg");
+            fotos.add(foto);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void novaRequisicao() {
+        RequisicaoSimulada.iniciar("/foto");
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerrarRequisicao() {
+        RequisicaoSimulada.encerrar();
+    }
+
+    @Benchmark
+    public List<EntityModel<Foto>> linkBuilder() {
+        var modelos = new ArrayList<EntityModel<Foto>>(fotos.size());
+        for (var foto : fotos) {
+            modelos.add(EntityModel.of(
+                    foto,
+                    linkTo(methodOn(FotoController.class).show(foto.getId())).withSelfRel(),
+                    linkTo(methodOn(FotoController.class).destroy(foto.getId())).withRel("delete"),
+                    linkTo(methodOn(FotoController.class).index(null, null)).withRel("contents")));
+        }
+        return modelos;
+    }
+
+    @Benchmark
+    public List<EntityModel<Foto>> templates() {
+        var modelos = new ArrayList<EntityModel<Foto>>(fotos.size());
+        for (var foto : fotos) {
+            modelos.add(foto.toEntityModel());
+        }
+        return modelos;
+    }
+}
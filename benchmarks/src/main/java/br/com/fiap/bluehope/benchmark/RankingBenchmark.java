@@ -0,0 +1,91 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.bluehope.ranking.ArvoreRanking;
+import br.com.fiap.bluehope.ranking.PontuacaoPerfil;
+import br.com.fiap.bluehope.ranking.PosicaoRanking;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RankingBenchmark {
+
+    @Param("1000000")
+    int perfis;
+
+    @Param("10")
+    int top;
+
+    ArvoreRanking arvore;
+    List<PontuacaoPerfil> tabela;
+    SplittableRandom random;
+
+    @Setup
+    public void preparar() {
+        random = new SplittableRandom(42);
+        arvore = new ArvoreRanking();
+        tabela = new ArrayList<>(perfis);
+        for (long id = 1; id <= perfis; id++) {
+            int pontos = random.nextInt(100_000);
+            arvore.definir(id, pontos);
+            tabela.add(new PontuacaoPerfil(id, pontos));
+        }
+    }
+
+    @Benchmark
+    public List<PosicaoRanking> primeirosArvore() {
+        return arvore.primeiros(top);
+    }
+
+    @Benchmark
+    public long posicaoArvore() {
+        return arvore.posicao(1 + random.nextInt(perfis));
+    }
+
+    @Benchmark
+    public void atualizarArvore() {
+        arvore.definir(1 + random.nextInt(perfis), random.nextInt(100_000));
+    }
+
+    @Benchmark
+    public List<PontuacaoPerfil> primeirosOrdenandoTabela() {
+        return tabela.stream()
+                .sorted(Comparator.comparingInt(PontuacaoPerfil::somaPontos).reversed()
+                        .thenComparing(PontuacaoPerfil::id))
+                .limit(top)
+                .toList();
+    }
+
+    @Benchmark
+    public long posicaoVarrendoTabela() {
+        var alvo = tabela.get(random.nextInt(perfis));
+        long posicao = 1;
+        for (var p : tabela) {
+            if (p.somaPontos() > alvo.somaPontos()
+                    || (p.somaPontos() == alvo.somaPontos() && p.id() < alvo.id())) {
+                posicao++;
+            }
+        }
+        return posicao;
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.fiap.bluehope.lote.LoteService;
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.DesafioResumo;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.FotoResumo;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+
+/**
+ * Idas e voltas ao banco das consultas usadas pelos controllers, com o H2 em
+ * memória e via TCP ({@code rede = true}, mais perto do custo real do Oracle).
+ * O aquecimento é longo porque Hibernate e Spring Data só estabilizam depois
+ * de alguns milhares de chamadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositorioBenchmark {
+
+    @Param("10000")
+    int linhas;
+
+    @Param({ "false", "true" })
+    boolean rede;
+
+    ConfigurableApplicationContext contexto;
+    DesafioRepository desafios;
+    FotoRepository fotos;
+    PerfilRepository perfis;
+    List<Long> idsDesafios;
+    List<Long> idsFotos;
+    List<Long> idsPerfis;
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = BancoEmbutido.iniciar("repositorio", rede, Map.of());
+        desafios = contexto.getBean(DesafioRepository.class);
+        fotos = contexto.getBean(FotoRepository.class);
+        perfis = contexto.getBean(PerfilRepository.class);
+        var lote = contexto.getBean(LoteService.class);
+        random = new SplittableRandom(42);
+
+        var novosPerfis = new ArrayList<Perfil>();
+        for (int i = 0; i < 100; i++) {
+            var perfil = new Perfil();
+            perfil.setNome("Perfil " + i);
+            perfil.setMedalha("Iniciante");
+            novosPerfis.add(perfil);
+        }
+        idsPerfis = lote.inserir(novosPerfis, Perfil::getId).ids();
+
+        var novosDesafios = new ArrayList<Desafio>();
+        for (int i = 0; i < linhas; i++) {
+            var desafio = new Desafio();
+            desafio.setDescricao("Desafio " + i);
+            desafio.setPontos(1 + i % 100);
+            desafio.setPerfil(novosPerfis.get(i % novosPerfis.size()));
+            novosDesafios.add(desafio);
+        }
+        idsDesafios = lote.inserir(novosDesafios, Desafio::getId).ids();
+
+        var novasFotos = new ArrayList<Foto>();
+        for (int i = 0; i < linhas; i++) {
+            var foto = new Foto();
+            foto.setCaminhoFoto("fotos/" + i + ".jpg");
+            foto.setDesafio(novosDesafios.get(i));
+            novasFotos.add(foto);
+        }
+        idsFotos = lote.inserir(novasFotos, Foto::getId).ids();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Foto> buscarFotoPorId() {
+        return fotos.findDetalheById(idsFotos.get(random.nextInt(idsFotos.size())));
+    }
+
+    @Benchmark
+    public List<FotoResumo> paginaCursorFotos() {
+        return fotos.findResumosByIdGreaterThan(idsFotos.get(random.nextInt(idsFotos.size())), Limit.of(20));
+    }
+
+    @Benchmark
+    public Page<DesafioResumo> paginaDesafios() {
+        return desafios.findResumos(PageRequest.of(random.nextInt(linhas / 20), 20));
+    }
+
+    @Benchmark
+    public int somarPontos() {
+        return perfis.somarPontos(idsPerfis.get(random.nextInt(idsPerfis.size())), 1);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fiap.bluehope.benchmark;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Coloca uma requisição falsa no {@link RequestContextHolder}, para que a
+ * montagem de links e o assembler de páginas rodem como num controller.
+ */
+final class RequisicaoSimulada {
+
+    private RequisicaoSimulada() {
+    }
+
+    static void iniciar(String uri) {
+        var request = new MockHttpServletRequest("GET", uri);
+        request.setServerName("bluehope.example");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    static void encerrar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
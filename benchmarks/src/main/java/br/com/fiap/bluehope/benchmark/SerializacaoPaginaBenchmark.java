@@ -0,0 +1,121 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Perfil;
+
+/**
+ * Resposta de {@code GET /desafio}: montagem do
+ * {@code PagedModel<EntityModel<Desafio>>} pelo {@link PagedResourcesAssembler}
+ * e serialização HAL com o mesmo {@link ObjectMapper} que o Spring MVC usa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoPaginaBenchmark {
+
+    @Param({ "20", "100" })
+    int tamanhoPagina;
+
+    ConfigurableApplicationContext contexto;
+    PagedResourcesAssembler<Desafio> assembler;
+    ObjectMapper hal;
+    Page<Desafio> pagina;
+    PagedModel<EntityModel<Desafio>> modelo;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void preparar() {
+        contexto = BancoEmbutido.iniciar("serializacao", Map.of());
+        assembler = contexto.getBean(PagedResourcesAssembler.class);
+        hal = contexto.getBean(RequestMappingHandlerAdapter.class).getMessageConverters().stream()
+                .filter(c -> c instanceof AbstractJackson2HttpMessageConverter)
+                .filter(c -> c.canWrite(PagedModel.class, MediaTypes.HAL_JSON))
+                .map(c -> ((AbstractJackson2HttpMessageConverter) c).getObjectMapper())
+                .findFirst()
+                .orElseThrow();
+
+        var perfil = new Perfil();
+        perfil.setId(7L);
+        perfil.setNome("Equipe Maré Limpa");
+        perfil.setSomaPontos(1250);
+        perfil.setMedalha("Intermediario");
+        var desafios = new ArrayList<Desafio>(tamanhoPagina);
+        for (long id = 1; id <= tamanhoPagina; id++) {
+            var desafio = new Desafio();
+            desafio.setId(id);
+            desafio.setDescricao("Recolher " + id + " kg de plástico na orla");
+            desafio.setPontos((int) (id % 50) + 1);
+            desafio.setPerfil(perfil);
+            desafios.add(desafio);
+        }
+        pagina = new PageImpl<>(desafios, PageRequest.of(3, tamanhoPagina), 10_000);
+
+        RequisicaoSimulada.iniciar("/desafio");
+        modelo = assembler.toModel(pagina, Desafio::toEntityModel);
+        RequisicaoSimulada.encerrar();
+    }
+
+    @Setup(Level.Invocation)
+    public void novaRequisicao() {
+        RequisicaoSimulada.iniciar("/desafio");
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerrarRequisicao() {
+        RequisicaoSimulada.encerrar();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Desafio>> montar() {
+        return assembler.toModel(pagina, Desafio::toEntityModel);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return hal.writeValueAsBytes(modelo);
+    }
+
+    @Benchmark
+    public byte[] montarESerializar() throws JsonProcessingException {
+        return hal.writeValueAsBytes(assembler.toModel(pagina, Desafio::toEntityModel));
+    }
+}
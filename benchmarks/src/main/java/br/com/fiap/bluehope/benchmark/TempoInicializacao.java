@@ -0,0 +1,122 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo até a primeira requisição respondida: da criação do processo
+ * da aplicação até o primeiro {@code 200} de {@code GET /desafio?size=1},
+ * que passa pelo MVC, pelo banco e pela serialização HAL. Cada variante sobe
+ * {@code rodadas} vezes e o relatório traz mediana, mínimo e máximo.
+ *
+ * <p>As variantes vão do jar como sai do {@code package}, sem os beans sob
+ * demanda, até o jar extraído pelo profile {@code aot} com o processamento AOT
+ * e o arquivo CDS. Os argumentos da aplicação precisam ativar o mesmo profile
+ * usado no build AOT, que fixa as condições dos beans.
+ *
+ * <p>Argumentos: {@code jar diretorioCds rodadas porta argumentosDaAplicacao}.
+ */
+public final class TempoInicializacao {
+
+    private static final String PRIMEIRA_REQUISICAO = "desafio?size=1";
+    private static final Duration LIMITE = Duration.ofMinutes(5);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private record Variante(String nome, Path diretorio, List<String> comando) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "../target/bluehope-0.0.1-SNAPSHOT.jar").toAbsolutePath();
+        Path cds = Path.of(args.length > 1 ? args[1] : "../target/cds").toAbsolutePath();
+        int rodadas = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int porta = args.length > 3 ? Integer.parseInt(args[3]) : 8089;
+        List<String> argumentos = new ArrayList<>();
+        if (args.length > 4 && !args[4].isBlank()) {
+            argumentos.addAll(Arrays.asList(args[4].trim().split("\\s+")));
+        }
+        argumentos.add("--server.port=" + porta);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String extraido = jar.getFileName().toString();
+        if (!Files.exists(cds.resolve("application.jsa"))) {
+            throw new IllegalStateException("Sem " + cds.resolve("application.jsa") + "; gere com mvn -Paot package");
+        }
+        var variantes = List.of(
+                new Variante("jar", cds, comando(argumentos, java, "-jar", jar.toString(),
+                        "--bluehope.inicializacao.sob-demanda=")),
+                new Variante("jar, sob demanda", cds, comando(argumentos, java, "-jar", jar.toString())),
+                new Variante("extraído", cds, comando(argumentos, java, "-jar", extraido)),
+                new Variante("extraído, AOT", cds, comando(argumentos, java, "-Dspring.aot.enabled=true", "-jar", extraido)),
+                new Variante("extraído, AOT, CDS", cds, comando(argumentos, java, "-XX:SharedArchiveFile=application.jsa",
+                        "-Xlog:cds=off", "-Dspring.aot.enabled=true", "-jar", extraido)));
+
+        var tempo = new TempoInicializacao();
+        URI uri = URI.create("http://localhost:" + porta + "/" + PRIMEIRA_REQUISICAO);
+        System.out.printf(Locale.ROOT, "%d rodadas por variante, primeira requisição GET %s%n", rodadas, uri);
+        System.out.printf(Locale.ROOT, "%n%-22s %10s %10s %10s%n", "variante", "mediana ms", "min ms", "max ms");
+        for (var variante : variantes) {
+            long[] tempos = new long[rodadas];
+            for (int i = 0; i < rodadas; i++) {
+                tempos[i] = tempo.medir(variante, uri);
+            }
+            Arrays.sort(tempos);
+            System.out.printf(Locale.ROOT, "%-22s %10d %10d %10d%n",
+                    variante.nome(), tempos[rodadas / 2], tempos[0], tempos[rodadas - 1]);
+        }
+    }
+
+    private static List<String> comando(List<String> argumentos, String... inicio) {
+        var comando = new ArrayList<>(Arrays.asList(inicio));
+        comando.addAll(argumentos);
+        return comando;
+    }
+
+    /** Sobe a variante, espera a primeira resposta e devolve o tempo em ms. */
+    private long medir(Variante variante, URI uri) throws IOException, InterruptedException {
+        Path log = variante.diretorio().resolve("inicializacao.log");
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(variante.comando())
+                .directory(variante.diretorio().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            var requisicao = HttpRequest.newBuilder(uri).timeout(LIMITE).GET().build();
+            while (System.nanoTime() - inicio < LIMITE.toNanos()) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException(variante.nome() + " terminou com código " + processo.exitValue()
+                            + "; veja " + log);
+                }
+                try {
+                    if (http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                    }
+                } catch (IOException e) {
+                    // Ainda não está ouvindo na porta.
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(variante.nome() + " não respondeu em " + LIMITE + "; veja " + log);
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.fiap.bluehope.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import br.com.fiap.bluehope.controller.PerfilController;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.validation.TipoMedalhaValidator;
+import br.com.fiap.bluehope.validation.ValidationErrorHandler;
+import br.com.fiap.bluehope.validation.ValidationErrorHandler.ValidationError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Validação de entrada: o {@link TipoMedalhaValidator} isolado, a validação
+ * completa de um {@link Perfil} pelo Hibernate Validator e o mapeamento dos
+ * erros para a resposta 400 no {@link ValidationErrorHandler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private static final String[] MEDALHAS = { "Iniciante", "Intermediario", "Avançado", "Ouro" };
+
+    ValidatorFactory fabrica;
+    Validator validator;
+    TipoMedalhaValidator tipoMedalha;
+    ValidationErrorHandler handler;
+    Perfil valido;
+    Perfil invalido;
+    int proxima;
+
+    @State(Scope.Benchmark)
+    public static class ErrosDeCampo {
+
+        @Param({ "1", "10" })
+        int erros;
+
+        MethodArgumentNotValidException excecao;
+
+        @Setup(Level.Trial)
+        public void preparar() throws NoSuchMethodException {
+            var resultado = new BeanPropertyBindingResult(new Perfil(), "perfil");
+            for (int i = 0; i < erros; i++) {
+                resultado.addError(new FieldError("perfil", "campo" + i, "valor inválido " + i));
+            }
+            var parametro = new MethodParameter(PerfilController.class.getMethod("create", Perfil.class), 0);
+            excecao = new MethodArgumentNotValidException(parametro, resultado);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        fabrica = Validation.buildDefaultValidatorFactory();
+        validator = fabrica.getValidator();
+        tipoMedalha = new TipoMedalhaValidator();
+        handler = new ValidationErrorHandler();
+
+        valido = new Perfil();
+        valido.setNome("Equipe Maré Limpa");
+        valido.setMedalha("Avançado");
+        invalido = new Perfil();
+        invalido.setNome(" ");
+        invalido.setSomaPontos(-1);
+        invalido.setMedalha("Ouro");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        fabrica.close();
+    }
+
+    @Benchmark
+    public boolean tipoMedalha() {
+        return tipoMedalha.isValid(MEDALHAS[proxima++ & 3], null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Perfil>> validarPerfilValido() {
+        return validator.validate(valido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Perfil>> validarPerfilInvalido() {
+        return validator.validate(invalido);
+    }
+
+    @Benchmark
+    public List<ValidationError> mapearErros(ErrosDeCampo erros) {
+        return handler.handler(erros.excecao);
+    }
+}
@@ -3,6 +3,8 @@ package br.com.fiap.bluehope;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -14,7 +16,8 @@ import io.swagger.v3.oas.annotations.info.License;
 
 @SpringBootApplication
 @Controller
-@EnableCaching
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableScheduling
 @OpenAPIDefinition(
 	info = @Info(
 		title = "BlueHope",
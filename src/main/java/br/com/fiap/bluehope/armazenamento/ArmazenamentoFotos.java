@@ -0,0 +1,21 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Backend onde ficam os bytes das fotos. A chave de cada objeto é o SHA-256
+ * do seu conteúdo, então bytes iguais ocupam um único objeto e um objeto
+ * gravado nunca é alterado, só removido.
+ */
+public interface ArmazenamentoFotos {
+
+    ObjetoRecebido receber(InputStream conteudo) throws IOException;
+
+    Optional<Resource> abrir(String chave);
+
+    void remover(String chave) throws IOException;
+}
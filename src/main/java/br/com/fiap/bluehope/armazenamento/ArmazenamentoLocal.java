@@ -0,0 +1,115 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guarda as fotos num diretório local, espalhadas em subdiretórios pelos dois
+ * primeiros bytes do hash. O upload é copiado direto do stream para um
+ * arquivo temporário, calculando o SHA-256 no caminho, e só é movido para o
+ * endereço definitivo se ainda não houver um arquivo com o mesmo conteúdo.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "bluehope.armazenamento.tipo", havingValue = "local", matchIfMissing = true)
+public class ArmazenamentoLocal implements ArmazenamentoFotos {
+
+    private final Path raiz;
+    private final Path temporarios;
+
+    public ArmazenamentoLocal(@Value("${bluehope.armazenamento.diretorio:dados/fotos}") Path diretorio) throws IOException {
+        this.raiz = diretorio.toAbsolutePath().normalize();
+        this.temporarios = Files.createDirectories(raiz.resolve(".tmp"));
+        log.info("Armazenando fotos em {}", raiz);
+    }
+
+    @Override
+    public ObjetoRecebido receber(InputStream conteudo) throws IOException {
+        Path temporario = Files.createTempFile(temporarios, "upload-", ".part");
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            long tamanho = Files.copy(new DigestInputStream(conteudo, digest), temporario,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return new Recebido(HexFormat.of().formatHex(digest.digest()), tamanho, temporario);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(temporario);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Optional<Resource> abrir(String chave) {
+        Path arquivo = caminho(chave);
+        return Files.isRegularFile(arquivo) ? Optional.of(new FileSystemResource(arquivo)) : Optional.empty();
+    }
+
+    @Override
+    public void remover(String chave) throws IOException {
+        Files.deleteIfExists(caminho(chave));
+    }
+
+    private Path caminho(String chave) {
+        if (!chave.matches("[0-9a-zA-Z_-]{8,}")) {
+            throw new IllegalArgumentException("Chave de armazenamento inválida");
+        }
+        return raiz.resolve(chave.substring(0, 2)).resolve(chave.substring(2, 4)).resolve(chave);
+    }
+
+    private final class Recebido implements ObjetoRecebido {
+
+        private final String chave;
+        private final long tamanho;
+        private final Path temporario;
+
+        Recebido(String chave, long tamanho, Path temporario) {
+            this.chave = chave;
+            this.tamanho = tamanho;
+            this.temporario = temporario;
+        }
+
+        @Override
+        public String chave() {
+            return chave;
+        }
+
+        @Override
+        public long tamanho() {
+            return tamanho;
+        }
+
+        @Override
+        public boolean confirmar() throws IOException {
+            Path destino = caminho(chave);
+            if (Files.isRegularFile(destino)) {
+                return false;
+            }
+            Files.createDirectories(destino.getParent());
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(temporario);
+        }
+    }
+}
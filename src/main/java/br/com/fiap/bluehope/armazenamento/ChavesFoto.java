@@ -0,0 +1,16 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Versão de uma foto e as chaves de armazenamento para as quais ela aponta,
+ * lidas direto do banco (sem passar pelo contexto de persistência).
+ */
+public record ChavesFoto(Long versao, String conteudo, String varianteThumb, String varianteMedium) {
+
+    public List<String> chaves() {
+        return Stream.of(conteudo, varianteThumb, varianteMedium).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import org.springframework.core.io.Resource;
+
+public record ConteudoFoto(String chave, String tipo, long tamanho, Resource recurso) {
+}
@@ -0,0 +1,153 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.StatusVariantes;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class ConteudoFotoService {
+
+    private static final int TENTATIVAS = 3;
+
+    @Autowired
+    ArmazenamentoFotos armazenamento;
+
+    @Autowired
+    FotoRepository repository;
+
+    @Autowired
+    ReferenciasConteudo referencias;
+
+    @Autowired
+    VariantesFotoService variantes;
+
+    @Autowired
+    MeterRegistry registry;
+
+    /**
+     * Grava o conteúdo e troca a referência da foto. A troca só vale se a foto
+     * ainda estiver na versão lida, para que as chaves liberadas sejam
+     * exatamente as que foram substituídas; se outra gravação passou na
+     * frente, a foto é relida e a troca tentada de novo.
+     */
+    public Foto enviar(Long id, String tipo, InputStream conteudo) throws IOException {
+        if (tipo == null || !MediaType.parseMediaType(tipo).isCompatibleWith(MediaType.parseMediaType("image/*"))) {
+            throw new ResponseStatusException(UNSUPPORTED_MEDIA_TYPE, "O conteúdo da foto deve ser uma imagem");
+        }
+        var foto = buscar(id);
+
+        String chave;
+        long tamanho;
+        ChavesFoto anteriores;
+        try (var objeto = armazenamento.receber(conteudo)) {
+            chave = objeto.chave();
+            tamanho = objeto.tamanho();
+            anteriores = referencias.comTravas(List.of(chave), () -> {
+                if (!objeto.confirmar()) {
+                    registry.counter("bluehope.fotos.conteudo.reaproveitados").increment();
+                    log.info("Conteúdo da foto {} já existia com a chave {}", id, chave);
+                }
+                return substituir(id, chave, tipo, tamanho);
+            });
+        }
+        if (anteriores == null) {
+            referencias.liberar(chave);
+            throw new ResponseStatusException(CONFLICT, "A foto foi alterada por outras requisições durante o envio");
+        }
+        log.info("Conteúdo da foto {} gravado com a chave {} ({} bytes)", id, chave, tamanho);
+        anteriores.chaves().forEach(referencias::liberar);
+        variantes.agendar(id, chave);
+
+        foto.setVersao(anteriores.versao() + 1);
+        foto.setConteudo(chave);
+        foto.setTipoConteudo(tipo);
+        foto.setTamanhoConteudo(tamanho);
+        foto.setStatusVariantes(StatusVariantes.PENDENTE);
+        foto.setVarianteThumb(null);
+        foto.setVarianteMedium(null);
+        return foto;
+    }
+
+    /**
+     * Devolve a versão e as chaves que a foto tinha antes da troca, ou
+     * {@code null} se as tentativas se esgotaram. Chamado com a trava da nova
+     * chave.
+     */
+    private ChavesFoto substituir(Long id, String chave, String tipo, long tamanho) {
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            var atuais = repository.findChavesById(id).orElse(null);
+            if (atuais == null) {
+                referencias.liberar(chave);
+                throw new ResponseStatusException(NOT_FOUND, "Não existe foto com o id informado");
+            }
+            if (repository.definirConteudo(id, atuais.versao(), chave, tipo, tamanho) == 1) {
+                return atuais;
+            }
+        }
+        return null;
+    }
+
+    public ConteudoFoto abrir(Long id, Variante variante) throws IOException {
+        var foto = buscar(id);
+        if (foto.getConteudo() == null) {
+            throw new ResponseStatusException(NOT_FOUND, "A foto informada não tem conteúdo");
+        }
+        if (variante == null) {
+            return new ConteudoFoto(foto.getConteudo(), foto.getTipoConteudo(), foto.getTamanhoConteudo(),
+                    recurso(foto.getConteudo()));
+        }
+        var chave = variante.chave(foto);
+        if (chave == null) {
+            throw new ResponseStatusException(NOT_FOUND, "A variante " + variante.nome()
+                    + " desta foto não está disponível (" + foto.getStatusVariantes() + ")");
+        }
+        var recurso = recurso(chave);
+        return new ConteudoFoto(chave, "image/jpeg", recurso.contentLength(), recurso);
+    }
+
+    /**
+     * Apaga a foto e libera o conteúdo e as variantes dela. O DELETE só vale
+     * na versão lida, para que as chaves liberadas sejam as da linha apagada;
+     * se um envio ou as variantes passaram na frente, as chaves são relidas.
+     * Os arquivos só saem do armazenamento se nenhuma outra foto usar os
+     * mesmos bytes.
+     */
+    public void apagar(Long id) {
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            var atuais = repository.findChavesById(id).orElseThrow(
+                    () -> new ResponseStatusException(NOT_FOUND, "Não existe foto com o id informado"));
+            if (repository.apagar(id, atuais.versao()) == 1) {
+                atuais.chaves().forEach(referencias::liberar);
+                return;
+            }
+        }
+        throw new ResponseStatusException(CONFLICT, "A foto foi alterada por outras requisições durante a exclusão");
+    }
+
+    private Resource recurso(String chave) {
+        return armazenamento.abrir(chave).orElseThrow(
+                () -> new ResponseStatusException(NOT_FOUND, "Conteúdo da foto não encontrado no armazenamento"));
+    }
+
+    private Foto buscar(Long id) {
+        return repository.findById(id).orElseThrow(
+                () -> new ResponseStatusException(NOT_FOUND, "Não existe foto com o id informado"));
+    }
+}
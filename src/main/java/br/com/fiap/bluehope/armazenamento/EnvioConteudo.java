@@ -0,0 +1,123 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_RANGES;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
+import static org.springframework.http.HttpHeaders.IF_RANGE;
+import static org.springframework.http.HttpHeaders.RANGE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escreve o conteúdo de uma foto na resposta. Arquivos locais a partir de
+ * {@code bluehope.armazenamento.minimo-sendfile} bytes são entregues ao
+ * sendfile do Tomcat, que manda o arquivo direto para o socket depois que o
+ * servlet retorna, sem cópia pela JVM; só o conector NIO/NIO2 com
+ * {@code useSendfile} oferece isso, e com HTTPS ele fica desligado. Nos demais
+ * casos os bytes são copiados para o stream da resposta.
+ */
+@Component
+public class EnvioConteudo {
+
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private final String cacheControl;
+    private final long minimoSendfile;
+
+    public EnvioConteudo(
+            @Value("${bluehope.armazenamento.max-age:1h}") Duration maxAge,
+            @Value("${bluehope.armazenamento.minimo-sendfile:49152}") long minimoSendfile) {
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+        this.minimoSendfile = minimoSendfile;
+    }
+
+    public void enviar(ConteudoFoto conteudo, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // a chave nunca é reaproveitada para outros bytes, então serve como ETag forte
+        String etag = "\"" + conteudo.chave() + "\"";
+        response.setHeader(CACHE_CONTROL, cacheControl);
+        response.setHeader(ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long tamanho = conteudo.tamanho();
+        long inicio = 0;
+        long fim = tamanho - 1;
+        var faixa = faixa(request, etag);
+        if (faixa != null) {
+            if (tamanho == 0 || faixa.getRangeStart(tamanho) >= tamanho) {
+                response.setHeader(CONTENT_RANGE, "bytes */" + tamanho);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            inicio = faixa.getRangeStart(tamanho);
+            fim = faixa.getRangeEnd(tamanho);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+
+        long quantidade = fim - inicio + 1;
+        response.setContentType(conteudo.tipo() != null ? conteudo.tipo() : "application/octet-stream");
+        response.setContentLengthLong(quantidade);
+        if ("HEAD".equals(request.getMethod()) || quantidade == 0) {
+            return;
+        }
+        escrever(conteudo.recurso(), inicio, quantidade, request, response);
+    }
+
+    /**
+     * Só uma faixa é atendida; pedidos com várias faixas, com If-Range que não
+     * confere ou com cabeçalho inválido recebem o arquivo inteiro.
+     */
+    private static HttpRange faixa(HttpServletRequest request, String etag) {
+        String range = request.getHeader(RANGE);
+        if (range == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            var faixas = HttpRange.parseRanges(range);
+            return faixas.size() == 1 ? faixas.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void escrever(Resource recurso, long inicio, long quantidade,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (recurso.isFile() && quantidade >= minimoSendfile
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            request.setAttribute(SENDFILE_ARQUIVO, recurso.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + quantidade);
+            return;
+        }
+        copiar(recurso, inicio, quantidade, response);
+    }
+
+    private static void copiar(Resource recurso, long inicio, long quantidade, HttpServletResponse response)
+            throws IOException {
+        try (InputStream entrada = recurso.getInputStream()) {
+            StreamUtils.copyRange(entrada, response.getOutputStream(), inicio, inicio + quantidade - 1);
+        }
+    }
+}
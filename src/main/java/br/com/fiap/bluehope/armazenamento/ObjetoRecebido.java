@@ -0,0 +1,24 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.io.IOException;
+
+/**
+ * Conteúdo já recebido e com hash calculado, mas ainda fora do endereço
+ * definitivo. {@link #confirmar()} publica o objeto; {@link #close()} descarta
+ * o que não foi publicado.
+ */
+public interface ObjetoRecebido extends AutoCloseable {
+
+    String chave();
+
+    long tamanho();
+
+    /**
+     * Publica o objeto na sua chave. Retorna {@code false} quando já existia um
+     * objeto com o mesmo conteúdo, que passa a ser reaproveitado.
+     */
+    boolean confirmar() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
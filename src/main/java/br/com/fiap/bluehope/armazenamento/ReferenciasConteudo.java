@@ -0,0 +1,90 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.fiap.bluehope.repository.FotoRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controla o ciclo de vida dos objetos compartilhados entre fotos. A contagem
+ * de referências de uma chave é o número de fotos que apontam para ela, e
+ * tanto a publicação seguida do vínculo quanto a coleta rodam com a trava do
+ * hash, para a coleta nunca apagar um objeto que acabou de ganhar referência.
+ *
+ * As travas são locais à JVM; com mais de uma instância gravando no mesmo
+ * armazenamento a coleta precisa ser feita de outra forma.
+ */
+@Component
+@Slf4j
+public class ReferenciasConteudo {
+
+    private static final int TRAVAS = 64;
+
+    private final ReentrantLock[] travas = new ReentrantLock[TRAVAS];
+
+    @Autowired
+    ArmazenamentoFotos armazenamento;
+
+    @Autowired
+    FotoRepository repository;
+
+    public ReferenciasConteudo() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Operacao<T> {
+        T executar() throws IOException;
+    }
+
+    /**
+     * Executa a operação segurando as travas de todas as chaves informadas,
+     * sempre adquiridas na mesma ordem.
+     */
+    public <T> T comTravas(Collection<String> chaves, Operacao<T> operacao) throws IOException {
+        int[] indices = chaves.stream().filter(Objects::nonNull).mapToInt(ReferenciasConteudo::indice)
+                .distinct().sorted().toArray();
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                travas[indice].lock();
+                adquiridas++;
+            }
+            return operacao.executar();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                travas[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove o objeto do armazenamento se nenhuma foto apontar mais para ele.
+     */
+    public void liberar(String chave) {
+        try {
+            comTravas(List.of(chave), () -> {
+                if (repository.contarReferencias(chave) == 0) {
+                    armazenamento.remover(chave);
+                    log.info("Conteúdo {} sem referências removido", chave);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o conteúdo {}", chave, e);
+        }
+    }
+
+    private static int indice(String chave) {
+        return Math.floorMod(chave.hashCode(), TRAVAS);
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.bluehope.model.Foto;
+
+/**
+ * Versões reduzidas geradas para cada foto. O lado é o limite do maior lado
+ * da imagem; fotos menores que isso não são ampliadas.
+ */
+public enum Variante {
+
+    THUMB("thumb", 200),
+    MEDIUM("medium", 800);
+
+    private final String nome;
+    private final int lado;
+
+    Variante(String nome, int lado) {
+        this.nome = nome;
+        this.lado = lado;
+    }
+
+    public String nome() {
+        return nome;
+    }
+
+    public int lado() {
+        return lado;
+    }
+
+    public String chave(Foto foto) {
+        return this == THUMB ? foto.getVarianteThumb() : foto.getVarianteMedium();
+    }
+
+    public static Variante de(String nome) {
+        return Arrays.stream(values())
+                .filter(v -> v.nome.equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(BAD_REQUEST, "Variante inválida. Use uma de: "
+                        + Arrays.stream(values()).map(Variante::nome).collect(Collectors.joining(", "))));
+    }
+}
@@ -0,0 +1,262 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.bluehope.model.StatusVariantes;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.versionamento.VersoesColecao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera as variantes de cada foto em segundo plano. O pool e a fila são
+ * limitados; quando a fila enche, a própria thread que fez o upload gera as
+ * variantes, o que segura novos uploads até o pool dar conta. No modo com
+ * threads virtuais as threads do pool também são virtuais, mas continuam
+ * sendo {@code bluehope.variantes.threads}, já que reduzir imagens ocupa CPU.
+ */
+@Service
+@Slf4j
+public class VariantesFotoService {
+
+    private final ArmazenamentoFotos armazenamento;
+    private final FotoRepository repository;
+    private final CacheManager cacheManager;
+    private final ReferenciasConteudo referencias;
+    private final VersoesColecao versoes;
+    private final ThreadPoolExecutor executor;
+    private final Timer processamento;
+    private final Counter falhas;
+    private final Counter reaproveitadas;
+    private final Counter executadasNoChamador;
+
+    @Autowired
+    public VariantesFotoService(
+            ArmazenamentoFotos armazenamento,
+            FotoRepository repository,
+            CacheManager cacheManager,
+            ReferenciasConteudo referencias,
+            VersoesColecao versoes,
+            MeterRegistry registry,
+            @Value("${bluehope.variantes.threads:2}") int threads,
+            @Value("${bluehope.variantes.fila:100}") int capacidadeFila,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.armazenamento = armazenamento;
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.referencias = referencias;
+        this.versoes = versoes;
+        this.executadasNoChamador = registry.counter("bluehope.fotos.variantes.executadas.chamador");
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                threadsVirtuais
+                        ? Thread.ofVirtual().name("variantes-foto-", 1).factory()
+                        : Thread.ofPlatform().name("variantes-foto-", 1).daemon().factory(),
+                (tarefa, pool) -> {
+                    executadasNoChamador.increment();
+                    new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(tarefa, pool);
+                });
+        this.processamento = Timer.builder("bluehope.fotos.variantes.processamento")
+                .description("Tempo para gerar todas as variantes de uma foto")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.falhas = registry.counter("bluehope.fotos.variantes.falhas");
+        this.reaproveitadas = registry.counter("bluehope.fotos.variantes.reaproveitadas");
+        Gauge.builder("bluehope.fotos.variantes.fila", executor, e -> e.getQueue().size())
+                .description("Fotos aguardando a geração de variantes")
+                .register(registry);
+        Gauge.builder("bluehope.fotos.variantes.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    public void agendar(Long id, String conteudo) {
+        executor.execute(() -> gerar(id, conteudo));
+    }
+
+    /**
+     * As fotos pendentes de uma parada anterior voltam para a fila numa thread
+     * própria: com a fila cheia o {@code CallerRunsPolicy} faria a thread de
+     * inicialização gerar as variantes. Aqui a fila é alimentada só quando
+     * tem espaço, sem gerar nada na thread que enfileira.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarPendentes() {
+        Thread.ofPlatform().name("variantes-retomada").daemon().start(() -> {
+            var pendentes = repository.findByStatusVariantes(StatusVariantes.PENDENTE);
+            if (!pendentes.isEmpty()) {
+                log.info("Retomando a geração de variantes de {} fotos", pendentes.size());
+            }
+            executor.prestartAllCoreThreads();
+            try {
+                for (var foto : pendentes) {
+                    Runnable tarefa = () -> gerar(foto.getId(), foto.getConteudo());
+                    while (!executor.getQueue().offer(tarefa, 1, TimeUnit.SECONDS)) {
+                        if (executor.isShutdown()) {
+                            return;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    void gerar(Long id, String conteudo) {
+        List<ObjetoRecebido> recebidos = new ArrayList<>();
+        long inicio = System.nanoTime();
+        try {
+            if (reaproveitar(id, conteudo)) {
+                return;
+            }
+            BufferedImage original = ler(conteudo);
+            for (var variante : Variante.values()) {
+                recebidos.add(receber(reduzir(original, variante.lado())));
+            }
+            var chaves = recebidos.stream().map(ObjetoRecebido::chave).toList();
+            int atualizadas = referencias.comTravas(chaves, () -> {
+                for (var recebido : recebidos) {
+                    recebido.confirmar();
+                }
+                return repository.definirVariantes(id, conteudo, StatusVariantes.PRONTA,
+                        chaves.get(Variante.THUMB.ordinal()), chaves.get(Variante.MEDIUM.ordinal()));
+            });
+            if (atualizadas == 0) {
+                // a foto foi apagada ou recebeu outro conteúdo enquanto as variantes eram geradas
+                chaves.forEach(referencias::liberar);
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao gerar as variantes da foto {}", id, e);
+            falhas.increment();
+            recebidos.forEach(recebido -> referencias.liberar(recebido.chave()));
+            repository.definirStatusVariantes(id, conteudo, StatusVariantes.FALHOU);
+        } finally {
+            recebidos.forEach(VariantesFotoService::descartar);
+            limparCacheFotos(id);
+            processamento.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Se outra foto com os mesmos bytes já tem variantes prontas, aponta para
+     * elas em vez de gerar tudo de novo.
+     */
+    private boolean reaproveitar(Long id, String conteudo) throws IOException {
+        var existente = repository.findFirstByConteudoAndStatusVariantes(conteudo, StatusVariantes.PRONTA)
+                .filter(foto -> !foto.getId().equals(id));
+        if (existente.isEmpty()) {
+            return false;
+        }
+        String thumb = existente.get().getVarianteThumb();
+        String medium = existente.get().getVarianteMedium();
+        boolean vinculadas = referencias.comTravas(List.of(thumb, medium), () -> {
+            if (armazenamento.abrir(thumb).isEmpty() || armazenamento.abrir(medium).isEmpty()) {
+                return false;
+            }
+            repository.definirVariantes(id, conteudo, StatusVariantes.PRONTA, thumb, medium);
+            return true;
+        });
+        if (vinculadas) {
+            reaproveitadas.increment();
+        }
+        return vinculadas;
+    }
+
+    private BufferedImage ler(String conteudo) throws IOException {
+        var recurso = armazenamento.abrir(conteudo)
+                .orElseThrow(() -> new IOException("Conteúdo " + conteudo + " não encontrado"));
+        try (InputStream entrada = recurso.getInputStream()) {
+            BufferedImage imagem = ImageIO.read(entrada);
+            if (imagem == null) {
+                throw new IOException("Formato de imagem não suportado");
+            }
+            return imagem;
+        }
+    }
+
+    /**
+     * Reduz pela metade até chegar perto do tamanho final e faz o último passo
+     * bilinear, o que evita o serrilhado de uma redução grande de uma vez só.
+     */
+    static BufferedImage reduzir(BufferedImage original, int lado) {
+        int maior = Math.max(original.getWidth(), original.getHeight());
+        double escala = Math.min(1.0, (double) lado / maior);
+        int largura = Math.max(1, (int) Math.round(original.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(original.getHeight() * escala));
+
+        BufferedImage atual = original;
+        int w = original.getWidth();
+        int h = original.getHeight();
+        do {
+            w = Math.max(largura, w / 2);
+            h = Math.max(altura, h / 2);
+            var proxima = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = proxima.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(atual, 0, 0, w, h, null);
+            g.dispose();
+            atual = proxima;
+        } while (w != largura || h != altura);
+        return atual;
+    }
+
+    private ObjetoRecebido receber(BufferedImage imagem) throws IOException {
+        var saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "jpg", saida);
+        return armazenamento.receber(new ByteArrayInputStream(saida.toByteArray()));
+    }
+
+    private void limparCacheFotos(Long id) {
+        Cache fotos = cacheManager.getCache("fotos");
+        if (fotos != null) {
+            fotos.evict(id);
+        }
+        Cache paginas = cacheManager.getCache("fotos-paginas");
+        if (paginas != null) {
+            paginas.clear();
+        }
+        versoes.incrementar("fotos");
+    }
+
+    private static void descartar(ObjetoRecebido recebido) {
+        try {
+            recebido.close();
+        } catch (IOException e) {
+            log.warn("Não foi possível descartar o temporário da variante {}", recebido.chave(), e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.fiap.bluehope.bench;
+
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.fiap.bluehope.busca.BuscaDesafioService;
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.pontuacao.PontuacaoService;
+import br.com.fiap.bluehope.unicidade.UnicidadeUsuarioService;
+import br.com.fiap.bluehope.versionamento.VersoesColecao;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Popula o banco embutido do profile {@code bench} com dados sintéticos. Cada
+ * usuário tem um perfil; a autoria dos desafios é enviesada (poucos perfis
+ * criam a maior parte), cada desafio tem em média
+ * {@code bluehope.bench.fotos-por-desafio} fotos e uma fração deles recebe
+ * validação. A semente fixa garante o mesmo conjunto a cada execução.
+ *
+ * Roda como {@link ApplicationRunner}, antes do {@code ApplicationReadyEvent}:
+ * o estado de readiness só passa a {@code ACCEPTING_TRAFFIC} com os dados
+ * prontos, e a carga não mede uma aplicação ainda gerando dados.
+ */
+@Component
+@Profile("bench")
+@Slf4j
+public class GeradorDadosSinteticos implements ApplicationRunner {
+
+    private static final String[] MEDALHAS = { "Iniciante", "Intermediario", "Avançado" };
+    private static final String[] ACOES = { "Recolher", "Separar", "Reciclar", "Reutilizar", "Doar" };
+    private static final String[] OBJETOS = { "garrafas PET", "latas", "papelão", "óleo de cozinha", "pilhas", "roupas" };
+    private static final int POR_TRANSACAO = 5_000;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PontuacaoService pontuacao;
+
+    @Autowired
+    BuscaDesafioService busca;
+
+    @Autowired
+    UnicidadeUsuarioService unicidade;
+
+    @Autowired
+    VersoesColecao versoes;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int tamanhoLote;
+
+    @Value("${bluehope.bench.usuarios:10000}")
+    int usuarios;
+
+    @Value("${bluehope.bench.desafios:20000}")
+    int desafios;
+
+    @Value("${bluehope.bench.fotos-por-desafio:3}")
+    int fotosPorDesafio;
+
+    @Value("${bluehope.bench.fracao-validada:0.6}")
+    double fracaoValidada;
+
+    @Value("${bluehope.bench.semente:42}")
+    long semente;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        gerar();
+    }
+
+    public void gerar() {
+        long inicio = System.nanoTime();
+        var random = new SplittableRandom(semente);
+
+        long[] usuarioIds = new long[usuarios];
+        inserir(usuarios, i -> {
+            var usuario = new Usuario();
+            usuario.setEmail("usuario" + i + "@bluehope.example");
+            usuario.setTelefone(String.format("11%09d", random.nextInt(1_000_000_000)));
+            usuario.setCpf(String.format("%011d", i));
+            usuario.setSenha("senha" + random.nextInt());
+            entityManager.persist(usuario);
+            usuarioIds[i] = usuario.getId();
+        });
+
+        long[] perfilIds = new long[usuarios];
+        inserir(usuarios, i -> {
+            var perfil = new Perfil();
+            perfil.setNome("Perfil " + i);
+            perfil.setMedalha(MEDALHAS[random.nextInt(MEDALHAS.length)]);
+            perfil.setUsuario(entityManager.getReference(Usuario.class, usuarioIds[i]));
+            entityManager.persist(perfil);
+            perfilIds[i] = perfil.getId();
+        });
+
+        long[] desafioIds = new long[desafios];
+        inserir(desafios, i -> {
+            var desafio = new Desafio();
+            desafio.setDescricao(ACOES[random.nextInt(ACOES.length)] + " " + OBJETOS[random.nextInt(OBJETOS.length)]);
+            desafio.setPontos(10 * (1 + random.nextInt(10)));
+            int autor = (int) (perfilIds.length * Math.pow(random.nextDouble(), 3));
+            desafio.setPerfil(entityManager.getReference(Perfil.class, perfilIds[autor]));
+            entityManager.persist(desafio);
+            desafioIds[i] = desafio.getId();
+        });
+
+        int[] fotos = { 0 };
+        inserir(desafios, i -> {
+            var desafio = entityManager.getReference(Desafio.class, desafioIds[i]);
+            int quantidade = random.nextInt(2 * fotosPorDesafio + 1);
+            for (int j = 0; j < quantidade; j++) {
+                var foto = new Foto();
+                foto.setCaminhoFoto("desafios/" + desafioIds[i] + "/" + j + ".jpg");
+                foto.setDesafio(desafio);
+                entityManager.persist(foto);
+            }
+            fotos[0] += quantidade;
+        });
+
+        int[] validacoes = { 0 };
+        inserir(desafios, i -> {
+            if (random.nextDouble() >= fracaoValidada) {
+                return;
+            }
+            var validacao = new ValidacaoDesafio();
+            validacao.setValido(random.nextDouble() < 0.8);
+            validacao.setDesafio(entityManager.getReference(Desafio.class, desafioIds[i]));
+            entityManager.persist(validacao);
+            validacoes[0]++;
+        });
+
+        pontuacao.recalcularTodos();
+        busca.carregar();
+        unicidade.carregar();
+        versoes.incrementar("usuarios", "perfis", "desafios", "fotos", "validacaodesafios");
+        log.info("Dados sintéticos gerados em {} ms: {} usuários, {} perfis, {} desafios, {} fotos, {} validações",
+                (System.nanoTime() - inicio) / 1_000_000, usuarios, usuarios, desafios, fotos[0], validacoes[0]);
+    }
+
+    /**
+     * Chama {@code gerador} para os índices de 0 a {@code quantidade - 1} em
+     * transações de {@value #POR_TRANSACAO} itens, descarregando o contexto de
+     * persistência a cada lote JDBC.
+     */
+    private void inserir(int quantidade, IntConsumer gerador) {
+        for (int inicio = 0; inicio < quantidade; inicio += POR_TRANSACAO) {
+            int de = inicio;
+            int ate = Math.min(quantidade, inicio + POR_TRANSACAO);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = de; i < ate; i++) {
+                    gerador.accept(i);
+                    if ((i - de + 1) % tamanhoLote == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.fiap.bluehope.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acrescenta {@code bluehope.bench.latencia-banco} a cada execução de comando
+ * no banco embutido, simulando a ida e volta da rede até o Oracle; sem ela o
+ * H2 em memória responde sem bloquear e a carga não mostra o efeito de
+ * threads esperando o banco. Fica por baixo dos demais invólucros do
+ * DataSource, logo acima do pool.
+ */
+@Component
+@Profile("bench")
+public class LatenciaBancoSimulada implements BeanPostProcessor, Ordered {
+
+    private final long latenciaNanos;
+
+    public LatenciaBancoSimulada(@Value("${bluehope.bench.latencia-banco:0ms}") Duration latencia) {
+        this.latenciaNanos = latencia.toNanos();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (latenciaNanos == 0 || !beanName.equals("dataSource") || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return (Connection) envolver(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Proxy que devolve os {@link Statement} criados também envolvidos e
+     * espera a latência antes de cada {@code execute*}.
+     */
+    private Object envolver(Class<?> tipo, Object alvo) {
+        return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().startsWith("execute") && alvo instanceof Statement) {
+                        Thread.sleep(Duration.ofNanos(latenciaNanos));
+                    }
+                    Object resultado = invocar(metodo, alvo, argumentos);
+                    if (resultado instanceof Statement && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                        return envolver(metodo.getReturnType(), resultado);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object invocar(Method metodo, Object alvo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
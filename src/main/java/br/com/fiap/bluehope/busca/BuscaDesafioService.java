@@ -0,0 +1,73 @@
+package br.com.fiap.bluehope.busca;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Busca por palavras na descrição dos desafios, servida de um
+ * {@link IndiceInvertido} em memória. O índice é montado a partir do banco na
+ * subida e mantido pelas escritas do {@code DesafioController}.
+ */
+@Service
+@Slf4j
+public class BuscaDesafioService {
+
+    @Autowired
+    DesafioRepository repository;
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void carregar() {
+        var descricoes = repository.findAllDescricoes();
+        lock.writeLock().lock();
+        try {
+            indice.limpar();
+            descricoes.forEach(d -> indice.indexar(d.id(), d.descricao()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de busca carregado com {} desafios", descricoes.size());
+    }
+
+    public void indexar(Desafio desafio) {
+        indexar(List.of(desafio));
+    }
+
+    public void indexar(List<Desafio> desafios) {
+        lock.writeLock().lock();
+        try {
+            desafios.forEach(d -> indice.indexar(d.getId(), d.getDescricao()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long desafioId) {
+        lock.writeLock().lock();
+        try {
+            indice.remover(desafioId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] buscar(String consulta, long depoisDe, int limite) {
+        lock.readLock().lock();
+        try {
+            return indice.buscar(consulta, depoisDe, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
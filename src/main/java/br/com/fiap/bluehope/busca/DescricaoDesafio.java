@@ -0,0 +1,4 @@
+package br.com.fiap.bluehope.busca;
+
+public record DescricaoDesafio(Long id, String descricao) {
+}
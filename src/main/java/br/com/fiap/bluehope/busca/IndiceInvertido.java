@@ -0,0 +1,307 @@
+package br.com.fiap.bluehope.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de textos curtos: cada termo (minúsculo e sem acentos)
+ * aponta para a lista ordenada dos ids que o contêm. Uma busca casa cada
+ * palavra da consulta como prefixo e intersecta as listas andando pelos ids
+ * em ordem crescente, parando assim que junta {@code limite} resultados; o
+ * custo depende do limite e do número de termos casados, não do total de
+ * documentos.
+ *
+ * Não é thread-safe; o acesso concorrente é controlado pelo {@link BuscaDesafioService}.
+ */
+public class IndiceInvertido {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "um", "uma", "para", "por", "com", "ao", "aos");
+    private static final String[] SEM_TERMOS = {};
+
+    private final NavigableMap<String, Postagens> termos = new TreeMap<>();
+    private final Map<Long, String[]> termosPorId = new HashMap<>();
+
+    /**
+     * Quebra o texto em termos distintos, sem acento e em minúsculas,
+     * descartando as palavras vazias mais comuns do português.
+     */
+    public static List<String> termos(String texto) {
+        var termos = new LinkedHashSet<String>();
+        for (String palavra : palavras(texto)) {
+            if (!PALAVRAS_VAZIAS.contains(palavra)) {
+                termos.add(palavra);
+            }
+        }
+        return new ArrayList<>(termos);
+    }
+
+    private static String[] palavras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return SEM_TERMOS;
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado))
+                .filter(palavra -> !palavra.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Indexa ou reindexa um texto. Na reindexação só as postagens dos termos
+     * que entraram ou saíram são tocadas, já que mexer no meio da lista de um
+     * termo frequente custa uma cópia proporcional ao seu tamanho.
+     */
+    public void indexar(long id, String texto) {
+        var novos = termos(texto);
+        String[] antigos = novos.isEmpty() ? termosPorId.remove(id) : termosPorId.get(id);
+        var mantidos = new HashSet<String>();
+        if (antigos != null) {
+            for (String termo : antigos) {
+                if (novos.contains(termo)) {
+                    mantidos.add(termo);
+                } else {
+                    desindexar(id, termo);
+                }
+            }
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+        String[] guardados = new String[novos.size()];
+        for (int i = 0; i < guardados.length; i++) {
+            String termo = novos.get(i);
+            if (!mantidos.contains(termo)) {
+                termos.computeIfAbsent(termo, t -> new Postagens()).adicionar(id);
+            }
+            // Guarda a instância que já é chave do mapa, não uma cópia por texto.
+            guardados[i] = termos.ceilingKey(termo);
+        }
+        termosPorId.put(id, guardados);
+    }
+
+    public void remover(long id) {
+        String[] antigos = termosPorId.remove(id);
+        if (antigos != null) {
+            for (String termo : antigos) {
+                desindexar(id, termo);
+            }
+        }
+    }
+
+    private void desindexar(long id, String termo) {
+        var postagens = termos.get(termo);
+        postagens.remover(id);
+        if (postagens.tamanho == 0) {
+            termos.remove(termo);
+        }
+    }
+
+    public void limpar() {
+        termos.clear();
+        termosPorId.clear();
+    }
+
+    public int tamanho() {
+        return termosPorId.size();
+    }
+
+    /**
+     * Ids, em ordem crescente e maiores que {@code depoisDe}, dos textos que
+     * têm, para cada palavra da consulta, um termo que começa com ela. As
+     * palavras vazias da consulta são ignoradas, exceto a última, que pode ser
+     * o começo de uma palavra ainda sendo digitada.
+     */
+    public long[] buscar(String consulta, long depoisDe, int limite) {
+        String[] palavras = palavras(consulta);
+        var cursores = new ArrayList<Cursor>(palavras.length);
+        for (int i = 0; i < palavras.length; i++) {
+            boolean ultima = i == palavras.length - 1;
+            if (!ultima && PALAVRAS_VAZIAS.contains(palavras[i])) {
+                continue;
+            }
+            var casados = termos.subMap(palavras[i], true, palavras[i] + Character.MAX_VALUE, false).values();
+            if (casados.isEmpty()) {
+                if (ultima && PALAVRAS_VAZIAS.contains(palavras[i])) {
+                    continue;
+                }
+                return new long[0];
+            }
+            cursores.add(new Cursor(casados.toArray(Postagens[]::new)));
+        }
+        if (cursores.isEmpty()) {
+            return new long[0];
+        }
+        // Cursores com menos candidatos primeiro: eles definem os saltos.
+        cursores.sort((a, b) -> Long.compare(a.total(), b.total()));
+
+        long[] encontrados = new long[limite];
+        int quantidade = 0;
+        long alvo = depoisDe + 1;
+        while (quantidade < limite) {
+            boolean todos = true;
+            for (var cursor : cursores) {
+                long proximo = cursor.avancar(alvo);
+                if (proximo == Long.MAX_VALUE) {
+                    return Arrays.copyOf(encontrados, quantidade);
+                }
+                if (proximo != alvo) {
+                    alvo = proximo;
+                    todos = false;
+                    break;
+                }
+            }
+            if (todos) {
+                encontrados[quantidade++] = alvo;
+                alvo++;
+            }
+        }
+        return encontrados;
+    }
+
+    /** Lista ordenada e sem repetição de ids de um termo. */
+    private static final class Postagens {
+        long[] ids = new long[4];
+        int tamanho;
+
+        void adicionar(long id) {
+            if (tamanho == 0 || ids[tamanho - 1] < id) {
+                garantirEspaco();
+                ids[tamanho++] = id;
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            garantirEspaco();
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        void remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+        }
+
+        private void garantirEspaco() {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+
+        /**
+         * Primeira posição a partir de {@code de} com id maior ou igual a
+         * {@code alvo}, por busca galopante: saltos curtos quando o alvo está
+         * perto, binária no intervalo encontrado.
+         */
+        int posicaoDe(long alvo, int de) {
+            int passo = 1;
+            int ate = de;
+            while (ate < tamanho && ids[ate] < alvo) {
+                de = ate + 1;
+                ate += passo;
+                passo <<= 1;
+            }
+            int posicao = Arrays.binarySearch(ids, de, Math.min(ate + 1, tamanho), alvo);
+            return posicao >= 0 ? posicao : -posicao - 1;
+        }
+    }
+
+    /**
+     * Percorre em ordem a união das postagens dos termos casados por uma
+     * palavra. As listas ficam num heap pelo id corrente, então avançar só mexe
+     * nas que estão atrás do alvo, mesmo quando um prefixo curto casa milhares
+     * de termos.
+     */
+    private static final class Cursor {
+        final Postagens[] listas;
+        final int[] posicoes;
+        final int[] heap;
+        int tamanhoHeap = -1;
+
+        Cursor(Postagens[] listas) {
+            this.listas = listas;
+            this.posicoes = new int[listas.length];
+            this.heap = new int[listas.length];
+        }
+
+        long total() {
+            long total = 0;
+            for (var lista : listas) {
+                total += lista.tamanho;
+            }
+            return total;
+        }
+
+        /** Menor id maior ou igual a {@code alvo}, ou {@link Long#MAX_VALUE} se não houver. */
+        long avancar(long alvo) {
+            if (tamanhoHeap < 0) {
+                tamanhoHeap = 0;
+                for (int i = 0; i < listas.length; i++) {
+                    posicoes[i] = listas[i].posicaoDe(alvo, 0);
+                    if (posicoes[i] < listas[i].tamanho) {
+                        heap[tamanhoHeap++] = i;
+                    }
+                }
+                for (int i = tamanhoHeap / 2 - 1; i >= 0; i--) {
+                    descer(i);
+                }
+            }
+            while (tamanhoHeap > 0 && atual(heap[0]) < alvo) {
+                int i = heap[0];
+                posicoes[i] = listas[i].posicaoDe(alvo, posicoes[i]);
+                if (posicoes[i] == listas[i].tamanho) {
+                    heap[0] = heap[--tamanhoHeap];
+                }
+                descer(0);
+            }
+            return tamanhoHeap == 0 ? Long.MAX_VALUE : atual(heap[0]);
+        }
+
+        private long atual(int lista) {
+            return listas[lista].ids[posicoes[lista]];
+        }
+
+        private void descer(int posicao) {
+            while (true) {
+                int menor = posicao;
+                int esquerda = 2 * posicao + 1;
+                int direita = esquerda + 1;
+                if (esquerda < tamanhoHeap && atual(heap[esquerda]) < atual(heap[menor])) {
+                    menor = esquerda;
+                }
+                if (direita < tamanhoHeap && atual(heap[direita]) < atual(heap[menor])) {
+                    menor = direita;
+                }
+                if (menor == posicao) {
+                    return;
+                }
+                int troca = heap[posicao];
+                heap[posicao] = heap[menor];
+                heap[menor] = troca;
+                posicao = menor;
+            }
+        }
+    }
+}
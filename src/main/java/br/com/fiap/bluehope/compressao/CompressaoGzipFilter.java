@@ -0,0 +1,154 @@
+package br.com.fiap.bluehope.compressao;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Comprime em gzip as respostas dos tipos em {@code tipos} a partir de
+ * {@code tamanhoMinimo} bytes, no lugar do {@code server.compression} do
+ * Tomcat, que não comprime respostas com ETag forte, justamente as listagens
+ * e os detalhes. O corpo comprimido é outra representação, então a ETag
+ * ganha o sufixo {@code -gzip}; o sufixo é retirado do {@code If-None-Match}
+ * e do {@code If-Match} recebidos, e as comparações de versão continuam
+ * valendo para as duas formas. O 304 devolve a ETag na forma que o cliente
+ * enviou.
+ */
+public class CompressaoGzipFilter extends OncePerRequestFilter implements Ordered {
+
+    static final String SUFIXO_ETAG = "-gzip";
+
+    private final List<MediaType> tipos;
+    private final int tamanhoMinimo;
+
+    public CompressaoGzipFilter(List<MediaType> tipos, int tamanhoMinimo) {
+        this.tipos = tipos;
+        this.tamanhoMinimo = tamanhoMinimo;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletRequest requisicao = request.getHeader(IF_NONE_MATCH) != null || request.getHeader(IF_MATCH) != null
+                ? new RequisicaoSemSufixo(request)
+                : request;
+        if ("HEAD".equals(request.getMethod()) || !aceitaGzip(request)) {
+            chain.doFilter(requisicao, response);
+            sufixarNaoModificada(request, response);
+            return;
+        }
+        var resposta = new RespostaGzip(response, tipos, tamanhoMinimo);
+        chain.doFilter(requisicao, resposta);
+        sufixarNaoModificada(request, response);
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new Termino(resposta));
+        } else {
+            resposta.terminar();
+        }
+    }
+
+    /**
+     * Um 304 para a ETag com sufixo confirma a representação comprimida que o
+     * cliente guardou, então a ETag da resposta volta a ter o sufixo.
+     */
+    private static void sufixarNaoModificada(HttpServletRequest request, HttpServletResponse response) {
+        String etag = response.getHeader(ETAG);
+        if (response.getStatus() != HttpServletResponse.SC_NOT_MODIFIED || etag == null || !etag.endsWith("\"")) {
+            return;
+        }
+        String comprimida = etag.substring(0, etag.length() - 1) + SUFIXO_ETAG + "\"";
+        for (var valores = request.getHeaders(IF_NONE_MATCH); valores.hasMoreElements();) {
+            if (valores.nextElement().contains(comprimida)) {
+                response.setHeader(ETAG, comprimida);
+                return;
+            }
+        }
+    }
+
+    static boolean aceitaGzip(HttpServletRequest request) {
+        for (var valores = request.getHeaders(ACCEPT_ENCODING); valores.hasMoreElements();) {
+            for (String codificacao : valores.nextElement().split(",")) {
+                String[] partes = codificacao.split(";");
+                if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                    return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    private static final class RequisicaoSemSufixo extends HttpServletRequestWrapper {
+
+        RequisicaoSemSufixo(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String valor = super.getHeader(name);
+            return condicional(name) && valor != null ? semSufixo(valor) : valor;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!condicional(name)) {
+                return super.getHeaders(name);
+            }
+            return Collections.enumeration(Collections.list(super.getHeaders(name)).stream()
+                    .map(RequisicaoSemSufixo::semSufixo)
+                    .toList());
+        }
+
+        private static boolean condicional(String name) {
+            return IF_NONE_MATCH.equalsIgnoreCase(name) || IF_MATCH.equalsIgnoreCase(name);
+        }
+
+        private static String semSufixo(String valor) {
+            return valor.replace(SUFIXO_ETAG + "\"", "\"");
+        }
+    }
+
+    private record Termino(RespostaGzip resposta) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            resposta.terminar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package br.com.fiap.bluehope.compressao;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_LENGTH;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.VARY;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Guarda o corpo até {@code tamanhoMinimo} bytes e então decide: com um tipo
+ * comprimível, passa a escrever por um {@link GZIPOutputStream}; do
+ * contrário, repassa o corpo como veio, com o {@code Content-Length} que o
+ * conversor tiver informado. Um {@code flush} antes da decisão não envia
+ * nada, já que os conversores do Spring fazem flush ao fim de todo corpo.
+ * <p>
+ * O gzip escreve num buffer que é repassado à resposta em uma única escrita
+ * por chamada, o que mantém válida a escrita não bloqueante: o
+ * {@link WriteListener} vai para a saída da resposta original e, depois da
+ * decisão, {@code isReady} responde por ela.
+ */
+class RespostaGzip extends HttpServletResponseWrapper {
+
+    private final List<MediaType> tipos;
+    private final int tamanhoMinimo;
+
+    private ByteArrayOutputStream pendente = new ByteArrayOutputStream();
+    private OutputStream destino;
+    private GZIPOutputStream gzip;
+    private final ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+    private long contentLength = -1;
+    private ServletOutputStream saida;
+    private PrintWriter writer;
+    private boolean terminada;
+
+    RespostaGzip(HttpServletResponse response, List<MediaType> tipos, int tamanhoMinimo) {
+        super(response);
+        this.tipos = tipos;
+        this.tamanhoMinimo = tamanhoMinimo;
+    }
+
+    boolean comprimida() {
+        return gzip != null;
+    }
+
+    /**
+     * Envia o que ainda estiver guardado e fecha o gzip. Chamado ao fim da
+     * requisição, ou da parte assíncrona dela.
+     */
+    void terminar() throws IOException {
+        if (terminada) {
+            return;
+        }
+        terminada = true;
+        if (writer != null) {
+            writer.flush();
+        }
+        if (destino == null) {
+            if (pendente.size() == 0) {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                return;
+            }
+            decidir(false);
+        }
+        if (gzip != null) {
+            gzip.finish();
+            repassar();
+        }
+    }
+
+    private void escrever(byte[] bytes, int inicio, int tamanho) throws IOException {
+        if (destino != null) {
+            destino.write(bytes, inicio, tamanho);
+            repassar();
+            return;
+        }
+        pendente.write(bytes, inicio, tamanho);
+        if (pendente.size() >= tamanhoMinimo) {
+            decidir(true);
+        }
+    }
+
+    private void decidir(boolean grande) throws IOException {
+        if (grande && comprimivel()) {
+            super.setHeader(CONTENT_ENCODING, "gzip");
+            super.addHeader(VARY, ACCEPT_ENCODING);
+            String etag = getHeader(ETAG);
+            if (etag != null && etag.startsWith("\"") && etag.endsWith("\"")) {
+                super.setHeader(ETAG, etag.substring(0, etag.length() - 1) + CompressaoGzipFilter.SUFIXO_ETAG + "\"");
+            }
+            gzip = new GZIPOutputStream(comprimido, 8192, true);
+            destino = gzip;
+        } else {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            destino = super.getOutputStream();
+        }
+        pendente.writeTo(destino);
+        pendente = null;
+        repassar();
+    }
+
+    /** Envia à resposta, de uma vez, o que o gzip produziu até aqui. */
+    private void repassar() throws IOException {
+        if (gzip != null && comprimido.size() > 0) {
+            comprimido.writeTo(super.getOutputStream());
+            comprimido.reset();
+        }
+    }
+
+    private ServletOutputStream original() {
+        try {
+            return super.getOutputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void descarregar() throws IOException {
+        destino.flush();
+        if (gzip != null) {
+            repassar();
+            super.getOutputStream().flush();
+        }
+    }
+
+    private boolean comprimivel() {
+        int status = getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || getHeader(CONTENT_ENCODING) != null) {
+            return false;
+        }
+        String tipo = getContentType();
+        if (tipo == null) {
+            return false;
+        }
+        var mediaType = MediaType.parseMediaType(tipo);
+        return tipos.stream().anyMatch(aceito -> aceito.includes(mediaType));
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (destino == null) {
+            contentLength = len;
+        } else if (gzip == null) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() já foi chamado nesta resposta");
+        }
+        if (saida == null) {
+            saida = new Saida();
+        }
+        return saida;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (saida != null) {
+                throw new IllegalStateException("getOutputStream() já foi chamado nesta resposta");
+            }
+            saida = new Saida();
+            writer = new PrintWriter(new OutputStreamWriter(saida, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (destino != null) {
+            descarregar();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (destino == null) {
+            pendente.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (destino == null) {
+            pendente.reset();
+            contentLength = -1;
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        resetBuffer();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        resetBuffer();
+        super.sendError(sc);
+    }
+
+    private final class Saida extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            escrever(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            escrever(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (destino != null) {
+                descarregar();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            terminar();
+        }
+
+        @Override
+        public boolean isReady() {
+            // Antes da decisão a escrita só acumula em memória.
+            return destino == null || original().isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            original().setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import java.io.IOException;
+import java.sql.SQLTransientConnectionException;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Responde 503 quando a requisição desistiu de esperar uma conexão, seja no
+ * {@link ConexoesLimitadasDataSource} ou no pool; é sobrecarga passageira, não
+ * um erro da aplicação.
+ */
+@RestControllerAdvice
+public class ConexaoIndisponivelHandler {
+
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public void indisponivel(RuntimeException e, HttpServletResponse response) throws IOException {
+        if (!(NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLTransientConnectionException)) {
+            throw e;
+        }
+        response.sendError(SERVICE_UNAVAILABLE.value(), "Banco de dados sobrecarregado; tente de novo em instantes");
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Limita as conexões abertas ao mesmo tempo com um semáforo justo, liberado
+ * quando a conexão é fechada. Com threads virtuais o número de requisições
+ * simultâneas deixa de ser limitado pelo pool do Tomcat, e sem esse limite
+ * todas ficariam paradas dentro do pool de conexões até o
+ * {@code connection-timeout} dele. Aqui elas esperam em ordem de chegada, por
+ * no máximo {@code espera}, e a espera estacionada no semáforo não prende a
+ * thread de plataforma que carrega a virtual.
+ */
+public class ConexoesLimitadasDataSource extends DelegatingDataSource {
+
+    private final Semaphore semaforo;
+    private final long esperaNanos;
+    private final Timer aquisicao;
+    private final Counter recusadas;
+
+    public ConexoesLimitadasDataSource(DataSource dataSource, int conexoes, Duration espera, MeterRegistry registry) {
+        super(dataSource);
+        this.semaforo = new Semaphore(conexoes, true);
+        this.esperaNanos = espera.toNanos();
+        this.aquisicao = Timer.builder("bluehope.banco.conexoes.aquisicao")
+                .description("Espera por uma vaga no limite de conexões")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.recusadas = registry.counter("bluehope.banco.conexoes.recusadas");
+        Gauge.builder("bluehope.banco.conexoes.aguardando", semaforo, Semaphore::getQueueLength)
+                .description("Threads esperando uma vaga no limite de conexões")
+                .register(registry);
+        Gauge.builder("bluehope.banco.conexoes.livres", semaforo, Semaphore::availablePermits)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection(username, password));
+    }
+
+    private void adquirir() throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            if (!semaforo.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                recusadas.increment();
+                throw new SQLTransientConnectionException("Nenhuma conexão livre depois de "
+                        + Duration.ofNanos(esperaNanos).toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido esperando uma conexão", e);
+        } finally {
+            aquisicao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection liberarAoFechar(ObtencaoConexao obtencao) throws SQLException {
+        Connection conexao;
+        try {
+            conexao = obtencao.obter();
+        } catch (SQLException | RuntimeException e) {
+            semaforo.release();
+            throw e;
+        }
+        var liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            semaforo.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ObtencaoConexao {
+        Connection obter() throws SQLException;
+    }
+}
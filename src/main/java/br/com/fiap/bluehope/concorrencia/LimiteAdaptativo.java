@@ -0,0 +1,124 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limite de requisições simultâneas de um grupo de endpoints, ajustado por
+ * AIMD como o controle de congestionamento do TCP: cada resposta rápida com o
+ * limite ao menos pela metade em uso soma {@code 1 / limite}, o que dá cerca
+ * de uma vaga a mais por limite atendido, e um sinal de sobrecarga multiplica
+ * o limite por {@code reducao}. Quando o banco fica lento as respostas
+ * demoram, o limite cai e o excedente é recusado na entrada em vez de ocupar
+ * threads esperando conexão.
+ */
+public class LimiteAdaptativo {
+
+    public enum Prioridade {
+        LEITURA, ESCRITA, TRANSFERENCIA, LOTE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String grupo;
+    private final int minimo;
+    private final int maximo;
+    private final double reducao;
+    private final double fracaoEscritas;
+    private final double fracaoLotes;
+    private final long latenciaMaximaNanos;
+    private final Map<Prioridade, Counter> recusadas = new EnumMap<>(Prioridade.class);
+
+    private volatile double limite;
+    private volatile int emUso;
+    private long ultimaReducao = System.nanoTime();
+
+    public LimiteAdaptativo(String grupo, PropriedadesLimite propriedades, MeterRegistry registry) {
+        this.grupo = grupo;
+        this.minimo = propriedades.getMinimo();
+        this.maximo = propriedades.getMaximo();
+        this.reducao = propriedades.getReducao();
+        this.fracaoEscritas = propriedades.getFracaoEscritas();
+        this.fracaoLotes = propriedades.getFracaoLotes();
+        this.latenciaMaximaNanos = propriedades.getLatenciaMaxima().toNanos();
+        this.limite = propriedades.getInicial();
+        for (var prioridade : Prioridade.values()) {
+            recusadas.put(prioridade, Counter.builder("bluehope.limite.recusadas")
+                    .description("Requisições recusadas com 503 pelo limite de concorrência")
+                    .tag("grupo", grupo)
+                    .tag("prioridade", prioridade.tag())
+                    .register(registry));
+        }
+        Gauge.builder("bluehope.limite.atual", this, LimiteAdaptativo::getLimite)
+                .tag("grupo", grupo)
+                .register(registry);
+        Gauge.builder("bluehope.limite.em-uso", this, LimiteAdaptativo::getEmUso)
+                .tag("grupo", grupo)
+                .register(registry);
+    }
+
+    /**
+     * Reserva uma vaga. Só as leituras usam o limite inteiro: escritas e
+     * transferências entram enquanto há menos que {@code fracaoEscritas} do
+     * limite em uso, e lotes enquanto há menos que {@code fracaoLotes}. Com o
+     * banco lento, o que sobra do limite vai primeiro para as leituras.
+     */
+    public synchronized boolean adquirir(Prioridade prioridade) {
+        double teto = switch (prioridade) {
+            case LEITURA -> limite;
+            case ESCRITA, TRANSFERENCIA -> Math.max(1, limite * fracaoEscritas);
+            case LOTE -> Math.max(1, limite * fracaoLotes);
+        };
+        if (emUso >= teto) {
+            recusadas.get(prioridade).increment();
+            return false;
+        }
+        emUso++;
+        return true;
+    }
+
+    /**
+     * Devolve a vaga de uma requisição que entrou em {@code inicio}
+     * ({@link System#nanoTime()}). Lotes e transferências demoram por natureza
+     * e só reduzem o limite com um 503/504. O limite cai uma vez por janela: as respostas de
+     * requisições que entraram antes da última redução refletem o limite
+     * anterior e não contam de novo.
+     */
+    public synchronized void liberar(Prioridade prioridade, long inicio, boolean sobrecarga) {
+        long agora = System.nanoTime();
+        int simultaneas = emUso--;
+        boolean amostrada = prioridade == Prioridade.LEITURA || prioridade == Prioridade.ESCRITA;
+        boolean lenta = amostrada && agora - inicio > latenciaMaximaNanos;
+        if (sobrecarga || lenta) {
+            if (inicio - ultimaReducao > 0) {
+                limite = Math.max(minimo, limite * reducao);
+                ultimaReducao = agora;
+            }
+        } else if (simultaneas * 2 >= limite) {
+            limite = Math.min(maximo, limite + 1 / limite);
+        }
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmUso() {
+        return emUso;
+    }
+
+    public long getRecusadas(Prioridade prioridade) {
+        return (long) recusadas.get(prioridade).count();
+    }
+}
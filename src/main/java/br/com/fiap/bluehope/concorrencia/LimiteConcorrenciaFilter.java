@@ -0,0 +1,132 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.fiap.bluehope.concorrencia.LimiteAdaptativo.Prioridade;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica o {@link LimiteAdaptativo} do grupo, escolhido pelo primeiro segmento
+ * do caminho. O que passa do limite recebe 503 com {@code Retry-After} sem
+ * chegar ao controller, e os caminhos fora dos grupos, entre eles o health
+ * check do actuator, continuam respondendo mesmo com o banco lento.
+ */
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Set<String> METODOS_LEITURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Map<String, LimiteAdaptativo> limites;
+    private final List<String> lotes;
+    private final List<String> transferencias;
+    private final String retryAfter;
+
+    public LimiteConcorrenciaFilter(Collection<LimiteAdaptativo> limites, PropriedadesLimite propriedades) {
+        this.limites = limites.stream().collect(Collectors.toMap(LimiteAdaptativo::getGrupo, Function.identity(),
+                (primeiro, segundo) -> primeiro, LinkedHashMap::new));
+        this.lotes = propriedades.getLotes();
+        this.transferencias = propriedades.getTransferencias();
+        this.retryAfter = Long.toString(Math.max(1, propriedades.getRetryAfter().toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        var limite = limites.get(grupo(caminho));
+        if (limite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var prioridade = prioridade(request.getMethod(), caminho);
+        if (!limite.adquirir(prioridade)) {
+            // Sem sendError: o despacho para /error custaria quase o mesmo que atender.
+            response.setStatus(SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean liberarAgora = true;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Liberacao(limite, prioridade, inicio, response));
+                liberarAgora = false;
+            }
+        } finally {
+            if (liberarAgora) {
+                limite.liberar(prioridade, inicio, sobrecarga(response));
+            }
+        }
+    }
+
+    public Collection<LimiteAdaptativo> getLimites() {
+        return limites.values();
+    }
+
+    private static String grupo(String caminho) {
+        int inicio = caminho.startsWith("/") ? 1 : 0;
+        int fim = caminho.indexOf('/', inicio);
+        return caminho.substring(inicio, fim < 0 ? caminho.length() : fim);
+    }
+
+    private Prioridade prioridade(String metodo, String caminho) {
+        if (transferencias.stream().anyMatch(caminho::endsWith)) {
+            return Prioridade.TRANSFERENCIA;
+        }
+        if (METODOS_LEITURA.contains(metodo)) {
+            return Prioridade.LEITURA;
+        }
+        return lotes.stream().anyMatch(caminho::endsWith) ? Prioridade.LOTE : Prioridade.ESCRITA;
+    }
+
+    private static boolean sobrecarga(HttpServletResponse response) {
+        int status = response.getStatus();
+        return status == SERVICE_UNAVAILABLE.value() || status == GATEWAY_TIMEOUT.value();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private record Liberacao(LimiteAdaptativo limite, Prioridade prioridade, long inicio, HttpServletResponse response)
+            implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limite.liberar(prioridade, inicio, sobrecarga(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import br.com.fiap.bluehope.concorrencia.LimiteAdaptativo.Prioridade;
+
+/**
+ * {@code /actuator/limites}: limite atual, vagas em uso e recusas por
+ * prioridade de cada grupo de endpoints.
+ */
+@Endpoint(id = "limites")
+public class LimitesEndpoint {
+
+    private final Collection<LimiteAdaptativo> limites;
+
+    public LimitesEndpoint(Collection<LimiteAdaptativo> limites) {
+        this.limites = limites;
+    }
+
+    public record Recusadas(long leituras, long escritas, long transferencias, long lotes) {
+    }
+
+    public record Grupo(String grupo, int limite, int emUso, Recusadas recusadas) {
+    }
+
+    @ReadOperation
+    public List<Grupo> limites() {
+        return limites.stream()
+                .map(limite -> new Grupo(limite.getGrupo(), limite.getLimite(), limite.getEmUso(), new Recusadas(
+                        limite.getRecusadas(Prioridade.LEITURA),
+                        limite.getRecusadas(Prioridade.ESCRITA),
+                        limite.getRecusadas(Prioridade.TRANSFERENCIA),
+                        limite.getRecusadas(Prioridade.LOTE))))
+                .toList();
+    }
+}
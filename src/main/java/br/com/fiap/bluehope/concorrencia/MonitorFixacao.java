@@ -0,0 +1,70 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Acompanha pelo JFR os eventos {@code jdk.VirtualThreadPinned}: uma thread
+ * virtual que bloqueia dentro de um {@code synchronized} (ou de código nativo)
+ * fica presa à thread de plataforma que a carrega, e com poucas dessas
+ * travadas em I/O as demais virtuais deixam de ser escalonadas. Cada fixação
+ * acima de {@code limite} vai para {@code bluehope.threads.fixacao} com o
+ * primeiro quadro fora do JDK na tag {@code local}; a pilha completa é
+ * registrada no log na primeira vez que um local aparece.
+ */
+@Slf4j
+public class MonitorFixacao implements AutoCloseable {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry registry;
+    private final Set<String> locaisRegistrados = ConcurrentHashMap.newKeySet();
+    private final RecordingStream stream = new RecordingStream();
+
+    public MonitorFixacao(MeterRegistry registry, Duration limite) {
+        this.registry = registry;
+        stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+    }
+
+    void registrar(RecordedEvent evento) {
+        var pilha = evento.getStackTrace();
+        List<RecordedFrame> quadros = pilha == null ? List.of() : pilha.getFrames();
+        String local = quadros.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(quadro -> quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName())
+                .filter(metodo -> !metodo.startsWith("java.") && !metodo.startsWith("jdk.") && !metodo.startsWith("sun."))
+                .findFirst()
+                .orElse("desconhecido");
+        Timer.builder("bluehope.threads.fixacao")
+                .description("Tempo em que uma thread virtual ficou presa à thread de plataforma")
+                .tag("local", local)
+                .register(registry)
+                .record(evento.getDuration());
+        if (locaisRegistrados.add(local)) {
+            log.warn("Thread virtual presa por {} ms em {}:\n\t{}", evento.getDuration().toMillis(), local,
+                    quadros.stream().map(MonitorFixacao::descrever).collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String descrever(RecordedFrame quadro) {
+        var metodo = quadro.getMethod();
+        return metodo.getType().getName() + "." + metodo.getName() + ":" + quadro.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "bluehope.limite")
+public class PropriedadesLimite {
+
+    /**
+     * Primeiro segmento do caminho de cada grupo de endpoints com limite
+     * próprio. Os demais caminhos, como {@code /actuator} e {@code /export},
+     * não passam pelo limite.
+     */
+    private List<String> grupos = List.of("desafio", "foto", "perfil", "usuario", "validacaodesafio");
+
+    private int inicial = 20;
+
+    private int minimo = 4;
+
+    private int maximo = 200;
+
+    /**
+     * Uma resposta mais lenta que isso, ou um 503/504, conta como sinal de
+     * sobrecarga e reduz o limite do grupo.
+     */
+    private Duration latenciaMaxima = Duration.ofMillis(500);
+
+    /**
+     * Fator aplicado ao limite a cada sinal de sobrecarga.
+     */
+    private double reducao = 0.5;
+
+    /**
+     * Fração do limite que as escritas simples e as transferências de conteúdo
+     * podem ocupar; o restante fica reservado para leituras.
+     */
+    private double fracaoEscritas = 0.75;
+
+    /**
+     * Fração do limite que as escritas em lote podem ocupar; o restante fica
+     * reservado para leituras e escritas simples.
+     */
+    private double fracaoLotes = 0.25;
+
+    /**
+     * Finais de caminho das escritas em lote.
+     */
+    private List<String> lotes = List.of("/batch", "/pontos/recalcular");
+
+    /**
+     * Finais de caminho que enviam ou recebem o conteúdo de um arquivo. A
+     * duração delas acompanha o tamanho do arquivo e a rede do cliente, então
+     * só um 503/504 reduz o limite.
+     */
+    private List<String> transferencias = List.of("/conteudo");
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
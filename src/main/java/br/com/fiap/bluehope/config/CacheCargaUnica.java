@@ -0,0 +1,156 @@
+package br.com.fiap.bluehope.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import br.com.fiap.bluehope.roteamento.ContextoRoteamento;
+
+/**
+ * Cache Caffeine cujo {@code get(key, valueLoader)}, usado pelo
+ * {@code @Cacheable(sync = true)}, pode carregar a chave fora do mapa do
+ * Caffeine. O carregamento padrão roda dentro de um
+ * {@code ConcurrentHashMap.compute}, que segura o monitor do bucket enquanto o
+ * banco responde; uma thread virtual bloqueada ali fica presa à thread de
+ * plataforma. Com {@code foraDoMapa} apenas a primeira requisição de uma chave
+ * carrega, na própria thread e sem trava, e as demais esperam o mesmo
+ * {@link CompletableFuture}.
+ * <p>
+ * Uma escrita remove as entradas que alterou, mas a réplica de leitura pode
+ * levar até {@code bluehope.replica.atraso-maximo} para recebê-la. Nesse
+ * intervalo depois de uma remoção, um valor lido da réplica não é guardado:
+ * ele ainda pode ser o anterior à escrita, e ficaria no cache até a próxima.
+ */
+public class CacheCargaUnica extends CaffeineCache {
+
+    private static final long SEM_REMOCAO = Long.MIN_VALUE;
+
+    private final boolean foraDoMapa;
+    private final long atrasoReplica;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> emCarga = new ConcurrentHashMap<>();
+    private volatile long removidoEm = SEM_REMOCAO;
+
+    public CacheCargaUnica(String name, Cache<Object, Object> cache, boolean allowNullValues, boolean foraDoMapa,
+            Duration atrasoReplica) {
+        super(name, cache, allowNullValues);
+        this.foraDoMapa = foraDoMapa;
+        this.atrasoReplica = atrasoReplica.toNanos();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (ContextoRoteamento.leuDaReplica() && replicaPodeEstarAtrasada()) {
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        removidoEm = System.nanoTime();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        removidoEm = System.nanoTime();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        removidoEm = System.nanoTime();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        removidoEm = System.nanoTime();
+        return super.invalidate();
+    }
+
+    /**
+     * Carga padrão do Caffeine, que guarda o valor sem passar por
+     * {@link #put}. Um valor lido da réplica logo depois de uma remoção sai do
+     * {@code compute} como exceção, para não ser guardado, e é devolvido
+     * assim mesmo.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T carregarNoMapa(Object key, Callable<T> valueLoader) {
+        try {
+            return super.get(key, () -> {
+                T valor = valueLoader.call();
+                if (ContextoRoteamento.leuDaReplica() && replicaPodeEstarAtrasada()) {
+                    throw new NaoArmazenar(valor);
+                }
+                return valor;
+            });
+        } catch (ValueRetrievalException e) {
+            if (e.getCause() instanceof NaoArmazenar naoArmazenar) {
+                return (T) naoArmazenar.valor;
+            }
+            throw e;
+        }
+    }
+
+    private static final class NaoArmazenar extends RuntimeException {
+
+        private final transient Object valor;
+
+        NaoArmazenar(Object valor) {
+            super(null, null, false, false);
+            this.valor = valor;
+        }
+    }
+
+    private boolean replicaPodeEstarAtrasada() {
+        long removido = removidoEm;
+        return removido != SEM_REMOCAO && System.nanoTime() - removido < atrasoReplica;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!foraDoMapa) {
+            return carregarNoMapa(key, valueLoader);
+        }
+        Object armazenado = lookup(key);
+        if (armazenado != null) {
+            return (T) fromStoreValue(armazenado);
+        }
+        var carga = new CompletableFuture<Object>();
+        var emAndamento = emCarga.putIfAbsent(key, carga);
+        if (emAndamento != null) {
+            try {
+                return (T) fromStoreValue(emAndamento.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            // Outra carga pode ter terminado entre a consulta e o putIfAbsent.
+            armazenado = lookup(key);
+            if (armazenado == null) {
+                T valor = valueLoader.call();
+                if (valor != null || isAllowNullValues()) {
+                    put(key, valor);
+                    armazenado = toStoreValue(valor);
+                }
+            }
+            carga.complete(armazenado);
+            return (T) fromStoreValue(armazenado);
+        } catch (Exception e) {
+            carga.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            emCarga.remove(key, carga);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.bluehope.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableConfigurationProperties({ CacheProperties.class, EspecificacoesCache.class })
+public class CacheConfiguration {
+
+    /**
+     * Com threads virtuais as cargas do {@code @Cacheable(sync = true)} saem de
+     * dentro do mapa do Caffeine (ver {@link CacheCargaUnica}). O atraso da
+     * réplica define por quanto tempo, depois de uma remoção, leituras da
+     * réplica deixam de entrar no cache.
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(
+            CacheProperties cacheProperties,
+            EspecificacoesCache especificacoes,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+            @Value("${bluehope.replica.atraso-maximo:5s}") String atrasoMaximo) {
+        var atrasoReplica = DurationStyle.detectAndParse(atrasoMaximo);
+        var manager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                if (especificacoes.getServirObsoleto().contains(name)) {
+                    return new CacheRevalidavel(name, cache, isAllowNullValues(), threadsVirtuais, especificacoes.getObsoletoPor(),
+                            atrasoReplica);
+                }
+                return new CacheCargaUnica(name, cache, isAllowNullValues(), threadsVirtuais, atrasoReplica);
+            }
+        };
+        String padrao = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(padrao)) {
+            manager.setCacheSpecification(padrao);
+        }
+        especificacoes.getEspecificacoes()
+                .forEach((nome, especificacao) -> manager.registerCustomCache(nome, Caffeine.from(especificacao).build()));
+        return manager;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.fiap.bluehope.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+
+/**
+ * Cache Caffeine que, ao ser invalidado, guarda os valores antigos por um
+ * período. Num miss com valor antigo disponível, apenas uma requisição recarrega
+ * a chave; as demais recebem o valor antigo em vez de esperar (stale-while-revalidate).
+ */
+public class CacheRevalidavel extends CacheCargaUnica {
+
+    private final Cache<Object, Object> obsoletos;
+    private final ConcurrentMap<Object, Boolean> emRevalidacao = new ConcurrentHashMap<>();
+
+    public CacheRevalidavel(String name, Cache<Object, Object> cache, boolean allowNullValues, boolean cargaForaDoMapa,
+            Duration obsoletoPor, Duration atrasoReplica) {
+        super(name, cache, allowNullValues, cargaForaDoMapa, atrasoReplica);
+        this.obsoletos = Caffeine.newBuilder()
+                .expireAfterWrite(obsoletoPor)
+                .maximumSize(cache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(10_000L))
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper atual = super.get(key);
+        if (atual != null) {
+            return (T) atual.get();
+        }
+        Object obsoleto = obsoletos.getIfPresent(key);
+        if (obsoleto == null) {
+            return super.get(key, valueLoader);
+        }
+        if (emRevalidacao.putIfAbsent(key, Boolean.TRUE) != null) {
+            return (T) fromStoreValue(obsoleto);
+        }
+        try {
+            T valor = super.get(key, valueLoader);
+            obsoletos.invalidate(key);
+            return valor;
+        } finally {
+            emRevalidacao.remove(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        guardarObsoleto(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        guardarObsoleto(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        obsoletos.putAll(getNativeCache().asMap());
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        obsoletos.putAll(getNativeCache().asMap());
+        return super.invalidate();
+    }
+
+    private void guardarObsoleto(Object key) {
+        Object valor = getNativeCache().getIfPresent(key);
+        if (valor != null && valor != NullValue.INSTANCE) {
+            obsoletos.put(key, valor);
+        }
+    }
+}
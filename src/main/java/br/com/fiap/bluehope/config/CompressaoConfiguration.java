@@ -0,0 +1,29 @@
+package br.com.fiap.bluehope.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import br.com.fiap.bluehope.compressao.CompressaoGzipFilter;
+
+/**
+ * Compressão gzip das respostas ({@code bluehope.compressao.*});
+ * {@code bluehope.compressao.habilitada=false} desliga.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bluehope.compressao", name = "habilitada", matchIfMissing = true)
+public class CompressaoConfiguration {
+
+    private static final String TIPOS = "application/json,application/hal+json,application/x-ndjson,"
+            + "application/cbor,application/x-jackson-smile,text/plain";
+
+    @Bean
+    public CompressaoGzipFilter compressaoGzipFilter(
+            @Value("${bluehope.compressao.tipos:" + TIPOS + "}") String tipos,
+            @Value("${bluehope.compressao.tamanho-minimo:2KB}") DataSize tamanhoMinimo) {
+        return new CompressaoGzipFilter(MediaType.parseMediaTypes(tipos), (int) tamanhoMinimo.toBytes());
+    }
+}
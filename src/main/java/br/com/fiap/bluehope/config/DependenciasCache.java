@@ -0,0 +1,76 @@
+package br.com.fiap.bluehope.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.stereotype.Component;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+
+/**
+ * O detalhe em cache de uma entidade embute a associação carregada junto: a
+ * foto e a validação levam o desafio, o desafio leva o perfil e o perfil leva
+ * o usuário. Quando o pai é gravado, as entradas que o embutem também saem do
+ * cache; as demais continuam valendo.
+ */
+@Component
+public class DependenciasCache {
+
+    private record Dependente(String cache, Function<Object, Long> pai) {
+    }
+
+    private static final Map<String, List<Dependente>> DEPENDENTES = Map.of(
+            "usuarios", List.of(
+                    new Dependente("perfis", valor -> valor instanceof Perfil p && p.getUsuario() != null ? p.getUsuario().getId() : null)),
+            "perfis", List.of(
+                    new Dependente("desafios", valor -> valor instanceof Desafio d && d.getPerfil() != null ? d.getPerfil().getId() : null)),
+            "desafios", List.of(
+                    new Dependente("fotos", valor -> valor instanceof Foto f && f.getDesafio() != null ? f.getDesafio().getId() : null),
+                    new Dependente("validacaodesafios", valor -> valor instanceof ValidacaoDesafio v && v.getDesafio() != null ? v.getDesafio().getId() : null)));
+
+    @Autowired
+    CacheManager cacheManager;
+
+    public void evictar(String cachePai, Long id) {
+        evictar(cachePai, List.of(id));
+    }
+
+    /**
+     * Remove dos caches dependentes de {@code cachePai} as entradas que embutem
+     * algum dos ids. Com {@code null}, limpa os caches dependentes inteiros.
+     */
+    public void evictar(String cachePai, Collection<Long> ids) {
+        for (var dependente : DEPENDENTES.getOrDefault(cachePai, List.of())) {
+            Cache cache = cacheManager.getCache(dependente.cache());
+            if (cache == null) {
+                continue;
+            }
+            if (ids == null) {
+                cache.clear();
+                continue;
+            }
+            if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativo)) {
+                cache.clear();
+                continue;
+            }
+            List<Object> chaves = new ArrayList<>();
+            nativo.asMap().forEach((chave, valor) -> {
+                Object conteudo = valor instanceof EntityModel<?> modelo ? modelo.getContent() : valor;
+                if (ids.contains(dependente.pai().apply(conteudo))) {
+                    chaves.add(chave);
+                }
+            });
+            chaves.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.fiap.bluehope.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "bluehope.cache")
+public class EspecificacoesCache {
+
+    /**
+     * Especificação Caffeine por nome de cache, por exemplo
+     * {@code maximumSize=10000,expireAfterWrite=10m,recordStats}.
+     */
+    private Map<String, String> especificacoes = new LinkedHashMap<>();
+
+    /**
+     * Caches que continuam servindo o valor anterior enquanto uma única
+     * requisição recarrega a chave invalidada.
+     */
+    private Set<String> servirObsoleto = new LinkedHashSet<>();
+
+    /**
+     * Por quanto tempo um valor invalidado ainda pode ser servido.
+     */
+    private Duration obsoletoPor = Duration.ofSeconds(30);
+}
@@ -0,0 +1,79 @@
+package br.com.fiap.bluehope.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Respostas em CBOR ({@code application/cbor}) e Smile
+ * ({@code application/x-jackson-smile}) para quem pedir no {@code Accept},
+ * com a mesma estrutura HAL ({@code _embedded}, {@code _links}) do JSON.
+ * Os conversores padrão do Spring para esses formatos usam um
+ * {@code ObjectMapper} próprio, sem a configuração do Spring Boot nem o módulo
+ * HAL, e são trocados por estes.
+ */
+@Configuration
+public class FormatosBinariosConfiguration implements WebMvcConfigurer, SmartInitializingSingleton {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private MappingJackson2HttpMessageConverter json;
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private MappingJackson2SmileHttpMessageConverter smile;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        cbor = new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+        smile = new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        json = converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(MappingJackson2HttpMessageConverter.class::cast)
+                .findFirst()
+                .orElseThrow();
+        int posicao = converters.indexOf(json) + 1;
+        converters.add(posicao, cbor);
+        converters.add(posicao + 1, smile);
+    }
+
+    /**
+     * O Spring HATEOAS registra o {@code ObjectMapper} HAL no conversor JSON
+     * depois deste configurer; com todos os beans prontos ele é copiado para
+     * os formatos binários.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (json == null) {
+            return;
+        }
+        ObjectMapper hal = json.getObjectMappersForType(RepresentationModel.class).get(MediaTypes.HAL_JSON);
+        if (hal == null) {
+            return;
+        }
+        registrarHal(cbor, MediaType.APPLICATION_CBOR, hal.copyWith(new CBORFactory()));
+        registrarHal(smile, APPLICATION_SMILE, hal.copyWith(new SmileFactory()));
+    }
+
+    private static void registrarHal(AbstractJackson2HttpMessageConverter conversor, MediaType tipo, ObjectMapper mapper) {
+        conversor.registerObjectMappersForType(RepresentationModel.class, mapas -> mapas.put(tipo, mapper));
+    }
+}
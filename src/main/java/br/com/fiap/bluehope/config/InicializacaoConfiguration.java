@@ -0,0 +1,74 @@
+package br.com.fiap.bluehope.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class InicializacaoConfiguration {
+
+    static final String SOB_DEMANDA = "bluehope.inicializacao.sob-demanda";
+
+    /**
+     * Marca como lazy os beans declarados pelos pacotes listados em
+     * {@code bluehope.inicializacao.sob-demanda}: bibliotecas como o springdoc
+     * e o cliente do Spring Boot Admin montam dezenas de objetos que só servem
+     * quando alguém abre a documentação ou o servidor de admin responde, então
+     * eles passam a ser criados no primeiro uso e não na subida, mesmo os que
+     * a biblioteca marca com {@code @Lazy(false)}. Ficam de fora os beans de
+     * infraestrutura e os {@link SmartInitializingSingleton}, que dependem do
+     * callback do fim da inicialização, como no
+     * {@code spring.main.lazy-initialization} do Spring Boot.
+     */
+    @Bean
+    static BeanFactoryPostProcessor inicializacaoSobDemanda(Environment environment) {
+        List<String> pacotes = Binder.get(environment)
+                .bind(SOB_DEMANDA, Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            if (pacotes.isEmpty()) {
+                return;
+            }
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                var definicao = beanFactory.getBeanDefinition(nome);
+                if (definicao.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE
+                        || !doPacote(origem(definicao), pacotes)) {
+                    continue;
+                }
+                Class<?> tipo = beanFactory.getType(nome, false);
+                if (tipo != null && SmartInitializingSingleton.class.isAssignableFrom(tipo)) {
+                    continue;
+                }
+                definicao.setLazyInit(true);
+            }
+        };
+    }
+
+    /** Classe que declarou o bean: a da configuração, para beans de métodos {@code @Bean}. */
+    private static String origem(BeanDefinition definicao) {
+        if (definicao instanceof AnnotatedBeanDefinition anotada && anotada.getFactoryMethodMetadata() != null) {
+            return anotada.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definicao.getBeanClassName();
+    }
+
+    private static boolean doPacote(String classe, List<String> pacotes) {
+        if (classe == null) {
+            return false;
+        }
+        for (String pacote : pacotes) {
+            if (classe.startsWith(pacote + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.fiap.bluehope.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.fiap.bluehope.concorrencia.LimiteAdaptativo;
+import br.com.fiap.bluehope.concorrencia.LimiteConcorrenciaFilter;
+import br.com.fiap.bluehope.concorrencia.LimitesEndpoint;
+import br.com.fiap.bluehope.concorrencia.PropriedadesLimite;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limite de concorrência adaptativo por grupo de endpoints
+ * ({@code bluehope.limite.*}); {@code bluehope.limite.habilitado=false}
+ * desliga.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bluehope.limite", name = "habilitado", matchIfMissing = true)
+@EnableConfigurationProperties(PropriedadesLimite.class)
+public class LimiteConcorrenciaConfiguration {
+
+    @Bean
+    public LimiteConcorrenciaFilter limiteConcorrenciaFilter(PropriedadesLimite propriedades, MeterRegistry registry) {
+        return new LimiteConcorrenciaFilter(propriedades.getGrupos().stream()
+                .map(grupo -> new LimiteAdaptativo(grupo, propriedades, registry))
+                .toList(), propriedades);
+    }
+
+    @Bean
+    public LimitesEndpoint limitesEndpoint(LimiteConcorrenciaFilter filter) {
+        return new LimitesEndpoint(filter.getLimites());
+    }
+}
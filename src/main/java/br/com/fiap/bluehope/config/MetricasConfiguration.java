@@ -0,0 +1,31 @@
+package br.com.fiap.bluehope.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import br.com.fiap.bluehope.metricas.MedicaoCamadas;
+
+@Configuration
+public class MetricasConfiguration {
+
+    /**
+     * Registra {@link MedicaoCamadas} como ouvinte das chamadas de todos os
+     * repositórios, do mesmo jeito que o Spring Boot registra o seu.
+     */
+    @Bean
+    static BeanPostProcessor medicaoCamadasRepositorios(ObjectProvider<MedicaoCamadas> medicao) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(
+                            fabrica -> fabrica.addInvocationListener(medicao.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.bluehope.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Lê corpos {@code application/x-ndjson} (um objeto JSON por linha) como
+ * {@code List<T>}, para que os endpoints de lote aceitem tanto um array JSON
+ * quanto NDJSON no mesmo método. Também escreve coleções nesse formato, uma
+ * linha por elemento. Fica no fim da lista de conversores (ver
+ * {@link WebConfiguration}), então só responde em NDJSON quando o
+ * {@code Accept} pede.
+ */
+public class NdjsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return List.class.isAssignableFrom(ResolvableType.forType(type).toClass()) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return supports(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType elemento = objectMapper.constructType(ResolvableType.forType(type).getGeneric(0).getType());
+        try (var itens = objectMapper.readerFor(elemento).readValues(inputMessage.getBody())) {
+            return itens.readAll();
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("NDJSON inválido: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object t, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(outputMessage.getBody())) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+            for (Object item : (Collection<?>) t) {
+                escritor.writeValue(gerador, item);
+                gerador.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.bluehope.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.fiap.bluehope.roteamento.AderenciaPrimarioFilter;
+import br.com.fiap.bluehope.roteamento.MonitorReplica;
+import br.com.fiap.bluehope.roteamento.PropriedadesReplica;
+import br.com.fiap.bluehope.roteamento.RoteamentoDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Com {@code bluehope.replica.url} definida, troca o DataSource da aplicação
+ * por um que manda as transações {@code readOnly} para a réplica. Cada lado
+ * tem o seu pool Hikari: o primário configurado por
+ * {@code spring.datasource.hikari.*} e a réplica por
+ * {@code bluehope.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bluehope.replica", name = "url")
+@EnableConfigurationProperties(PropriedadesReplica.class)
+public class RoteamentoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties propriedades) {
+        var dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("bluehope.replica.hikari")
+    public HikariDataSource replica(PropriedadesReplica propriedades) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(propriedades.getUrl())
+                .username(propriedades.getUsername())
+                .password(propriedades.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(
+            @Qualifier("primario") HikariDataSource primario,
+            @Qualifier("replica") HikariDataSource replica,
+            PropriedadesReplica propriedades,
+            MeterRegistry registry) {
+        return new MonitorReplica(new JdbcTemplate(primario), new JdbcTemplate(replica), propriedades.getAtrasoMaximo(), registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primario") HikariDataSource primario,
+            @Qualifier("replica") HikariDataSource replica,
+            MonitorReplica monitor,
+            MeterRegistry registry) {
+        var roteamento = new RoteamentoDataSource(primario, replica, monitor, registry);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    public AderenciaPrimarioFilter aderenciaPrimarioFilter(PropriedadesReplica propriedades) {
+        return new AderenciaPrimarioFilter(propriedades.getAtrasoMaximo());
+    }
+}
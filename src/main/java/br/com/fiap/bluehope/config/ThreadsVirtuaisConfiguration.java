@@ -0,0 +1,56 @@
+package br.com.fiap.bluehope.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.fiap.bluehope.concorrencia.ConexoesLimitadasDataSource;
+import br.com.fiap.bluehope.concorrencia.MonitorFixacao;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Complementos do modo com threads virtuais ({@code spring.threads.virtual.enabled}),
+ * em que o Spring Boot passa a atender as requisições do Tomcat, as tarefas
+ * assíncronas do MVC e os {@code @Scheduled} em threads virtuais.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfiguration {
+
+    /**
+     * Envolve o DataSource da aplicação num {@link ConexoesLimitadasDataSource}
+     * com {@code bluehope.virtual.conexoes} vagas, por padrão o tamanho do pool
+     * do primário. Com a réplica configurada o DataSource atende os dois pools,
+     * então o limite deve ser a soma deles.
+     */
+    @Bean
+    static BeanPostProcessor limiteConexoes(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${bluehope.virtual.conexoes:${spring.datasource.hikari.maximum-pool-size:10}}") int conexoes,
+            @Value("${bluehope.virtual.espera-conexao:5s}") Duration espera) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource) {
+                    return new ConexoesLimitadasDataSource(dataSource, conexoes, espera, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MonitorFixacao monitorFixacao(
+            MeterRegistry registry,
+            @Value("${bluehope.virtual.limite-fixacao:20ms}") Duration limite) {
+        return new MonitorFixacao(registry, limite);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.fiap.bluehope.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.bluehope.metricas.MedicaoCamadas;
+import br.com.fiap.bluehope.versionamento.VersaoColecaoInterceptor;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    MedicaoCamadas medicaoCamadas;
+
+    @Autowired
+    VersaoColecaoInterceptor versaoColecaoInterceptor;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(medicaoCamadas);
+        registry.addInterceptor(versaoColecaoInterceptor);
+    }
+
+    /**
+     * No fim da lista, depois do JSON: com {@code Accept: *}{@code /*} as
+     * coleções continuam saindo em JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+    }
+}
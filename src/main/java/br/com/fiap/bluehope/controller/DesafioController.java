@@ -1,33 +1,53 @@
 package br.com.fiap.bluehope.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.fiap.bluehope.busca.BuscaDesafioService;
+import br.com.fiap.bluehope.config.DependenciasCache;
+import br.com.fiap.bluehope.lote.LoteService;
+import br.com.fiap.bluehope.lote.ResultadoLote;
 import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.DesafioResumo;
 import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.versionamento.AlteraColecao;
+import br.com.fiap.bluehope.versionamento.EtagColecao;
+import br.com.fiap.bluehope.versionamento.PreCondicoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -46,15 +66,51 @@ public class DesafioController {
         DesafioRepository repository;
 
         @Autowired
-        PagedResourcesAssembler<Desafio> pagedResourcesAssembler;
+        PagedResourcesAssembler<DesafioResumo> pagedResourcesAssembler;
+
+        @Autowired
+        LoteService loteService;
+
+        @Autowired
+        BuscaDesafioService busca;
+
+        @Autowired
+        DependenciasCache dependencias;
 
         @GetMapping
-        public PagedModel<EntityModel<Desafio>> index(Pageable pageable) {
-                Page<Desafio> page = repository.findAll(pageable);
-                return pagedResourcesAssembler.toModel(page, Desafio::toEntityModel);
+        @Transactional(readOnly = true)
+        @EtagColecao("desafios")
+        public PagedModel<EntityModel<DesafioResumo>> index(Pageable pageable) {
+                Page<DesafioResumo> page = repository.findResumos(pageable);
+                return pagedResourcesAssembler.toModel(page, DesafioResumo::toEntityModel);
+        }
+
+        @GetMapping("search")
+        @Transactional(readOnly = true)
+        @EtagColecao("desafios")
+        @Operation(summary = "Buscar desafios", description = "Retorna, em ordem de id e a partir do cursor informado, os desafios cuja descrição tem todas as palavras da consulta. Acentos e maiúsculas são ignorados e cada palavra casa também como prefixo.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+                        @ApiResponse(responseCode = "400", description = "Consulta vazia ou limite inválido")
+        })
+        public CollectionModel<EntityModel<DesafioResumo>> search(
+                        @RequestParam String q,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(defaultValue = PaginaCursor.LIMITE_PADRAO) Integer limit) {
+                if (q.isBlank()) {
+                        throw new ResponseStatusException(BAD_REQUEST, "O parâmetro q não pode ser vazio");
+                }
+                long[] ids = busca.buscar(q, PaginaCursor.inicio(after), PaginaCursor.limite(limit).max());
+                var desafios = ids.length == 0
+                                ? List.<DesafioResumo>of()
+                                : repository.findResumosByIdIn(Arrays.stream(ids).boxed().toList());
+                return PaginaCursor.of(desafios, after, limit, DesafioResumo::id, DesafioResumo::toEntityModel,
+                                cursor -> linkTo(methodOn(DesafioController.class).search(q, cursor, limit)));
         }
 
         @GetMapping("{id}")
+        @Transactional(readOnly = true)
+        @Cacheable(key = "#id")
         @Operation(summary = "Obter detalhes de um desafio", description = "Retorna os detalhes de um desafio específico pelo seu ID.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Desafio encontrado com sucesso"),
@@ -63,15 +119,15 @@ public class DesafioController {
         public EntityModel<Desafio> show(@PathVariable Long id) {
                 log.info("Buscando Desafio com id {}", id);
 
-                var desafio = repository.findById(id).orElseThrow(
+                var desafio = repository.findDetalheById(id).orElseThrow(
                                 () -> new IllegalArgumentException("Desafio não encontrado"));
 
                 return desafio.toEntityModel();
         }
 
         @PostMapping
+        @AlteraColecao("desafios")
         @ResponseStatus(CREATED)
-        @CacheEvict(allEntries = true)
         @Operation(summary = "Cadastrar desafio", description = "Cria um novo desafio com os dados enviados no corpo da requisição.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "201", description = "Desafio cadastrado com sucesso"),
@@ -79,46 +135,70 @@ public class DesafioController {
         })
         public Desafio create(@RequestBody @Valid Desafio desafio) {
                 log.info("Cadastrando desafio {}", desafio);
-                return repository.save(desafio);
+                var salvo = repository.save(desafio);
+                busca.indexar(salvo);
+                return salvo;
+        }
+
+        @PostMapping("batch")
+        @AlteraColecao("desafios")
+        @ResponseStatus(CREATED)
+        @Operation(summary = "Cadastrar desafios em lote", description = "Cria vários desafios de uma vez a partir de um array JSON ou de NDJSON (um desafio por linha).")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Desafios cadastrados com sucesso"),
+                        @ApiResponse(responseCode = "400", description = "Um ou mais itens do lote são inválidos. Nenhum desafio foi cadastrado", useReturnTypeSchema = false)
+        })
+        public ResultadoLote createBatch(@RequestBody List<Desafio> desafios) {
+                log.info("Cadastrando {} desafios em lote", desafios.size());
+                var resultado = loteService.inserir(desafios, Desafio::getId);
+                busca.indexar(desafios);
+                return resultado;
         }
 
         @DeleteMapping("{id}")
+        @AlteraColecao("desafios")
         @ResponseStatus(NO_CONTENT)
-        @CacheEvict(allEntries = true)
+        @CacheEvict(key = "#id")
         @Operation(summary = "Deletar um desafio", description = "Remove um desafio específico pelo seu ID.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "204", description = "Desafio deletado com sucesso"),
                         @ApiResponse(responseCode = "404", description = "Desafio não encontrado")
         })
         public ResponseEntity<Object> destroy(@PathVariable Long id) {
-                repository.findById(id).orElseThrow(
-                                () -> new IllegalArgumentException("Desafio não encontrado"));
-
-                repository.deleteById(id);
+                if (repository.apagar(id) == 0) {
+                        throw new ResponseStatusException(NOT_FOUND, "Não existe desafio com o id informado");
+                }
+                busca.remover(id);
+                dependencias.evictar("desafios", id);
 
                 return ResponseEntity.noContent().build();
         }
 
         @PutMapping("{id}")
-        @CacheEvict(allEntries = true)
+        @AlteraColecao("desafios")
+        @CacheEvict(key = "#id")
         @Operation(summary = "Atualizar um desafio", description = "Atualiza os dados de um desafio específico pelo seu ID.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Desafio atualizado com sucesso"),
-                        @ApiResponse(responseCode = "404", description = "Desafio não encontrado")
+                        @ApiResponse(responseCode = "404", description = "Desafio não encontrado"),
+                        @ApiResponse(responseCode = "409", description = "O registro foi alterado por outra requisição depois da versão enviada"),
+                        @ApiResponse(responseCode = "412", description = "O If-Match informado não corresponde à versão atual"),
+                        @ApiResponse(responseCode = "428", description = "Nem If-Match nem a versao do corpo foram informados")
         })
-        public Desafio update(@PathVariable Long id, @RequestBody Desafio desafio) {
+        public Desafio update(
+                @PathVariable Long id,
+                @RequestBody @Valid Desafio desafio,
+                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
                 log.info("Atualizar desafio {} para {}", id, desafio);
 
-                verificarSeDesafioExiste(id);
+                Long versao = PreCondicoes.versaoEsperada(ifMatch, desafio.getVersao());
+                if (repository.atualizar(id, versao, desafio.getDescricao(), desafio.getPontos(), desafio.getPerfil()) == 0) {
+                        throw PreCondicoes.naoAtualizado(repository.existsById(id), ifMatch, "Não existe desafio com o id informado");
+                }
                 desafio.setId(id);
-                return repository.save(desafio);
-        }
-
-        private void verificarSeDesafioExiste(Long id) {
-                repository
-                                .findById(id)
-                                .orElseThrow(() -> new ResponseStatusException(
-                                                NOT_FOUND,
-                                                "Não existe desafio com o id informado"));
+                desafio.setVersao(PreCondicoes.versaoGravada(versao));
+                busca.indexar(desafio);
+                dependencias.evictar("desafios", id);
+                return desafio;
         }
 }
@@ -0,0 +1,52 @@
+package br.com.fiap.bluehope.controller;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import br.com.fiap.bluehope.exportacao.ExportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("export")
+@Slf4j
+@Tag(name = "Exportação")
+public class ExportacaoController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    ExportacaoService service;
+
+    @GetMapping("{entidade}")
+    @Operation(summary = "Exportar entidade", description = "Retorna todas as linhas de foto, desafio, validacaodesafio ou perfil em NDJSON, um objeto por linha.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Entidade não exportável")
+    })
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String entidade) {
+        if (!service.entidades().contains(entidade)) {
+            throw new ResponseStatusException(NOT_FOUND, "Não existe exportação para a entidade informada");
+        }
+        log.info("Exportando {}", entidade);
+
+        StreamingResponseBody corpo = saida -> service.exportar(entidade, saida);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + entidade + ".ndjson\"")
+                .body(corpo);
+    }
+}
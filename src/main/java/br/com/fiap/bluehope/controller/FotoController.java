@@ -1,27 +1,45 @@
 package br.com.fiap.bluehope.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import static org.springframework.http.HttpStatus.CREATED;
-import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.multipart.MultipartFile;
 
+import br.com.fiap.bluehope.armazenamento.ConteudoFotoService;
+import br.com.fiap.bluehope.armazenamento.EnvioConteudo;
+import br.com.fiap.bluehope.armazenamento.Variante;
+import br.com.fiap.bluehope.lote.LoteService;
+import br.com.fiap.bluehope.lote.ResultadoLote;
 import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.FotoResumo;
 import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.versionamento.AlteraColecao;
+import br.com.fiap.bluehope.versionamento.EtagColecao;
+import br.com.fiap.bluehope.versionamento.PreCondicoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -34,17 +52,31 @@ public class FotoController {
     @Autowired
     FotoRepository repository;
 
+    @Autowired
+    LoteService loteService;
+
+    @Autowired
+    ConteudoFotoService conteudoService;
+
+    @Autowired
+    EnvioConteudo envioConteudo;
+
     @GetMapping
-    @Cacheable
-    @Operation(summary = "Listar todas as fotos", description = "Retorna um array com todas as fotos no formato objeto")
-    public List<EntityModel<Foto>> index() {
-        var fotos = repository.findAll();
-        return fotos.stream()
-                .map(Foto::toModel)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    @EtagColecao("fotos")
+    @Cacheable(cacheNames = "fotos-paginas", sync = true)
+    @Operation(summary = "Listar fotos", description = "Retorna uma página de fotos ordenadas pelo id, a partir do cursor informado")
+    public CollectionModel<EntityModel<FotoResumo>> index(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = PaginaCursor.LIMITE_PADRAO) Integer limit) {
+        var fotos = repository.findResumosByIdGreaterThan(PaginaCursor.inicio(after), PaginaCursor.limite(limit));
+        return PaginaCursor.of(fotos, after, limit, FotoResumo::id, FotoResumo::toModel,
+                cursor -> linkTo(methodOn(FotoController.class).index(cursor, limit)));
     }
 
     @GetMapping("{id}")
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#id")
     @Operation(summary = "Obter detalhes de uma foto", description = "Retorna os detalhes de uma foto específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Foto encontrada com sucesso"),
@@ -53,15 +85,16 @@ public class FotoController {
     public EntityModel<Foto> show(@PathVariable Long id) {
         log.info("Buscando Foto com id {}", id);
 
-        var foto = repository.findById(id).orElseThrow(
+        var foto = repository.findDetalheById(id).orElseThrow(
                 () -> new IllegalArgumentException("Foto não encontrada"));
 
         return foto.toEntityModel();
     }
 
     @PostMapping
+    @AlteraColecao("fotos")
     @ResponseStatus(CREATED)
-    @CacheEvict(allEntries = true)
+    @CacheEvict(cacheNames = "fotos-paginas", allEntries = true)
     @Operation(summary = "Cadastrar foto", description = "Cria uma nova foto com os dados enviados no corpo da requisição.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Foto cadastrada com sucesso"),
@@ -72,43 +105,105 @@ public class FotoController {
         return repository.save(foto);
     }
 
+    @PostMapping("batch")
+    @AlteraColecao("fotos")
+    @ResponseStatus(CREATED)
+    @CacheEvict(cacheNames = "fotos-paginas", allEntries = true)
+    @Operation(summary = "Cadastrar fotos em lote", description = "Cria várias fotos de uma vez a partir de um array JSON ou de NDJSON (uma foto por linha).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Fotos cadastradas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Um ou mais itens do lote são inválidos. Nenhuma foto foi cadastrada", useReturnTypeSchema = false)
+    })
+    public ResultadoLote createBatch(@RequestBody List<Foto> fotos) {
+        log.info("Cadastrando {} fotos em lote", fotos.size());
+        return loteService.inserir(fotos, Foto::getId);
+    }
+
+    @PostMapping(value = "{id}/conteudo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @AlteraColecao("fotos")
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "fotos-paginas", allEntries = true)
+    })
+    @Operation(summary = "Enviar o arquivo de uma foto", description = "Grava a imagem enviada no campo multipart 'arquivo' como conteúdo da foto, substituindo o anterior.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conteúdo gravado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Foto não encontrada"),
+            @ApiResponse(responseCode = "415", description = "O arquivo enviado não é uma imagem")
+    })
+    public EntityModel<Foto> upload(@PathVariable Long id, @RequestParam MultipartFile arquivo) throws IOException {
+        log.info("Recebendo conteúdo da foto {} ({} bytes)", id, arquivo.getSize());
+        try (var entrada = arquivo.getInputStream()) {
+            return conteudoService.enviar(id, arquivo.getContentType(), entrada).toEntityModel();
+        }
+    }
+
+    @GetMapping("{id}/conteudo")
+    @Operation(summary = "Baixar o arquivo de uma foto", description = "Retorna a imagem da foto, ou uma versão reduzida com variant=thumb ou variant=medium. Aceita Range com uma faixa de bytes e If-None-Match com o ETag recebido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagem retornada com sucesso"),
+            @ApiResponse(responseCode = "206", description = "Faixa de bytes retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "A imagem não mudou desde o ETag informado"),
+            @ApiResponse(responseCode = "400", description = "Variante inválida"),
+            @ApiResponse(responseCode = "404", description = "Foto não encontrada, sem conteúdo ou com a variante ainda não gerada"),
+            @ApiResponse(responseCode = "416", description = "Faixa de bytes fora do tamanho da imagem")
+    })
+    public void download(
+            @PathVariable Long id,
+            @RequestParam(required = false) String variant,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        var variante = variant != null ? Variante.de(variant) : null;
+        envioConteudo.enviar(conteudoService.abrir(id, variante), request, response);
+    }
+
     @DeleteMapping("{id}")
+    @AlteraColecao("fotos")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "fotos-paginas", allEntries = true)
+    })
     @Operation(summary = "Deletar uma foto", description = "Remove uma foto específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Foto deletada com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Foto não encontrada")
+            @ApiResponse(responseCode = "404", description = "Foto não encontrada"),
+            @ApiResponse(responseCode = "409", description = "A foto foi alterada por outras requisições durante a exclusão")
     })
     public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-                () -> new IllegalArgumentException("Foto não encontrada"));
-
-        repository.deleteById(id);
+        conteudoService.apagar(id);
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
-    @Operation(summary = "Atualizar uma foto", description = "Atualiza os dados de uma foto específica pelo seu ID.")
+    @AlteraColecao("fotos")
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "fotos-paginas", allEntries = true)
+    })
+    @Operation(summary = "Atualizar uma foto", description = "Atualiza o caminho e o desafio de uma foto específica pelo seu ID, num único UPDATE sem reler o registro. "
+            + "A resposta traz só os campos gravados e a nova versão: tipoConteudo, tamanhoConteudo e statusVariantes vêm nulos e não há links de conteúdo nem de variantes. "
+            + "Use GET /foto/{id} para a representação completa.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Foto atualizada com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Foto não encontrada")
+            @ApiResponse(responseCode = "200", description = "Foto atualizada com sucesso; o corpo traz só os campos gravados"),
+            @ApiResponse(responseCode = "404", description = "Foto não encontrada"),
+            @ApiResponse(responseCode = "409", description = "O registro foi alterado por outra requisição depois da versão enviada"),
+            @ApiResponse(responseCode = "412", description = "O If-Match informado não corresponde à versão atual"),
+            @ApiResponse(responseCode = "428", description = "Nem If-Match nem a versao do corpo foram informados")
     })
-    public Foto update(@PathVariable Long id, @RequestBody Foto foto) {
+    public Foto update(
+            @PathVariable Long id,
+            @RequestBody @Valid Foto foto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Atualizar foto {} para {}", id, foto);
 
-        verificarSeFotoExiste(id);
+        Long versao = PreCondicoes.versaoEsperada(ifMatch, foto.getVersao());
+        if (repository.atualizar(id, versao, foto.getCaminhoFoto(), foto.getDesafio()) == 0) {
+            throw PreCondicoes.naoAtualizado(repository.existsById(id), ifMatch, "Não existe foto com o id informado");
+        }
         foto.setId(id);
-        return repository.save(foto);
-    }
-
-    private void verificarSeFotoExiste(Long id) {
-        repository
-                .findById(id)
-                .orElseThrow(() -> new ResponseStatusException(
-                        NOT_FOUND,
-                        "Não existe foto com o id informado"));
+        foto.setVersao(PreCondicoes.versaoGravada(versao));
+        return foto;
     }
 }
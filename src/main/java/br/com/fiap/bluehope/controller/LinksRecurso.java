@@ -0,0 +1,155 @@
+package br.com.fiap.bluehope.controller;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import br.com.fiap.bluehope.metricas.MedicaoCamadas;
+
+/**
+ * Links de um controller montados a partir de templates resolvidos uma única
+ * vez, na carga da classe. Por entidade sobra só concatenar a URI base da
+ * requisição (calculada uma vez por requisição) com o caminho e o id, sem o
+ * proxy do {@code methodOn} nem a resolução do mapeamento a cada link.
+ *
+ * Gera os mesmos hrefs que {@code linkTo(methodOn(...))} para os métodos
+ * show, destroy e index dos controllers.
+ */
+public final class LinksRecurso {
+
+    private static final String ATRIBUTO_BASE = LinksRecurso.class.getName() + ".base";
+
+    private final String caminho;
+    private final String colecao;
+
+    // o link da coleção é igual para todas as entidades de uma requisição
+    private volatile LinkColecao ultimaColecao;
+
+    private record LinkColecao(String base, Link link) {
+    }
+
+    private LinksRecurso(String caminho, String colecao) {
+        this.caminho = caminho;
+        this.colecao = colecao;
+    }
+
+    /**
+     * Lê o {@code @RequestMapping} do controller e os {@code @RequestParam} do
+     * seu método {@code index} para montar os templates.
+     */
+    public static LinksRecurso de(Class<?> controller) {
+        var mapeamento = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+        if (mapeamento == null || mapeamento.path().length == 0) {
+            throw new IllegalArgumentException(controller.getSimpleName() + " não tem @RequestMapping");
+        }
+        String caminho = "/" + StringUtils.trimLeadingCharacter(mapeamento.path()[0], '/');
+        return new LinksRecurso(caminho, caminho + parametros(index(controller)));
+    }
+
+    public Link item(Object id, String rel) {
+        long inicio = System.nanoTime();
+        var link = Link.of(base() + caminho + "/" + id, rel);
+        MedicaoCamadas.registrarLinks(inicio);
+        return link;
+    }
+
+    public Link item(Object id, String subcaminho, String rel) {
+        long inicio = System.nanoTime();
+        var link = Link.of(base() + caminho + "/" + id + "/" + subcaminho, rel);
+        MedicaoCamadas.registrarLinks(inicio);
+        return link;
+    }
+
+    public Link colecao(String rel) {
+        long inicio = System.nanoTime();
+        var link = contents(base()).withRel(rel);
+        MedicaoCamadas.registrarLinks(inicio);
+        return link;
+    }
+
+    /**
+     * Modelo de detalhe: self, delete e a coleção.
+     */
+    public <T> EntityModel<T> entidade(T conteudo, Object id) {
+        long inicio = System.nanoTime();
+        String base = base();
+        String href = base + caminho + "/" + id;
+        var modelo = EntityModel.of(conteudo,
+                Link.of(href, IanaLinkRelations.SELF),
+                Link.of(href, "delete"),
+                contents(base));
+        MedicaoCamadas.registrarLinks(inicio);
+        return modelo;
+    }
+
+    /**
+     * Modelo usado nas listagens, só com o link da coleção.
+     */
+    public <T> EntityModel<T> itemColecao(T conteudo) {
+        long inicio = System.nanoTime();
+        var modelo = EntityModel.of(conteudo, contents(base()));
+        MedicaoCamadas.registrarLinks(inicio);
+        return modelo;
+    }
+
+    private Link contents(String base) {
+        var ultima = ultimaColecao;
+        if (ultima == null || !ultima.base().equals(base)) {
+            ultima = new LinkColecao(base, Link.of(base + colecao, "contents"));
+            ultimaColecao = ultima;
+        }
+        return ultima.link();
+    }
+
+    /**
+     * URI base da requisição atual, guardada nos atributos da requisição como
+     * o WebMvcLinkBuilder faz. Fora de uma requisição os links são relativos.
+     */
+    static String base() {
+        var atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return "";
+        }
+        var base = (String) atributos.getAttribute(ATRIBUTO_BASE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            atributos.setAttribute(ATRIBUTO_BASE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+
+    private static Method index(Class<?> controller) {
+        return Arrays.stream(controller.getMethods())
+                .filter(m -> m.getName().equals("index"))
+                .filter(m -> AnnotatedElementUtils.hasAnnotation(m, GetMapping.class))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(controller.getSimpleName() + " não tem método index"));
+    }
+
+    private static String parametros(Method index) {
+        String[] nomesDeclarados = new DefaultParameterNameDiscoverer().getParameterNames(index);
+        List<String> nomes = new ArrayList<>();
+        var parametros = index.getParameters();
+        for (int i = 0; i < parametros.length; i++) {
+            var anotacao = AnnotatedElementUtils.findMergedAnnotation(parametros[i], RequestParam.class);
+            if (anotacao != null) {
+                nomes.add(StringUtils.hasText(anotacao.name()) ? anotacao.name() : nomesDeclarados[i]);
+            }
+        }
+        return nomes.isEmpty() ? "" : "{?" + String.join(",", nomes) + "}";
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.fiap.bluehope.controller;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Paginação por cursor (keyset): cada página começa no primeiro id maior que
+ * {@code after}, então o custo de uma página profunda é o mesmo da primeira.
+ */
+final class PaginaCursor {
+
+    static final String LIMITE_PADRAO = "20";
+    static final int LIMITE_MAXIMO = 100;
+
+    private PaginaCursor() {
+    }
+
+    static long inicio(Long after) {
+        return after == null ? 0 : after;
+    }
+
+    static Limit limite(int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO) {
+            throw new ResponseStatusException(BAD_REQUEST, "O parâmetro limit deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return Limit.of(limit);
+    }
+
+    static <T> CollectionModel<EntityModel<T>> of(
+            List<T> itens,
+            Long after,
+            int limit,
+            Function<T, Long> id,
+            Function<T, EntityModel<T>> modelo,
+            Function<Long, WebMvcLinkBuilder> link) {
+        var pagina = CollectionModel.of(
+                itens.stream().map(modelo).toList(),
+                link.apply(after).withSelfRel().expand());
+        if (itens.size() == limit) {
+            pagina.add(link.apply(id.apply(itens.get(itens.size() - 1))).withRel(IanaLinkRelations.NEXT));
+        }
+        return pagina;
+    }
+}
@@ -1,5 +1,8 @@
 package br.com.fiap.bluehope.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
@@ -11,21 +14,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.fiap.bluehope.config.DependenciasCache;
 import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.PerfilResumo;
+import br.com.fiap.bluehope.pontuacao.PontuacaoService;
+import br.com.fiap.bluehope.pontuacao.RecalculoPontos;
+import br.com.fiap.bluehope.ranking.PosicaoRanking;
+import br.com.fiap.bluehope.ranking.RankingService;
 import br.com.fiap.bluehope.repository.PerfilRepository;
+import br.com.fiap.bluehope.versionamento.AlteraColecao;
+import br.com.fiap.bluehope.versionamento.EtagColecao;
+import br.com.fiap.bluehope.versionamento.PreCondicoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -40,20 +58,65 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Perfis")
 public class PerfilController {
 
+    private static final int TOP_MAXIMO = 100;
+
     @Autowired
     PerfilRepository repository;
 
+    @Autowired
+    RankingService ranking;
+
+    @Autowired
+    PontuacaoService pontuacao;
+
+    @Autowired
+    DependenciasCache dependencias;
+
     @GetMapping
-    @Cacheable
-    @Operation(summary = "Listar todos os perfis", description = "Retorna um array com todos os perfis no formato objeto")
-    public List<EntityModel<Perfil>> index() {
-        var perfis = repository.findAll();
-        return perfis.stream()
-                .map(Perfil::toModel)
+    @Transactional(readOnly = true)
+    @EtagColecao("perfis")
+    @Cacheable(cacheNames = "perfis-paginas", sync = true)
+    @Operation(summary = "Listar perfis", description = "Retorna uma página de perfis ordenados pelo id, a partir do cursor informado")
+    public CollectionModel<EntityModel<PerfilResumo>> index(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = PaginaCursor.LIMITE_PADRAO) Integer limit) {
+        var perfis = repository.findResumosByIdGreaterThan(PaginaCursor.inicio(after), PaginaCursor.limite(limit));
+        return PaginaCursor.of(perfis, after, limit, PerfilResumo::id, PerfilResumo::toModel,
+                cursor -> linkTo(methodOn(PerfilController.class).index(cursor, limit)));
+    }
+
+    @GetMapping("ranking")
+    @Operation(summary = "Ranking de perfis", description = "Retorna os perfis com maior soma de pontos, do primeiro ao N-ésimo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade informada é inválida")
+    })
+    public List<EntityModel<PosicaoRanking>> ranking(@RequestParam(defaultValue = "10") int top) {
+        if (top < 1 || top > TOP_MAXIMO) {
+            throw new ResponseStatusException(BAD_REQUEST, "O parâmetro top deve estar entre 1 e " + TOP_MAXIMO);
+        }
+        return ranking.primeiros(top).stream()
+                .map(PosicaoRanking::toEntityModel)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("{id}/rank")
+    @Operation(summary = "Posição de um perfil no ranking", description = "Retorna a posição de um perfil específico no ranking pelo seu ID.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Posição encontrada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Perfil não encontrado")
+    })
+    public EntityModel<PosicaoRanking> rank(@PathVariable Long id) {
+        return ranking.posicao(id)
+                .map(PosicaoRanking::toEntityModel)
+                .orElseThrow(() -> new ResponseStatusException(
+                        NOT_FOUND,
+                        "Não existe perfil com o id informado"));
+    }
+
     @GetMapping("{id}")
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#id")
     @Operation(summary = "Obter detalhes de um perfil", description = "Retorna os detalhes de um perfil específico pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Perfil encontrado com sucesso"),
@@ -62,62 +125,89 @@ public class PerfilController {
     public EntityModel<Perfil> show(@PathVariable Long id) {
         log.info("Buscando Perfil com id {}", id);
 
-        var perfil = repository.findById(id).orElseThrow(
+        var perfil = repository.findDetalheById(id).orElseThrow(
                 () -> new IllegalArgumentException("Perfil não encontrado"));
 
         return perfil.toEntityModel();
     }
 
     @PostMapping
+    @AlteraColecao("perfis")
     @ResponseStatus(CREATED)
-    @CacheEvict(allEntries = true)
-    @Operation(summary = "Cadastrar perfil", description = "Cria um novo perfil com os dados enviados no corpo da requisição.")
+    @CacheEvict(cacheNames = "perfis-paginas", allEntries = true)
+    @Operation(summary = "Cadastrar perfil", description = "Cria um novo perfil com os dados enviados no corpo da requisição. A soma de pontos começa em zero e só muda pela pontuação das validações.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Perfil cadastrado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados enviados são inválidos. Verifique o corpo da requisição", useReturnTypeSchema = false)
     })
     public Perfil create(@RequestBody @Valid Perfil perfil) {
         log.info("Cadastrando perfil {}", perfil);
-        return repository.save(perfil);
+        var salvo = repository.save(perfil);
+        pontuacao.sincronizarRanking(salvo.getId());
+        return salvo;
+    }
+
+    @PostMapping("pontos/recalcular")
+    @Operation(summary = "Recalcular pontos", description = "Recalcula a soma de pontos de todos os perfis a partir das validações de desafio aprovadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pontos recalculados com sucesso")
+    })
+    public RecalculoPontos recalcularPontos() {
+        log.info("Recalculando pontos de todos os perfis");
+        return pontuacao.recalcularTodos();
     }
 
     @DeleteMapping("{id}")
+    @AlteraColecao("perfis")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "perfis-paginas", allEntries = true)
+    })
     @Operation(summary = "Deletar um perfil", description = "Remove um perfil específico pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Perfil deletado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Perfil não encontrado")
     })
     public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-                () -> new IllegalArgumentException("Perfil não encontrado"));
-
-        repository.deleteById(id);
+        if (repository.apagar(id) == 0) {
+            throw new ResponseStatusException(NOT_FOUND, "Não existe perfil com o id informado");
+        }
+        ranking.remover(id);
+        dependencias.evictar("perfis", id);
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
-    @Operation(summary = "Atualizar um perfil", description = "Atualiza os dados de um perfil específico pelo seu ID.")
+    @AlteraColecao("perfis")
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "perfis-paginas", allEntries = true)
+    })
+    @Operation(summary = "Atualizar um perfil", description = "Atualiza os dados de um perfil específico pelo seu ID. A soma de pontos é mantida pelo servidor e não é alterada. "
+            + "A resposta traz só os campos gravados e a nova versão: a soma de pontos não é relida e vem 0. "
+            + "Use GET /perfil/{id} para a representação completa.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Perfil atualizado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Perfil não encontrado")
+            @ApiResponse(responseCode = "200", description = "Perfil atualizado com sucesso; o corpo traz só os campos gravados"),
+            @ApiResponse(responseCode = "404", description = "Perfil não encontrado"),
+            @ApiResponse(responseCode = "409", description = "O registro foi alterado por outra requisição depois da versão enviada"),
+            @ApiResponse(responseCode = "412", description = "O If-Match informado não corresponde à versão atual"),
+            @ApiResponse(responseCode = "428", description = "Nem If-Match nem a versao do corpo foram informados")
     })
-    public Perfil update(@PathVariable Long id, @RequestBody Perfil perfil) {
+    public Perfil update(
+            @PathVariable Long id,
+            @RequestBody @Valid Perfil perfil,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Atualizar perfil {} para {}", id, perfil);
 
-        verificarSePerfilExiste(id);
+        Long versao = PreCondicoes.versaoEsperada(ifMatch, perfil.getVersao());
+        if (repository.atualizar(id, versao, perfil.getNome(), perfil.getMedalha(), perfil.getUsuario()) == 0) {
+            throw PreCondicoes.naoAtualizado(repository.existsById(id), ifMatch, "Não existe perfil com o id informado");
+        }
         perfil.setId(id);
-        return repository.save(perfil);
-    }
-
-    private void verificarSePerfilExiste(Long id) {
-        repository
-                .findById(id)
-                .orElseThrow(() -> new ResponseStatusException(
-                        NOT_FOUND,
-                        "Não existe perfil com o id informado"));
+        perfil.setVersao(PreCondicoes.versaoGravada(versao));
+        dependencias.evictar("perfis", id);
+        return perfil;
     }
 }
@@ -1,35 +1,49 @@
 package br.com.fiap.bluehope.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.fiap.bluehope.config.DependenciasCache;
 import br.com.fiap.bluehope.model.Usuario;
 import br.com.fiap.bluehope.repository.UsuarioRepository;
+import br.com.fiap.bluehope.unicidade.ExistenciaEmail;
+import br.com.fiap.bluehope.unicidade.UnicidadeUsuarioService;
+import br.com.fiap.bluehope.versionamento.AlteraColecao;
+import br.com.fiap.bluehope.versionamento.EtagColecao;
+import br.com.fiap.bluehope.versionamento.PreCondicoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -39,20 +53,43 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Usuarios")
 public class UsuarioController {
 
+    private static final String DUPLICADO = "Já existe usuario com o email ou cpf informado";
+
     @Autowired
     UsuarioRepository repository;
 
+    @Autowired
+    UnicidadeUsuarioService unicidade;
+
+    @Autowired
+    DependenciasCache dependencias;
+
     @GetMapping
-    @Cacheable
-    @Operation(summary = "Listar todos os usuarios", description = "Retorna um array com todas os usuarios no formato objeto")
-    public List<EntityModel<Usuario>> index() {
-        var usuarios = repository.findAll();
-        return usuarios.stream()
-                .map(Usuario::toModel)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    @EtagColecao("usuarios")
+    @Cacheable(cacheNames = "usuarios-paginas", sync = true)
+    @Operation(summary = "Listar usuarios", description = "Retorna uma página de usuarios ordenados pelo id, a partir do cursor informado")
+    public CollectionModel<EntityModel<Usuario>> index(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = PaginaCursor.LIMITE_PADRAO) Integer limit) {
+        var usuarios = repository.findByIdGreaterThanOrderByIdAsc(PaginaCursor.inicio(after), PaginaCursor.limite(limit));
+        return PaginaCursor.of(usuarios, after, limit, Usuario::getId, Usuario::toModel,
+                cursor -> linkTo(methodOn(UsuarioController.class).index(cursor, limit)));
+    }
+
+    @GetMapping("exists")
+    @Transactional(readOnly = true)
+    @Operation(summary = "Verificar email", description = "Informa se o email já pertence a algum usuario, para validar o formulário de cadastro enquanto o email é digitado. A resposta é indicativa: o cadastro ainda pode retornar 409.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Verificação realizada com sucesso")
+    })
+    public ExistenciaEmail exists(@RequestParam String email) {
+        return new ExistenciaEmail(email, unicidade.emailEmUso(email));
     }
 
     @GetMapping("{id}")
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#id")
     @Operation(summary = "Obter detalhes de um usuário", description = "Retorna os detalhes de um usuário específico pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuario encontrada com sucesso"),
@@ -68,55 +105,85 @@ public class UsuarioController {
     }
 
     @PostMapping
+    @AlteraColecao("usuarios")
     @ResponseStatus(CREATED)
-    @CacheEvict(allEntries = true)
+    @CacheEvict(cacheNames = "usuarios-paginas", allEntries = true)
     @Operation(summary = "Cadastrar usuario", description = "Cria um novo usuario com os dados enviados no corpo da requisição.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Usuario cadastrada com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Dados enviados são inválidos. Verifique o corpo da requisição", useReturnTypeSchema = false)
+            @ApiResponse(responseCode = "400", description = "Dados enviados são inválidos. Verifique o corpo da requisição", useReturnTypeSchema = false),
+            @ApiResponse(responseCode = "409", description = "Já existe usuario com o email ou cpf informado", useReturnTypeSchema = false)
     })
     public Usuario create(@RequestBody Usuario usuario) {
         log.info("Cadastrando usuario {}", usuario);
-        return repository.save(usuario);
+        unicidade.verificarCadastro(usuario);
+        Usuario salvo;
+        try {
+            salvo = repository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(CONFLICT, DUPLICADO, e);
+        }
+        unicidade.registrar(salvo);
+        return salvo;
     }
 
     @DeleteMapping("{id}")
+    @AlteraColecao("usuarios")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "usuarios-paginas", allEntries = true)
+    })
     @Operation(summary = "Deletar um usuario", description = "Remove um usuario específico pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Usuario deletada com sucesso"),
             @ApiResponse(responseCode = "404", description = "Usuario não encontrada")
     })
     public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-                () -> new IllegalArgumentException("Usuario não encontrado"));
-
-        repository.deleteById(id);
+        if (repository.apagar(id) == 0) {
+            throw new ResponseStatusException(NOT_FOUND, "Não existe usuario com o id informado");
+        }
+        dependencias.evictar("usuarios", id);
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
+    @AlteraColecao("usuarios")
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "usuarios-paginas", allEntries = true)
+    })
     @Operation(summary = "Atualizar um usuario", description = "Atualiza os dados de um usuario específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuario atualizado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Usuario não encontrada")
+            @ApiResponse(responseCode = "404", description = "Usuario não encontrada"),
+            @ApiResponse(responseCode = "409", description = "O registro foi alterado por outra requisição depois da versão enviada, ou o email ou cpf já pertence a outro usuario"),
+            @ApiResponse(responseCode = "412", description = "O If-Match informado não corresponde à versão atual"),
+            @ApiResponse(responseCode = "428", description = "Nem If-Match nem a versao do corpo foram informados")
     })
-    public Usuario update(@PathVariable Long id, @RequestBody Usuario usuario) {
+    public Usuario update(
+            @PathVariable Long id,
+            @RequestBody @Valid Usuario usuario,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Atualizar usuario {} para {}", id, usuario);
 
-        verificarSeUsuarioExiste(id);
+        // Sem verificação prévia: o índice único recusa email ou cpf de outro usuario
+        // no próprio UPDATE.
+        Long versao = PreCondicoes.versaoEsperada(ifMatch, usuario.getVersao());
+        int atualizados;
+        try {
+            atualizados = repository.atualizar(id, versao, usuario.getEmail(), usuario.getTelefone(), usuario.getCpf(), usuario.getSenha());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(CONFLICT, DUPLICADO, e);
+        }
+        if (atualizados == 0) {
+            throw PreCondicoes.naoAtualizado(repository.existsById(id), ifMatch, "Não existe usuario com o id informado");
+        }
+        unicidade.registrar(usuario);
+        dependencias.evictar("usuarios", id);
         usuario.setId(id);
-        return repository.save(usuario);
-    }
-
-    private void verificarSeUsuarioExiste(Long id) {
-        repository
-                .findById(id)
-                .orElseThrow(() -> new ResponseStatusException(
-                        NOT_FOUND,
-                        "Não existe usuario com o id informado"));
+        usuario.setVersao(PreCondicoes.versaoGravada(versao));
+        return usuario;
     }
 }
@@ -1,27 +1,36 @@
 package br.com.fiap.bluehope.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.model.ValidacaoDesafioResumo;
+import br.com.fiap.bluehope.pontuacao.PontuacaoService;
 import br.com.fiap.bluehope.repository.ValidacaoDesafioRepository;
+import br.com.fiap.bluehope.versionamento.AlteraColecao;
+import br.com.fiap.bluehope.versionamento.EtagColecao;
+import br.com.fiap.bluehope.versionamento.PreCondicoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -34,17 +43,25 @@ public class ValidacaoDesafioController {
     @Autowired
     ValidacaoDesafioRepository repository;
 
+    @Autowired
+    PontuacaoService pontuacao;
+
     @GetMapping
-    @Cacheable
-    @Operation(summary = "Listar todas as validações de desafios", description = "Retorna um array com todas as validações de desafios no formato objeto")
-    public List<EntityModel<ValidacaoDesafio>> index() {
-        var validacaodesafios = repository.findAll();
-        return validacaodesafios.stream()
-                .map(ValidacaoDesafio::toModel)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    @EtagColecao("validacaodesafios")
+    @Cacheable(cacheNames = "validacaodesafios-paginas", sync = true)
+    @Operation(summary = "Listar validações de desafios", description = "Retorna uma página de validações de desafios ordenadas pelo id, a partir do cursor informado")
+    public CollectionModel<EntityModel<ValidacaoDesafioResumo>> index(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = PaginaCursor.LIMITE_PADRAO) Integer limit) {
+        var validacaodesafios = repository.findResumosByIdGreaterThan(PaginaCursor.inicio(after), PaginaCursor.limite(limit));
+        return PaginaCursor.of(validacaodesafios, after, limit, ValidacaoDesafioResumo::id, ValidacaoDesafioResumo::toModel,
+                cursor -> linkTo(methodOn(ValidacaoDesafioController.class).index(cursor, limit)));
     }
 
     @GetMapping("{id}")
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#id")
     @Operation(summary = "Obter detalhes de uma validação de desafio", description = "Retorna os detalhes de uma validação de desafio específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Validação de desafio encontrada com sucesso"),
@@ -53,15 +70,16 @@ public class ValidacaoDesafioController {
     public EntityModel<ValidacaoDesafio> show(@PathVariable Long id) {
         log.info("Buscando Validação de Desafio com id {}", id);
 
-        var validacaodesafio = repository.findById(id).orElseThrow(
+        var validacaodesafio = repository.findDetalheById(id).orElseThrow(
                 () -> new IllegalArgumentException("Validação de desafio não encontrada"));
 
         return validacaodesafio.toEntityModel();
     }
 
     @PostMapping
+    @AlteraColecao("validacaodesafios")
     @ResponseStatus(CREATED)
-    @CacheEvict(allEntries = true)
+    @CacheEvict(cacheNames = "validacaodesafios-paginas", allEntries = true)
     @Operation(summary = "Cadastrar validação de desafio", description = "Cria uma nova validação de desafio com os dados enviados no corpo da requisição.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Validação de desafio cadastrada com sucesso"),
@@ -69,46 +87,58 @@ public class ValidacaoDesafioController {
     })
     public ValidacaoDesafio create(@RequestBody ValidacaoDesafio validacaodesafio) {
         log.info("Cadastrando validação de desafio {}", validacaodesafio);
-        return repository.save(validacaodesafio);
+        var salva = repository.save(validacaodesafio);
+        pontuacao.registrar(salva.getId());
+        return salva;
     }
 
     @DeleteMapping("{id}")
+    @AlteraColecao("validacaodesafios")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "validacaodesafios-paginas", allEntries = true)
+    })
     @Operation(summary = "Deletar uma validação de desafio", description = "Remove uma validação de desafio específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Validação de desafio deletada com sucesso"),
             @ApiResponse(responseCode = "404", description = "Validação de desafio não encontrada")
     })
     public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-                () -> new IllegalArgumentException("Validação de desafio não encontrada"));
-
-        repository.deleteById(id);
+        if (!pontuacao.apagar(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Não existe validação de desafio com o id informado");
+        }
 
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
+    @AlteraColecao("validacaodesafios")
+    @Caching(evict = {
+            @CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = "validacaodesafios-paginas", allEntries = true)
+    })
     @Operation(summary = "Atualizar uma validação de desafio", description = "Atualiza os dados de uma validação de desafio específica pelo seu ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Validação de desafio atualizada com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Validação de desafio não encontrada")
+            @ApiResponse(responseCode = "404", description = "Validação de desafio não encontrada"),
+            @ApiResponse(responseCode = "409", description = "O registro foi alterado por outra requisição depois da versão enviada"),
+            @ApiResponse(responseCode = "412", description = "O If-Match informado não corresponde à versão atual"),
+            @ApiResponse(responseCode = "428", description = "Nem If-Match nem a versao do corpo foram informados")
     })
-    public ValidacaoDesafio update(@PathVariable Long id, @RequestBody ValidacaoDesafio validacaodesafio) {
+    public ValidacaoDesafio update(
+            @PathVariable Long id,
+            @RequestBody @Valid ValidacaoDesafio validacaodesafio,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Atualizar validação de desafio {} para {}", id, validacaodesafio);
 
-        verificarSeValidacaoDesafioExiste(id);
+        Long versao = PreCondicoes.versaoEsperada(ifMatch, validacaodesafio.getVersao());
+        if (repository.atualizar(id, versao, validacaodesafio.getValido(), validacaodesafio.getDesafio()) == 0) {
+            throw PreCondicoes.naoAtualizado(repository.existsById(id), ifMatch, "Não existe validação de desafio com o id informado");
+        }
         validacaodesafio.setId(id);
-        return repository.save(validacaodesafio);
-    }
-
-    private void verificarSeValidacaoDesafioExiste(Long id) {
-        repository
-                .findById(id)
-                .orElseThrow(() -> new ResponseStatusException(
-                        NOT_FOUND,
-                        "Não existe validação de desafio com o id informado"));
+        validacaodesafio.setVersao(PreCondicoes.versaoGravada(versao));
+        pontuacao.registrar(id);
+        return validacaodesafio;
     }
 }
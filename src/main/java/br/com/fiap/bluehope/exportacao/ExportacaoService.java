@@ -0,0 +1,109 @@
+package br.com.fiap.bluehope.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import br.com.fiap.bluehope.repository.ValidacaoDesafioRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exporta todas as linhas de uma entidade como NDJSON, lendo do banco por
+ * stream e limpando o contexto de persistência a cada lote, de modo que o uso
+ * de memória não depende do tamanho da tabela.
+ */
+@Service
+@Slf4j
+public class ExportacaoService {
+
+    @Autowired
+    FotoRepository fotoRepository;
+
+    @Autowired
+    DesafioRepository desafioRepository;
+
+    @Autowired
+    ValidacaoDesafioRepository validacaoDesafioRepository;
+
+    @Autowired
+    PerfilRepository perfilRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${bluehope.exportacao.lote:1000}")
+    int lote;
+
+    public Set<String> entidades() {
+        return consultas().keySet();
+    }
+
+    public long exportar(String entidade, OutputStream saida) {
+        var consulta = consultas().get(entidade);
+        if (consulta == null) {
+            throw new IllegalArgumentException("Entidade não exportável: " + entidade);
+        }
+        var transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        long linhas = transacao.execute(status -> {
+            try (Stream<?> stream = consulta.get()) {
+                return escrever(stream, saida);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exportadas {} linhas de {}", linhas, entidade);
+        return linhas;
+    }
+
+    private long escrever(Stream<?> stream, OutputStream saida) throws IOException {
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long linhas = 0;
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.setRootValueSeparator(null);
+            var iterador = stream.iterator();
+            while (iterador.hasNext()) {
+                escritor.writeValue(gerador, iterador.next());
+                gerador.writeRaw('\n');
+                if (++linhas % lote == 0) {
+                    gerador.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        return linhas;
+    }
+
+    private Map<String, Supplier<Stream<?>>> consultas() {
+        return Map.of(
+                "foto", fotoRepository::streamAllByOrderById,
+                "desafio", desafioRepository::streamAllByOrderById,
+                "validacaodesafio", validacaoDesafioRepository::streamAllByOrderById,
+                "perfil", perfilRepository::streamAllByOrderById);
+    }
+}
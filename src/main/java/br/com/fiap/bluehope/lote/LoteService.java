@@ -0,0 +1,82 @@
+package br.com.fiap.bluehope.lote;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.fiap.bluehope.validation.LoteInvalidoException;
+import br.com.fiap.bluehope.validation.ValidationErrorHandler.ItemValidationError;
+import br.com.fiap.bluehope.validation.ValidationErrorHandler.ValidationError;
+import br.com.fiap.bluehope.versionamento.Versionado;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Insere listas de entidades numa única transação. Os inserts saem em lotes
+ * JDBC ({@code hibernate.jdbc.batch_size}) e os ids vêm do otimizador pooled
+ * das sequences, então não há uma ida ao banco por linha.
+ */
+@Service
+@Slf4j
+public class LoteService {
+
+    private static final String CAMPO_GERADO = "deve ser nulo ao cadastrar";
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int tamanhoLote;
+
+    /**
+     * Valida cada item e recusa os que trazem {@code id} ou {@code versao}: o
+     * {@code persist} de uma entidade com id lança
+     * {@code PersistentObjectException} e derrubaria o lote inteiro com 500.
+     */
+    public <T extends Versionado> void validar(List<T> itens, Function<T, Long> id) {
+        List<ItemValidationError> erros = new ArrayList<>();
+        for (int i = 0; i < itens.size(); i++) {
+            T item = itens.get(i);
+            List<ValidationError> errosItem = new ArrayList<>();
+            if (id.apply(item) != null) {
+                errosItem.add(new ValidationError("id", CAMPO_GERADO));
+            }
+            if (item.getVersao() != null) {
+                errosItem.add(new ValidationError("versao", CAMPO_GERADO));
+            }
+            validator.validate(item).stream().map(ValidationError::new).forEach(errosItem::add);
+            if (!errosItem.isEmpty()) {
+                erros.add(new ItemValidationError(i, errosItem));
+            }
+        }
+        if (!erros.isEmpty()) {
+            throw new LoteInvalidoException(erros);
+        }
+    }
+
+    @Transactional
+    public <T extends Versionado> ResultadoLote inserir(List<T> itens, Function<T, Long> id) {
+        validar(itens, id);
+        List<Long> ids = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            T item = itens.get(i);
+            entityManager.persist(item);
+            ids.add(id.apply(item));
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        log.info("Inseridos {} registros em lote", ids.size());
+        return new ResultadoLote(ids.size(), ids);
+    }
+}
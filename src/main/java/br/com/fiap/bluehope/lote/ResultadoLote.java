@@ -0,0 +1,6 @@
+package br.com.fiap.bluehope.lote;
+
+import java.util.List;
+
+public record ResultadoLote(int inseridos, List<Long> ids) {
+}
@@ -0,0 +1,125 @@
+package br.com.fiap.bluehope.metricas;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@code /actuator/desempenho}: estatísticas do Hibernate, as consultas que
+ * mais tomaram tempo e, por operação de controller, o tempo médio gasto no
+ * banco, nos links, no restante da montagem da resposta e na serialização. Um DELETE zera as
+ * estatísticas do Hibernate.
+ */
+@Component
+@Endpoint(id = "desempenho")
+public class DesempenhoEndpoint {
+
+    private static final int CONSULTAS = 10;
+
+    private final Statistics estatisticas;
+    private final MeterRegistry registry;
+
+    public DesempenhoEndpoint(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        this.estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.registry = registry;
+    }
+
+    public record Hibernate(
+            boolean habilitadas,
+            long consultas,
+            long comandosPreparados,
+            long entidadesCarregadas,
+            long entidadesBuscadas,
+            long entidadesInseridas,
+            long entidadesAtualizadas,
+            long entidadesRemovidas,
+            long transacoes,
+            long cacheSegundoNivelAcertos,
+            long cacheSegundoNivelFalhas,
+            long cacheConsultasAcertos,
+            long cacheConsultasFalhas) {
+    }
+
+    public record Consulta(String consulta, long execucoes, long linhas, long mediaMs, long maximoMs, long totalMs) {
+    }
+
+    public record Camadas(String entidade, String operacao, long requisicoes, double bancoMs, double linksMs,
+            double montagemMs, double serializacaoMs) {
+    }
+
+    public record Desempenho(Hibernate hibernate, List<Consulta> consultasMaisDemoradas, List<Camadas> camadas) {
+    }
+
+    @ReadOperation
+    public Desempenho desempenho() {
+        return new Desempenho(hibernate(), consultasMaisDemoradas(), camadas());
+    }
+
+    @DeleteOperation
+    public void zerar() {
+        estatisticas.clear();
+    }
+
+    private Hibernate hibernate() {
+        return new Hibernate(
+                estatisticas.isStatisticsEnabled(),
+                estatisticas.getQueryExecutionCount(),
+                estatisticas.getPrepareStatementCount(),
+                estatisticas.getEntityLoadCount(),
+                estatisticas.getEntityFetchCount(),
+                estatisticas.getEntityInsertCount(),
+                estatisticas.getEntityUpdateCount(),
+                estatisticas.getEntityDeleteCount(),
+                estatisticas.getTransactionCount(),
+                estatisticas.getSecondLevelCacheHitCount(),
+                estatisticas.getSecondLevelCacheMissCount(),
+                estatisticas.getQueryCacheHitCount(),
+                estatisticas.getQueryCacheMissCount());
+    }
+
+    private List<Consulta> consultasMaisDemoradas() {
+        return Arrays.stream(estatisticas.getQueries())
+                .map(consulta -> {
+                    var dados = estatisticas.getQueryStatistics(consulta);
+                    long execucoes = dados.getExecutionCount();
+                    long media = dados.getExecutionAvgTime();
+                    return new Consulta(consulta, execucoes, dados.getExecutionRowCount(), media,
+                            dados.getExecutionMaxTime(), media * execucoes);
+                })
+                .sorted(Comparator.comparingLong(Consulta::totalMs).reversed())
+                .limit(CONSULTAS)
+                .toList();
+    }
+
+    private List<Camadas> camadas() {
+        return registry.find("bluehope.requisicao.montagem").timers().stream()
+                .map(montagem -> {
+                    String entidade = montagem.getId().getTag("entidade");
+                    String operacao = montagem.getId().getTag("operacao");
+                    return new Camadas(entidade, operacao, montagem.count(),
+                            media("bluehope.requisicao.banco", entidade, operacao),
+                            media("bluehope.requisicao.links", entidade, operacao),
+                            montagem.mean(TimeUnit.MILLISECONDS),
+                            media("bluehope.requisicao.serializacao", entidade, operacao));
+                })
+                .sorted(Comparator.comparing(Camadas::entidade).thenComparing(Camadas::operacao))
+                .toList();
+    }
+
+    private double media(String nome, String entidade, String operacao) {
+        Timer timer = registry.find(nome).tag("entidade", entidade).tag("operacao", operacao).timer();
+        return timer != null ? timer.mean(TimeUnit.MILLISECONDS) : 0;
+    }
+}
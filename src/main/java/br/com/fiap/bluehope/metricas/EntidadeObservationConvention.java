@@ -0,0 +1,26 @@
+package br.com.fiap.bluehope.metricas;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValues;
+
+/**
+ * Acrescenta a tag {@code entidade} ao {@code http.server.requests}, a partir
+ * do controller que atendeu a requisição.
+ */
+@Component
+public class EntidadeObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        String entidade = "nenhuma";
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod metodo) {
+            entidade = NomeEntidade.doController(metodo.getBeanType());
+        }
+        return super.getLowCardinalityKeyValues(context).and("entidade", entidade);
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.bluehope.metricas;
+
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Acrescenta a tag {@code entidade} ao {@code spring.data.repository.invocations}.
+ */
+@Component
+public class EntidadeRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation))
+                .and("entidade", NomeEntidade.doRepositorio(invocation.getRepositoryInterface()));
+    }
+}
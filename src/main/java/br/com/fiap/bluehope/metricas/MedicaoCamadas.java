@@ -0,0 +1,148 @@
+package br.com.fiap.bluehope.metricas;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Divide o tempo de cada requisição atendida por um controller em quatro
+ * timers, com as tags {@code entidade} e {@code operacao} (o método do
+ * controller):
+ * <ul>
+ * <li>{@code bluehope.requisicao.banco}: soma das chamadas a repositórios;</li>
+ * <li>{@code bluehope.requisicao.links}: soma dos links montados pelo
+ * {@link LinksRecurso} antes da serialização;</li>
+ * <li>{@code bluehope.requisicao.montagem}: o restante até o corpo ficar
+ * pronto (leitura do corpo da requisição, regras, cache e os links de
+ * paginação);</li>
+ * <li>{@code bluehope.requisicao.serializacao}: escrita do corpo da resposta.</li>
+ * </ul>
+ * Requisições assíncronas, como a exportação, não entram.
+ */
+@RestControllerAdvice
+public class MedicaoCamadas implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object>, RepositoryMethodInvocationListener {
+
+    private static final String ATRIBUTO = MedicaoCamadas.class.getName();
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public MedicaoCamadas(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private static final class Tempos {
+        final long inicio = System.nanoTime();
+        long banco;
+        long links;
+        long inicioSerializacao;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST && handler instanceof HandlerMethod) {
+            request.setAttribute(ATRIBUTO, new Tempos());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        var atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null && atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) instanceof Tempos tempos) {
+            tempos.banco += invocation.getDuration(TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Soma o tempo desde {@code inicio} aos links da requisição atual.
+     * Chamado pelo {@link LinksRecurso}.
+     */
+    public static void registrarLinks(long inicio) {
+        long duracao = System.nanoTime() - inicio;
+        var atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null && atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) instanceof Tempos tempos
+                && tempos.inicioSerializacao == 0) {
+            tempos.links += duracao;
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ATRIBUTO) instanceof Tempos tempos) {
+            tempos.inicioSerializacao = System.nanoTime();
+        }
+        return body;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(ATRIBUTO);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(ATRIBUTO) instanceof Tempos tempos) || !(handler instanceof HandlerMethod metodo)) {
+            return;
+        }
+        request.removeAttribute(ATRIBUTO);
+        long fim = System.nanoTime();
+        long ateOCorpo = (tempos.inicioSerializacao != 0 ? tempos.inicioSerializacao : fim) - tempos.inicio;
+        Timer[] camadas = timers.computeIfAbsent(metodo.getMethod(), m -> registrar(metodo));
+
+        camadas[0].record(tempos.banco, TimeUnit.NANOSECONDS);
+        camadas[1].record(Math.max(0, ateOCorpo - tempos.banco - tempos.links), TimeUnit.NANOSECONDS);
+        if (tempos.inicioSerializacao != 0) {
+            camadas[2].record(fim - tempos.inicioSerializacao, TimeUnit.NANOSECONDS);
+        }
+        camadas[3].record(tempos.links, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] registrar(HandlerMethod metodo) {
+        String entidade = NomeEntidade.doController(metodo.getBeanType());
+        String operacao = metodo.getMethod().getName();
+        return new Timer[] {
+                timer("bluehope.requisicao.banco", entidade, operacao),
+                timer("bluehope.requisicao.montagem", entidade, operacao),
+                timer("bluehope.requisicao.serializacao", entidade, operacao),
+                timer("bluehope.requisicao.links", entidade, operacao)
+        };
+    }
+
+    private Timer timer(String nome, String entidade, String operacao) {
+        return Timer.builder(nome)
+                .tag("entidade", entidade)
+                .tag("operacao", operacao)
+                .register(registry);
+    }
+}
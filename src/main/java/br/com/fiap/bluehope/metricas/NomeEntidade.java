@@ -0,0 +1,38 @@
+package br.com.fiap.bluehope.metricas;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.StringUtils;
+
+/**
+ * Valor da tag {@code entidade} das métricas: {@code FotoController} e
+ * {@code FotoRepository} viram {@code foto}.
+ */
+final class NomeEntidade {
+
+    private static final ClassValue<String> DO_CONTROLLER = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> controller) {
+            return StringUtils.uncapitalize(controller.getSimpleName().replace("Controller", ""));
+        }
+    };
+
+    private static final ClassValue<String> DO_REPOSITORIO = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> repositorio) {
+            Class<?>[] tipos = GenericTypeResolver.resolveTypeArguments(repositorio, Repository.class);
+            return tipos != null ? StringUtils.uncapitalize(tipos[0].getSimpleName()) : "desconhecida";
+        }
+    };
+
+    private NomeEntidade() {
+    }
+
+    static String doController(Class<?> controller) {
+        return DO_CONTROLLER.get(controller);
+    }
+
+    static String doRepositorio(Class<?> repositorio) {
+        return DO_REPOSITORIO.get(repositorio);
+    }
+}
@@ -1,29 +1,41 @@
 package br.com.fiap.bluehope.model;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 import org.springframework.hateoas.EntityModel;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import br.com.fiap.bluehope.controller.DesafioController;
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import br.com.fiap.bluehope.versionamento.Versionado;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Entity
-public class Desafio {
+public class Desafio implements Versionado {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(DesafioController.class);
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "desafio_seq")
+    @SequenceGenerator(name = "desafio_seq", sequenceName = "desafio_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank
     private String descricao;
 
@@ -33,19 +45,22 @@ public class Desafio {
     // TODO tipo desafio
     // private TipoDesafio tipo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonSerialize(using = ReferenciaLazySerializer.class)
+    @JsonDeserialize(using = ReferenciaLazyDeserializer.class)
+    @ToString.Exclude
     private Perfil perfil;
 
+    @Override
+    public String etag() {
+        return Versionado.etag(versao, perfil);
+    }
+
     public EntityModel<Desafio> toEntityModel() {
-        return EntityModel.of(
-                this,
-                linkTo(methodOn(DesafioController.class).show(id)).withSelfRel(),
-                linkTo(methodOn(DesafioController.class).destroy(id)).withRel("delete"),
-                linkTo(methodOn(DesafioController.class).index(null)).withRel("contents"));
+        return LINKS.entidade(this, id);
     }
 
     public EntityModel<Desafio> toModel() {
-        return EntityModel.of(this,
-                linkTo(methodOn(DesafioController.class).index(null)).withRel("contents"));
+        return LINKS.itemColecao(this);
     }
 }
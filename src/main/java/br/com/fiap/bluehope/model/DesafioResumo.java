@@ -0,0 +1,24 @@
+package br.com.fiap.bluehope.model;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import br.com.fiap.bluehope.controller.DesafioController;
+import br.com.fiap.bluehope.controller.LinksRecurso;
+
+/**
+ * Linha da listagem de desafios, lida por projeção: o perfil vem só pelo id.
+ */
+@Relation(collectionRelation = "desafioList")
+public record DesafioResumo(Long id, String descricao, int pontos, Referencia perfil) {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(DesafioController.class);
+
+    public DesafioResumo(Long id, String descricao, int pontos, Long perfilId) {
+        this(id, descricao, pontos, Referencia.de(perfilId));
+    }
+
+    public EntityModel<DesafioResumo> toEntityModel() {
+        return LINKS.entidade(this, id);
+    }
+}
@@ -1,46 +1,99 @@
 package br.com.fiap.bluehope.model;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 import org.springframework.hateoas.EntityModel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import br.com.fiap.bluehope.controller.FotoController;
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import br.com.fiap.bluehope.versionamento.Versionado;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Entity
-public class Foto {
+public class Foto implements Versionado {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(FotoController.class);
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "foto_seq")
+    @SequenceGenerator(name = "foto_seq", sequenceName = "foto_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotNull
     private String caminhoFoto;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonSerialize(using = ReferenciaLazySerializer.class)
+    @JsonDeserialize(using = ReferenciaLazyDeserializer.class)
+    @ToString.Exclude
     private Desafio desafio;
 
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String conteudo;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(insertable = false, updatable = false)
+    private String tipoConteudo;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(insertable = false, updatable = false)
+    private Long tamanhoConteudo;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Enumerated(EnumType.STRING)
+    @Column(insertable = false, updatable = false)
+    private StatusVariantes statusVariantes;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String varianteThumb;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String varianteMedium;
+
+    @Override
+    public String etag() {
+        return Versionado.etag(versao, desafio);
+    }
+
     public EntityModel<Foto> toEntityModel() {
-        return EntityModel.of(
-                this,
-                linkTo(methodOn(FotoController.class).show(id)).withSelfRel(),
-                linkTo(methodOn(FotoController.class).destroy(id)).withRel("delete"),
-                linkTo(methodOn(FotoController.class).index()).withRel("contents"));
+        var modelo = LINKS.entidade(this, id);
+        if (conteudo != null) {
+            modelo.add(LINKS.item(id, "conteudo", "conteudo"));
+        }
+        if (statusVariantes == StatusVariantes.PRONTA) {
+            modelo.add(LINKS.item(id, "conteudo?variant=thumb", "thumb"));
+            modelo.add(LINKS.item(id, "conteudo?variant=medium", "medium"));
+        }
+        return modelo;
     }
 
     public EntityModel<Foto> toModel() {
-        return EntityModel.of(this,
-                linkTo(methodOn(FotoController.class).index()).withRel("contents"));
+        return LINKS.itemColecao(this);
     }
 }
@@ -0,0 +1,31 @@
+package br.com.fiap.bluehope.model;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import br.com.fiap.bluehope.controller.FotoController;
+import br.com.fiap.bluehope.controller.LinksRecurso;
+
+/**
+ * Linha da listagem de fotos, lida por projeção: o desafio vem só pelo id.
+ */
+@Relation(collectionRelation = "fotoList")
+public record FotoResumo(
+        Long id,
+        String caminhoFoto,
+        Referencia desafio,
+        String tipoConteudo,
+        Long tamanhoConteudo,
+        StatusVariantes statusVariantes) {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(FotoController.class);
+
+    public FotoResumo(Long id, String caminhoFoto, Long desafioId, String tipoConteudo, Long tamanhoConteudo,
+            StatusVariantes statusVariantes) {
+        this(id, caminhoFoto, Referencia.de(desafioId), tipoConteudo, tamanhoConteudo, statusVariantes);
+    }
+
+    public EntityModel<FotoResumo> toModel() {
+        return LINKS.itemColecao(this);
+    }
+}
@@ -1,53 +1,70 @@
 package br.com.fiap.bluehope.model;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 import org.springframework.hateoas.EntityModel;
 
-import br.com.fiap.bluehope.validation.TipoMedalha;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+import br.com.fiap.bluehope.controller.LinksRecurso;
 import br.com.fiap.bluehope.controller.PerfilController;
+import br.com.fiap.bluehope.validation.TipoMedalha;
+import br.com.fiap.bluehope.versionamento.Versionado;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Entity
-public class Perfil {
+public class Perfil implements Versionado {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(PerfilController.class);
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "perfil_seq")
+    @SequenceGenerator(name = "perfil_seq", sequenceName = "perfil_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank
     private String nome;
 
+    /** Mantida pela pontuação das validações; o cliente não grava. */
     @PositiveOrZero
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private int somaPontos;
 
     @TipoMedalha
     private String medalha;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
+    @JsonSerialize(using = ReferenciaLazySerializer.class)
+    @JsonDeserialize(using = ReferenciaLazyDeserializer.class)
+    @ToString.Exclude
     private Usuario usuario;
 
+    @Override
+    public String etag() {
+        return Versionado.etag(versao, usuario);
+    }
+
     public EntityModel<Perfil> toEntityModel() {
-        return EntityModel.of(
-                this,
-                linkTo(methodOn(PerfilController.class).show(id)).withSelfRel(),
-                linkTo(methodOn(PerfilController.class).destroy(id)).withRel("delete"),
-                linkTo(methodOn(PerfilController.class).index()).withRel("contents"));
+        return LINKS.entidade(this, id);
     }
 
     public EntityModel<Perfil> toModel() {
-        return EntityModel.of(this,
-                linkTo(methodOn(PerfilController.class).index()).withRel("contents"));
+        return LINKS.itemColecao(this);
     }
 }
@@ -0,0 +1,24 @@
+package br.com.fiap.bluehope.model;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import br.com.fiap.bluehope.controller.PerfilController;
+
+/**
+ * Linha da listagem de perfis, lida por projeção: o usuário vem só pelo id.
+ */
+@Relation(collectionRelation = "perfilList")
+public record PerfilResumo(Long id, String nome, int somaPontos, String medalha, Referencia usuario) {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(PerfilController.class);
+
+    public PerfilResumo(Long id, String nome, int somaPontos, String medalha, Long usuarioId) {
+        this(id, nome, somaPontos, medalha, Referencia.de(usuarioId));
+    }
+
+    public EntityModel<PerfilResumo> toModel() {
+        return LINKS.itemColecao(this);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.bluehope.model;
+
+/**
+ * Referência a outra entidade apenas pelo id, no mesmo formato
+ * {@code {"id": ...}} aceito no corpo das requisições.
+ */
+public record Referencia(Long id) {
+
+    public static Referencia de(Long id) {
+        return id == null ? null : new Referencia(id);
+    }
+}
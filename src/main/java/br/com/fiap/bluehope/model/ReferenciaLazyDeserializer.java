@@ -0,0 +1,52 @@
+package br.com.fiap.bluehope.model;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Lê uma associação enviada no corpo como referência pelo id. As associações
+ * não propagam escrita, então só o {@code id} importa; devolver uma entidade
+ * destacada sem {@code versao} faria o Hibernate recusá-la ao gravar. Fora de
+ * um contexto JPA, cai na desserialização normal.
+ */
+public class ReferenciaLazyDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
+
+    @Autowired(required = false)
+    EntityManager entityManager;
+
+    private final Class<?> tipo;
+
+    public ReferenciaLazyDeserializer() {
+        this(null, Object.class);
+    }
+
+    private ReferenciaLazyDeserializer(EntityManager entityManager, Class<?> tipo) {
+        this.entityManager = entityManager;
+        this.tipo = tipo;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        return new ReferenciaLazyDeserializer(entityManager, property.getType().getRawClass());
+    }
+
+    @Override
+    public Object deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+        JsonNode no = ctxt.readTree(parser);
+        JsonNode id = no.get("id");
+        if (entityManager == null || id == null || !id.canConvertToLong()) {
+            return ctxt.readTreeAsValue(no, tipo);
+        }
+        return entityManager.getReference(tipo, id.asLong());
+    }
+}
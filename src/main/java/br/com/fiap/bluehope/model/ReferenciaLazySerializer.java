@@ -0,0 +1,30 @@
+package br.com.fiap.bluehope.model;
+
+import java.io.IOException;
+
+import org.hibernate.proxy.HibernateProxy;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Serializa uma associação {@code LAZY}. Se ela não foi carregada, escreve só
+ * {@code {"id": ...}} em vez de disparar um SELECT; se foi (por um entity
+ * graph), escreve a entidade inteira.
+ */
+public class ReferenciaLazySerializer extends JsonSerializer<Object> {
+
+    @Override
+    public void serialize(Object valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+        var lazy = HibernateProxy.extractLazyInitializer(valor);
+        if (lazy == null) {
+            provider.findValueSerializer(valor.getClass()).serialize(valor, gerador, provider);
+        } else if (lazy.isUninitialized()) {
+            gerador.writeObject(new Referencia((Long) lazy.getIdentifier()));
+        } else {
+            Object entidade = lazy.getImplementation();
+            provider.findValueSerializer(entidade.getClass()).serialize(entidade, gerador, provider);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.fiap.bluehope.model;
+
+public enum StatusVariantes {
+    PENDENTE,
+    PRONTA,
+    FALHOU
+}
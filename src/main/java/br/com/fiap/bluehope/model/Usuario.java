@@ -1,27 +1,43 @@
 package br.com.fiap.bluehope.model;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 import org.springframework.hateoas.EntityModel;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
 import br.com.fiap.bluehope.controller.UsuarioController;
+import br.com.fiap.bluehope.versionamento.Versionado;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Entity
-public class Usuario extends EntityModel<Usuario> {
-    
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usuario_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_usuario_cpf", columnNames = "cpf")
+})
+public class Usuario implements Versionado {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(UsuarioController.class);
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank
     @Email
     private String email;
@@ -33,18 +49,20 @@ public class Usuario extends EntityModel<Usuario> {
     private String cpf;
 
     @NotBlank
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
     private String senha;
 
+    @Override
+    public String etag() {
+        return Versionado.etag(versao, null);
+    }
+
     public EntityModel<Usuario> toEntityModel() {
-        return EntityModel.of(
-                this,
-                linkTo(methodOn(UsuarioController.class).show(id)).withSelfRel(),
-                linkTo(methodOn(UsuarioController.class).destroy(id)).withRel("delete"),
-                linkTo(methodOn(UsuarioController.class).index()).withRel("contents"));
+        return LINKS.entidade(this, id);
     }
 
     public EntityModel<Usuario> toModel() {
-        return EntityModel.of(this,
-                linkTo(methodOn(UsuarioController.class).index()).withRel("contents"));
+        return LINKS.itemColecao(this);
     }
 }
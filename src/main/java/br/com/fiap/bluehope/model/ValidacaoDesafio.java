@@ -1,44 +1,78 @@
 package br.com.fiap.bluehope.model;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 import org.springframework.hateoas.EntityModel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
 import br.com.fiap.bluehope.controller.ValidacaoDesafioController;
+import br.com.fiap.bluehope.versionamento.Versionado;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Entity
-public class ValidacaoDesafio {
+public class ValidacaoDesafio implements Versionado {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(ValidacaoDesafioController.class);
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "validacao_desafio_seq")
+    @SequenceGenerator(name = "validacao_desafio_seq", sequenceName = "validacao_desafio_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotNull
     private Boolean valido;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
+    @JsonSerialize(using = ReferenciaLazySerializer.class)
+    @JsonDeserialize(using = ReferenciaLazyDeserializer.class)
+    @ToString.Exclude
     private Desafio desafio;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(insertable = false, updatable = false)
+    private Boolean pontuada;
+
+    /**
+     * Perfil e pontos creditados quando a validação foi pontuada: o estorno
+     * debita o mesmo crédito, ainda que o desafio tenha mudado depois.
+     */
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long perfilPontuadoId;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Integer pontosPontuados;
+
+    @Override
+    public String etag() {
+        return Versionado.etag(versao, desafio);
+    }
+
     public EntityModel<ValidacaoDesafio> toEntityModel() {
-        return EntityModel.of(
-                this,
-                linkTo(methodOn(ValidacaoDesafioController.class).show(id)).withSelfRel(),
-                linkTo(methodOn(ValidacaoDesafioController.class).destroy(id)).withRel("delete"),
-                linkTo(methodOn(ValidacaoDesafioController.class).index()).withRel("contents"));
+        return LINKS.entidade(this, id);
     }
 
     public EntityModel<ValidacaoDesafio> toModel() {
-        return EntityModel.of(this,
-                linkTo(methodOn(ValidacaoDesafioController.class).index()).withRel("contents"));
+        return LINKS.itemColecao(this);
     }
 }
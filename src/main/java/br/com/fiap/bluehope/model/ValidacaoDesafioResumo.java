@@ -0,0 +1,24 @@
+package br.com.fiap.bluehope.model;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import br.com.fiap.bluehope.controller.ValidacaoDesafioController;
+
+/**
+ * Linha da listagem de validações, lida por projeção: o desafio vem só pelo id.
+ */
+@Relation(collectionRelation = "validacaoDesafioList")
+public record ValidacaoDesafioResumo(Long id, Boolean valido, Referencia desafio, Boolean pontuada) {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(ValidacaoDesafioController.class);
+
+    public ValidacaoDesafioResumo(Long id, Boolean valido, Long desafioId, Boolean pontuada) {
+        this(id, valido, Referencia.de(desafioId), pontuada);
+    }
+
+    public EntityModel<ValidacaoDesafioResumo> toModel() {
+        return LINKS.itemColecao(this);
+    }
+}
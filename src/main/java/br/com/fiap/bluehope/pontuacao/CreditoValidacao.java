@@ -0,0 +1,5 @@
+package br.com.fiap.bluehope.pontuacao;
+
+/** Crédito registrado numa validação pontuada. */
+public record CreditoValidacao(Long validacaoId, Long perfilId, int pontos) {
+}
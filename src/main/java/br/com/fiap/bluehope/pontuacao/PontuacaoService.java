@@ -0,0 +1,281 @@
+package br.com.fiap.bluehope.pontuacao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.fiap.bluehope.config.DependenciasCache;
+import br.com.fiap.bluehope.ranking.RankingService;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import br.com.fiap.bluehope.repository.ValidacaoDesafioRepository;
+import br.com.fiap.bluehope.versionamento.VersoesColecao;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Credita em {@code Perfil.somaPontos} os pontos dos desafios cujas validações
+ * foram aprovadas. As validações alteradas entram numa fila de ids e são
+ * conferidas periodicamente: numa única transação as linhas do lote são
+ * travadas, marcadas como pontuadas (ou desmarcadas) em comandos únicos e os
+ * perfis recebem um único incremento com a soma dos créditos. Se a aplicação parar antes, a validação continua com a
+ * pontuação pendente no banco e volta à fila na próxima subida. A validação
+ * guarda o perfil e os pontos creditados, que são os estornados.
+ */
+@Service
+@Slf4j
+public class PontuacaoService {
+
+    @Autowired
+    ValidacaoDesafioRepository validacaoRepository;
+
+    @Autowired
+    PerfilRepository perfilRepository;
+
+    @Autowired
+    RankingService ranking;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    VersoesColecao versoes;
+
+    @Autowired
+    DependenciasCache dependencias;
+
+    /** Limite de itens do {@code in} de um comando, como no Oracle. */
+    private static final int TAMANHO_LOTE = 1000;
+
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock ciclo = new ReentrantLock();
+
+    public void registrar(Long validacaoId) {
+        lock.readLock().lock();
+        try {
+            pendentes.add(validacaoId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apaga a validação e, na mesma transação, estorna os pontos que ela
+     * creditou. A linha é travada antes de o crédito ser lido, então um ciclo
+     * de pontuação em andamento termina antes ou encontra a linha apagada.
+     * Devolve {@code false} se ela não existia.
+     */
+    public boolean apagar(Long validacaoId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> estorno = new HashMap<>();
+            boolean apagada = transactionTemplate.execute(status -> {
+                if (validacaoRepository.bloquear(List.of(validacaoId)).isEmpty()) {
+                    return false;
+                }
+                var credito = validacaoRepository.findCreditoRegistrado(validacaoId);
+                if (validacaoRepository.apagar(validacaoId) == 0) {
+                    return false;
+                }
+                credito.filter(c -> c.perfilId() != null)
+                        .ifPresent(c -> estorno.put(c.perfilId(), -c.pontos()));
+                estorno.forEach(perfilRepository::somarPontos);
+                return true;
+            });
+            pendentes.remove(validacaoId);
+            if (!estorno.isEmpty()) {
+                estorno.forEach(ranking::somar);
+                limparCachePerfis(estorno.keySet());
+            }
+            return apagada;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Coloca no ranking a soma gravada do perfil. Ciclos e estornos seguram a
+     * trava de leitura do commit até o {@code ranking.somar}, então com a de
+     * escrita o valor lido já inclui tudo o que o ranking recebeu deles.
+     */
+    public void sincronizarRanking(Long perfilId) {
+        lock.writeLock().lock();
+        try {
+            perfilRepository.findSomaPontosById(perfilId).ifPresent(soma -> ranking.atualizar(perfilId, soma));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarPendentes() {
+        var ids = validacaoRepository.findIdsComPontuacaoPendente();
+        if (!ids.isEmpty()) {
+            log.info("{} validações com pontuação pendente voltaram para a fila", ids.size());
+            pendentes.addAll(ids);
+        }
+    }
+
+    /**
+     * Um ciclo por vez, para que uma chamada direta espere o ciclo agendado
+     * que porventura já tenha drenado a fila. A trava é um
+     * {@link ReentrantLock} e não {@code synchronized}: o ciclo espera o banco
+     * e, com threads virtuais, não deve prender a thread de plataforma.
+     */
+    @Scheduled(fixedDelayString = "${bluehope.pontuacao.intervalo-ms:500}")
+    public void aplicarPendentes() {
+        ciclo.lock();
+        try {
+            boolean aplicado = true;
+            while (aplicado && !pendentes.isEmpty()) {
+                aplicado = aplicarLote();
+            }
+        } finally {
+            ciclo.unlock();
+        }
+    }
+
+    private boolean aplicarLote() {
+        lock.readLock().lock();
+        try {
+            List<Long> lote = drenar();
+            List<Long> alteradas = new ArrayList<>();
+            Map<Long, Integer> deltas = new HashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> aplicar(lote, alteradas, deltas));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao aplicar a pontuação de {} validações, nova tentativa no próximo ciclo", lote.size(), e);
+                pendentes.addAll(lote);
+                return false;
+            }
+            if (!alteradas.isEmpty()) {
+                limparCacheValidacoes(alteradas);
+                deltas.forEach(ranking::somar);
+                limparCachePerfis(deltas.keySet());
+                log.info("Pontuação de {} validações aplicada em {} perfis", alteradas.size(), deltas.size());
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Com as linhas travadas, o estado lido não muda até o commit: as
+     * aprovadas são marcadas, os créditos das marcadas agora e das que vão
+     * ser estornadas são lidos numa só consulta, e só então as reprovadas são
+     * desmarcadas.
+     */
+    private void aplicar(List<Long> lote, List<Long> alteradas, Map<Long, Integer> deltas) {
+        List<Long> creditar = new ArrayList<>();
+        Set<Long> estornar = new HashSet<>();
+        for (var validacao : validacaoRepository.bloquear(lote)) {
+            boolean pontuada = Boolean.TRUE.equals(validacao.getPontuada());
+            if (Boolean.TRUE.equals(validacao.getValido()) && !pontuada) {
+                creditar.add(validacao.getId());
+            } else if (Boolean.FALSE.equals(validacao.getValido()) && pontuada) {
+                estornar.add(validacao.getId());
+            }
+        }
+        if (creditar.isEmpty() && estornar.isEmpty()) {
+            return;
+        }
+        if (!creditar.isEmpty()) {
+            validacaoRepository.marcarComoPontuadas(creditar);
+        }
+        List<Long> conferir = new ArrayList<>(creditar);
+        conferir.addAll(estornar);
+        for (var credito : validacaoRepository.findCreditosRegistrados(conferir)) {
+            alteradas.add(credito.validacaoId());
+            if (credito.perfilId() != null) {
+                int pontos = estornar.contains(credito.validacaoId()) ? -credito.pontos() : credito.pontos();
+                deltas.merge(credito.perfilId(), pontos, Integer::sum);
+            }
+        }
+        if (!estornar.isEmpty()) {
+            validacaoRepository.desmarcarPontuacoes(estornar);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        deltas.forEach(perfilRepository::somarPontos);
+    }
+
+    public RecalculoPontos recalcularTodos() {
+        lock.writeLock().lock();
+        try {
+            pendentes.clear();
+            int perfis = transactionTemplate.execute(status -> {
+                validacaoRepository.sincronizarPontuadas();
+                return perfilRepository.recalcularSomaPontos();
+            });
+            ranking.carregar();
+            limparCachePerfis(null);
+            versoes.incrementar("validacaodesafios");
+            log.info("Soma de pontos recalculada para {} perfis", perfis);
+            return new RecalculoPontos(perfis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> drenar() {
+        List<Long> lote = new ArrayList<>();
+        for (Long id : pendentes) {
+            if (lote.size() == TAMANHO_LOTE) {
+                break;
+            }
+            if (pendentes.remove(id)) {
+                lote.add(id);
+            }
+        }
+        return lote;
+    }
+
+    private void limparCacheValidacoes(Collection<Long> validacaoIds) {
+        Cache validacoes = cacheManager.getCache("validacaodesafios");
+        if (validacoes != null) {
+            validacaoIds.forEach(validacoes::evict);
+        }
+        Cache paginas = cacheManager.getCache("validacaodesafios-paginas");
+        if (paginas != null) {
+            paginas.clear();
+        }
+        versoes.incrementar("validacaodesafios");
+    }
+
+    private void limparCachePerfis(Collection<Long> perfilIds) {
+        Cache perfis = cacheManager.getCache("perfis");
+        if (perfis != null) {
+            if (perfilIds == null) {
+                perfis.clear();
+            } else {
+                perfilIds.forEach(perfis::evict);
+            }
+        }
+        Cache paginas = cacheManager.getCache("perfis-paginas");
+        if (paginas != null) {
+            paginas.clear();
+        }
+        dependencias.evictar("perfis", perfilIds);
+        versoes.incrementar("perfis");
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.fiap.bluehope.pontuacao;
+
+public record RecalculoPontos(int perfisAtualizados) {
+}
@@ -0,0 +1,196 @@
+package br.com.fiap.bluehope.ranking;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Árvore de estatística de ordem (treap) ordenada por pontuação decrescente e
+ * id crescente. Cada nó guarda o tamanho da sua subárvore, o que permite
+ * calcular a posição de um perfil e listar os primeiros em O(log n).
+ *
+ * Não é thread-safe; o acesso concorrente é controlado pelo {@link RankingService}.
+ */
+public class ArvoreRanking {
+
+    private static final class No {
+        final long id;
+        final int pontos;
+        final int prioridade;
+        No esquerda;
+        No direita;
+        int tamanho = 1;
+
+        No(long id, int pontos, int prioridade) {
+            this.id = id;
+            this.pontos = pontos;
+            this.prioridade = prioridade;
+        }
+    }
+
+    private final Map<Long, Integer> pontosPorId = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private No raiz;
+
+    public void definir(long id, int pontos) {
+        Integer atual = pontosPorId.put(id, pontos);
+        if (atual != null) {
+            if (atual == pontos) {
+                return;
+            }
+            raiz = remover(raiz, atual, id);
+        }
+        raiz = inserir(raiz, new No(id, pontos, random.nextInt()));
+    }
+
+    public boolean remover(long id) {
+        Integer atual = pontosPorId.remove(id);
+        if (atual == null) {
+            return false;
+        }
+        raiz = remover(raiz, atual, id);
+        return true;
+    }
+
+    public void limpar() {
+        pontosPorId.clear();
+        raiz = null;
+    }
+
+    public int tamanho() {
+        return tamanho(raiz);
+    }
+
+    public Integer pontos(long id) {
+        return pontosPorId.get(id);
+    }
+
+    /**
+     * Posição (começando em 1) do perfil no ranking, ou -1 se ele não estiver na árvore.
+     */
+    public long posicao(long id) {
+        Integer pontos = pontosPorId.get(id);
+        if (pontos == null) {
+            return -1;
+        }
+        long posicao = 1;
+        No no = raiz;
+        while (no != null) {
+            int c = comparar(pontos, id, no.pontos, no.id);
+            if (c < 0) {
+                no = no.esquerda;
+            } else if (c > 0) {
+                posicao += tamanho(no.esquerda) + 1;
+                no = no.direita;
+            } else {
+                return posicao + tamanho(no.esquerda);
+            }
+        }
+        return -1;
+    }
+
+    public List<PosicaoRanking> primeiros(int quantidade) {
+        List<PosicaoRanking> resultado = new ArrayList<>(Math.min(quantidade, tamanho()));
+        Deque<No> pilha = new ArrayDeque<>();
+        No no = raiz;
+        while ((no != null || !pilha.isEmpty()) && resultado.size() < quantidade) {
+            while (no != null) {
+                pilha.push(no);
+                no = no.esquerda;
+            }
+            no = pilha.pop();
+            resultado.add(new PosicaoRanking(resultado.size() + 1, no.id, no.pontos));
+            no = no.direita;
+        }
+        return resultado;
+    }
+
+    static int comparar(int pontosA, long idA, int pontosB, long idB) {
+        int c = Integer.compare(pontosB, pontosA);
+        return c != 0 ? c : Long.compare(idA, idB);
+    }
+
+    private static int tamanho(No no) {
+        return no == null ? 0 : no.tamanho;
+    }
+
+    private static void atualizar(No no) {
+        no.tamanho = 1 + tamanho(no.esquerda) + tamanho(no.direita);
+    }
+
+    private static No inserir(No no, No novo) {
+        if (no == null) {
+            return novo;
+        }
+        if (novo.prioridade > no.prioridade) {
+            No[] partes = dividir(no, novo.pontos, novo.id);
+            novo.esquerda = partes[0];
+            novo.direita = partes[1];
+            atualizar(novo);
+            return novo;
+        }
+        if (comparar(novo.pontos, novo.id, no.pontos, no.id) < 0) {
+            no.esquerda = inserir(no.esquerda, novo);
+        } else {
+            no.direita = inserir(no.direita, novo);
+        }
+        atualizar(no);
+        return no;
+    }
+
+    private static No remover(No no, int pontos, long id) {
+        if (no == null) {
+            return null;
+        }
+        int c = comparar(pontos, id, no.pontos, no.id);
+        if (c == 0) {
+            return juntar(no.esquerda, no.direita);
+        }
+        if (c < 0) {
+            no.esquerda = remover(no.esquerda, pontos, id);
+        } else {
+            no.direita = remover(no.direita, pontos, id);
+        }
+        atualizar(no);
+        return no;
+    }
+
+    private static No[] dividir(No no, int pontos, long id) {
+        if (no == null) {
+            return new No[] { null, null };
+        }
+        if (comparar(no.pontos, no.id, pontos, id) < 0) {
+            No[] partes = dividir(no.direita, pontos, id);
+            no.direita = partes[0];
+            atualizar(no);
+            partes[0] = no;
+            return partes;
+        }
+        No[] partes = dividir(no.esquerda, pontos, id);
+        no.esquerda = partes[1];
+        atualizar(no);
+        partes[1] = no;
+        return partes;
+    }
+
+    private static No juntar(No esquerda, No direita) {
+        if (esquerda == null) {
+            return direita;
+        }
+        if (direita == null) {
+            return esquerda;
+        }
+        if (esquerda.prioridade > direita.prioridade) {
+            esquerda.direita = juntar(esquerda.direita, direita);
+            atualizar(esquerda);
+            return esquerda;
+        }
+        direita.esquerda = juntar(esquerda, direita.esquerda);
+        atualizar(direita);
+        return direita;
+    }
+}
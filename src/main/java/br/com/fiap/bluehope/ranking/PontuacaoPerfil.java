@@ -0,0 +1,4 @@
+package br.com.fiap.bluehope.ranking;
+
+public record PontuacaoPerfil(Long id, int somaPontos) {
+}
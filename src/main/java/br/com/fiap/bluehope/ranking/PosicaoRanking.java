@@ -0,0 +1,19 @@
+package br.com.fiap.bluehope.ranking;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+
+import br.com.fiap.bluehope.controller.LinksRecurso;
+import br.com.fiap.bluehope.controller.PerfilController;
+
+public record PosicaoRanking(long posicao, Long perfilId, int somaPontos) {
+
+    private static final LinksRecurso LINKS = LinksRecurso.de(PerfilController.class);
+
+    public EntityModel<PosicaoRanking> toEntityModel() {
+        return EntityModel.of(
+                this,
+                LINKS.item(perfilId, "rank", IanaLinkRelations.SELF.value()),
+                LINKS.item(perfilId, "perfil"));
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.fiap.bluehope.ranking;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class RankingService {
+
+    @Autowired
+    PerfilRepository repository;
+
+    private final ArvoreRanking arvore = new ArvoreRanking();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void carregar() {
+        var pontuacoes = repository.findAllPontuacoes();
+        lock.writeLock().lock();
+        try {
+            arvore.limpar();
+            pontuacoes.forEach(p -> arvore.definir(p.id(), p.somaPontos()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Ranking carregado com {} perfis", pontuacoes.size());
+    }
+
+    public void atualizar(Long perfilId, int somaPontos) {
+        lock.writeLock().lock();
+        try {
+            arvore.definir(perfilId, somaPontos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void somar(Long perfilId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer atual = arvore.pontos(perfilId);
+            if (atual != null) {
+                arvore.definir(perfilId, atual + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long perfilId) {
+        lock.writeLock().lock();
+        try {
+            arvore.remover(perfilId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<PosicaoRanking> primeiros(int quantidade) {
+        lock.readLock().lock();
+        try {
+            return arvore.primeiros(quantidade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<PosicaoRanking> posicao(Long perfilId) {
+        lock.readLock().lock();
+        try {
+            long posicao = arvore.posicao(perfilId);
+            if (posicao < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new PosicaoRanking(posicao, perfilId, arvore.pontos(perfilId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -1,8 +1,59 @@
 package br.com.fiap.bluehope.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.fiap.bluehope.busca.DescricaoDesafio;
 import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.DesafioResumo;
+import br.com.fiap.bluehope.model.Perfil;
+import jakarta.persistence.QueryHint;
 
 public interface DesafioRepository extends JpaRepository<Desafio, Long> {
+
+    @Query(value = "select new br.com.fiap.bluehope.model.DesafioResumo(d.id, d.descricao, d.pontos, d.perfil.id) from Desafio d",
+            countQuery = "select count(d) from Desafio d")
+    Page<DesafioResumo> findResumos(Pageable pageable);
+
+    @Query("select new br.com.fiap.bluehope.model.DesafioResumo(d.id, d.descricao, d.pontos, d.perfil.id) from Desafio d where d.id in :ids order by d.id")
+    List<DesafioResumo> findResumosByIdIn(Collection<Long> ids);
+
+    @Query("select new br.com.fiap.bluehope.busca.DescricaoDesafio(d.id, d.descricao) from Desafio d")
+    List<DescricaoDesafio> findAllDescricoes();
+
+    @Query("select d from Desafio d left join fetch d.perfil where d.id = :id")
+    Optional<Desafio> findDetalheById(Long id);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Desafio> streamAllByOrderById();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Desafio d set d.descricao = :descricao, d.pontos = :pontos, d.perfil = :perfil,
+                d.versao = d.versao + 1
+            where d.id = :id and d.versao = :versao
+            """)
+    int atualizar(Long id, Long versao, String descricao, int pontos, Perfil perfil);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Desafio d where d.id = :id")
+    int apagar(Long id);
 }
@@ -1,8 +1,92 @@
 package br.com.fiap.bluehope.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.armazenamento.ChavesFoto;
 import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.FotoResumo;
+import br.com.fiap.bluehope.model.StatusVariantes;
+import jakarta.persistence.QueryHint;
 
 public interface FotoRepository extends JpaRepository<Foto, Long> {
+
+    @Query("""
+            select new br.com.fiap.bluehope.model.FotoResumo(
+                f.id, f.caminhoFoto, f.desafio.id, f.tipoConteudo, f.tamanhoConteudo, f.statusVariantes)
+            from Foto f where f.id > :id order by f.id
+            """)
+    List<FotoResumo> findResumosByIdGreaterThan(Long id, Limit limit);
+
+    @Query("select f from Foto f left join fetch f.desafio where f.id = :id")
+    Optional<Foto> findDetalheById(Long id);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Foto> streamAllByOrderById();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Foto f set f.conteudo = :conteudo, f.tipoConteudo = :tipo, f.tamanhoConteudo = :tamanho,
+                f.statusVariantes = br.com.fiap.bluehope.model.StatusVariantes.PENDENTE,
+                f.varianteThumb = null, f.varianteMedium = null, f.versao = f.versao + 1
+            where f.id = :id and f.versao = :versao
+            """)
+    int definirConteudo(Long id, Long versao, String conteudo, String tipo, long tamanho);
+
+    @Query("""
+            select new br.com.fiap.bluehope.armazenamento.ChavesFoto(f.versao, f.conteudo, f.varianteThumb, f.varianteMedium)
+            from Foto f where f.id = :id
+            """)
+    Optional<ChavesFoto> findChavesById(Long id);
+
+    List<Foto> findByStatusVariantes(StatusVariantes status);
+
+    Optional<Foto> findFirstByConteudoAndStatusVariantes(String conteudo, StatusVariantes status);
+
+    @Query("select count(f) from Foto f where f.conteudo = :chave or f.varianteThumb = :chave or f.varianteMedium = :chave")
+    long contarReferencias(String chave);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Foto f set f.statusVariantes = :status, f.varianteThumb = :thumb, f.varianteMedium = :medium,
+                f.versao = f.versao + 1
+            where f.id = :id and f.conteudo = :conteudo
+            """)
+    int definirVariantes(Long id, String conteudo, StatusVariantes status, String thumb, String medium);
+
+    @Transactional
+    @Modifying
+    @Query("update Foto f set f.statusVariantes = :status, f.versao = f.versao + 1 where f.id = :id and f.conteudo = :conteudo")
+    int definirStatusVariantes(Long id, String conteudo, StatusVariantes status);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Foto f set f.caminhoFoto = :caminhoFoto, f.desafio = :desafio,
+                f.versao = f.versao + 1
+            where f.id = :id and f.versao = :versao
+            """)
+    int atualizar(Long id, Long versao, String caminhoFoto, Desafio desafio);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Foto f where f.id = :id and f.versao = :versao")
+    int apagar(Long id, Long versao);
 }
@@ -1,8 +1,75 @@
 package br.com.fiap.bluehope.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.PerfilResumo;
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.ranking.PontuacaoPerfil;
+import jakarta.persistence.QueryHint;
 
 public interface PerfilRepository extends JpaRepository<Perfil, Long> {
+
+    @Query("""
+            select new br.com.fiap.bluehope.model.PerfilResumo(p.id, p.nome, p.somaPontos, p.medalha, p.usuario.id)
+            from Perfil p where p.id > :id order by p.id
+            """)
+    List<PerfilResumo> findResumosByIdGreaterThan(Long id, Limit limit);
+
+    @Query("select p from Perfil p left join fetch p.usuario where p.id = :id")
+    Optional<Perfil> findDetalheById(Long id);
+
+    @Query("select new br.com.fiap.bluehope.ranking.PontuacaoPerfil(p.id, p.somaPontos) from Perfil p")
+    List<PontuacaoPerfil> findAllPontuacoes();
+
+    @Query("select p.somaPontos from Perfil p where p.id = :id")
+    Optional<Integer> findSomaPontosById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Perfil p set p.somaPontos = p.somaPontos + :delta, p.versao = p.versao + 1 where p.id = :id")
+    int somarPontos(Long id, int delta);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Perfil p set p.somaPontos = (
+                select coalesce(sum(v.pontosPontuados), 0)
+                from ValidacaoDesafio v
+                where v.pontuada = true and v.perfilPontuadoId = p.id),
+                p.versao = p.versao + 1
+            """)
+    int recalcularSomaPontos();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Perfil> streamAllByOrderById();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Perfil p set p.nome = :nome, p.medalha = :medalha, p.usuario = :usuario,
+                p.versao = p.versao + 1
+            where p.id = :id and p.versao = :versao
+            """)
+    int atualizar(Long id, Long versao, String nome, String medalha, Usuario usuario);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Perfil p where p.id = :id")
+    int apagar(Long id);
 }
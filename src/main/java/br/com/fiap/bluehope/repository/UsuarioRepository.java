@@ -1,8 +1,38 @@
 package br.com.fiap.bluehope.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.unicidade.ChavesUsuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new br.com.fiap.bluehope.unicidade.ChavesUsuario(u.email, u.cpf) from Usuario u")
+    List<ChavesUsuario> findAllChaves();
+
+    boolean existsByEmail(String email);
+
+    boolean existsByCpf(String cpf);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Usuario u set u.email = :email, u.telefone = :telefone, u.cpf = :cpf, u.senha = :senha,
+                u.versao = u.versao + 1
+            where u.id = :id and u.versao = :versao
+            """)
+    int atualizar(Long id, Long versao, String email, String telefone, String cpf, String senha);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id")
+    int apagar(Long id);
 }
@@ -1,8 +1,132 @@
 package br.com.fiap.bluehope.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.fiap.bluehope.model.Desafio;
 import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.model.ValidacaoDesafioResumo;
+import br.com.fiap.bluehope.pontuacao.CreditoPontos;
+import br.com.fiap.bluehope.pontuacao.CreditoValidacao;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface ValidacaoDesafioRepository extends JpaRepository<ValidacaoDesafio, Long> {
+
+    @Query("""
+            select new br.com.fiap.bluehope.model.ValidacaoDesafioResumo(v.id, v.valido, v.desafio.id, v.pontuada)
+            from ValidacaoDesafio v where v.id > :id order by v.id
+            """)
+    List<ValidacaoDesafioResumo> findResumosByIdGreaterThan(Long id, Limit limit);
+
+    @Query("select v from ValidacaoDesafio v left join fetch v.desafio where v.id = :id")
+    Optional<ValidacaoDesafio> findDetalheById(Long id);
+
+    /**
+     * Trava as linhas das validações até o fim da transação, para que a
+     * pontuação e a exclusão de uma mesma validação não se cruzem.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from ValidacaoDesafio v where v.id in :ids")
+    List<ValidacaoDesafio> bloquear(Collection<Long> ids);
+
+    /**
+     * Crédito feito por uma validação pontuada; as pontuadas antes de o
+     * crédito ser guardado na linha usam o desafio atual.
+     */
+    @Query("""
+            select new br.com.fiap.bluehope.pontuacao.CreditoPontos(
+                coalesce(v.perfilPontuadoId, p.id), coalesce(v.pontosPontuados, d.pontos, 0))
+            from ValidacaoDesafio v left join v.desafio d left join d.perfil p
+            where v.id = :id and v.pontuada = true
+            """)
+    Optional<CreditoPontos> findCreditoRegistrado(Long id);
+
+    @Query("""
+            select new br.com.fiap.bluehope.pontuacao.CreditoValidacao(
+                v.id, coalesce(v.perfilPontuadoId, p.id), coalesce(v.pontosPontuados, d.pontos, 0))
+            from ValidacaoDesafio v left join v.desafio d left join d.perfil p
+            where v.id in :ids and v.pontuada = true
+            """)
+    List<CreditoValidacao> findCreditosRegistrados(Collection<Long> ids);
+
+    /** Validações cuja pontuação ainda não acompanha o {@code valido}. */
+    @Query("""
+            select v.id from ValidacaoDesafio v
+            where (v.valido = true and (v.pontuada is null or v.pontuada = false))
+                or (v.valido = false and v.pontuada = true)
+            """)
+    List<Long> findIdsComPontuacaoPendente();
+
+    /**
+     * Marca as validações aprovadas e ainda não pontuadas guardando o perfil e
+     * os pontos do desafio atual; as de desafio sem perfil continuam
+     * pendentes.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ValidacaoDesafio v set v.pontuada = true,
+                v.perfilPontuadoId = (select d.perfil.id from Desafio d where d.id = v.desafio.id),
+                v.pontosPontuados = (select coalesce(d.pontos, 0) from Desafio d where d.id = v.desafio.id),
+                v.versao = v.versao + 1
+            where v.id in :ids and v.valido = true and (v.pontuada is null or v.pontuada = false)
+                and exists (select 1 from Desafio d where d.id = v.desafio.id and d.perfil is not null)
+            """)
+    int marcarComoPontuadas(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ValidacaoDesafio v set v.pontuada = false, v.perfilPontuadoId = null, v.pontosPontuados = null,
+                v.versao = v.versao + 1
+            where v.id in :ids and v.valido = false and v.pontuada = true
+            """)
+    int desmarcarPontuacoes(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ValidacaoDesafio v set v.pontuada = v.valido,
+                v.perfilPontuadoId = case when v.valido = true
+                    then (select d.perfil.id from Desafio d where d.id = v.desafio.id) end,
+                v.pontosPontuados = case when v.valido = true
+                    then (select d.pontos from Desafio d where d.id = v.desafio.id) end,
+                v.versao = v.versao + 1
+            where v.pontuada is null or v.pontuada <> v.valido or (v.valido = true and v.pontosPontuados is null)
+            """)
+    int sincronizarPontuadas();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<ValidacaoDesafio> streamAllByOrderById();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ValidacaoDesafio v set v.valido = :valido, v.desafio = :desafio,
+                v.versao = v.versao + 1
+            where v.id = :id and v.versao = :versao
+            """)
+    int atualizar(Long id, Long versao, Boolean valido, Desafio desafio);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ValidacaoDesafio v where v.id = :id")
+    int apagar(Long id);
 }
@@ -0,0 +1,70 @@
+package br.com.fiap.bluehope.roteamento;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Leia-o-que-escreveu: uma requisição de escrita roda inteira no primário e
+ * deixa no cliente um cookie que mantém as leituras dele no primário pelo
+ * atraso máximo tolerado na réplica, tempo em que a escrita pode ainda não ter
+ * chegado lá.
+ */
+public class AderenciaPrimarioFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "bluehope-primario";
+
+    private static final Set<String> METODOS_LEITURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration atrasoMaximo;
+
+    public AderenciaPrimarioFilter(Duration atrasoMaximo) {
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean escrita = !METODOS_LEITURA.contains(request.getMethod());
+        if (escrita) {
+            long ate = System.currentTimeMillis() + atrasoMaximo.toMillis();
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(ate))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(atrasoMaximo.plusMillis(999).toSeconds())
+                    .build()
+                    .toString());
+        }
+        if (escrita || aderente(request)) {
+            ContextoRoteamento.forcarPrimario();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoRoteamento.limpar();
+        }
+    }
+
+    private static boolean aderente(HttpServletRequest request) {
+        var cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
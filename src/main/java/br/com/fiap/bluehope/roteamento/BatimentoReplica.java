@@ -0,0 +1,20 @@
+package br.com.fiap.bluehope.roteamento;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+/**
+ * Linha única que o {@link MonitorReplica} atualiza no primário; o quanto ela
+ * está atrasada na réplica é o atraso da replicação.
+ */
+@Data
+@Entity
+public class BatimentoReplica {
+
+    @Id
+    private Long id;
+
+    /** Instante da última escrita, em milissegundos desde a época. */
+    private long instante;
+}
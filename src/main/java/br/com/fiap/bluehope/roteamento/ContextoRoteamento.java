@@ -0,0 +1,37 @@
+package br.com.fiap.bluehope.roteamento;
+
+/**
+ * Marca a thread atual para usar o primário mesmo em transações somente
+ * leitura, como durante as requisições de um cliente que acabou de escrever,
+ * e registra se ela já leu alguma coisa da réplica.
+ */
+public final class ContextoRoteamento {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private ContextoRoteamento() {
+    }
+
+    public static void forcarPrimario() {
+        PRIMARIO.set(Boolean.TRUE);
+    }
+
+    public static boolean primarioForcado() {
+        return PRIMARIO.get() != null;
+    }
+
+    static void registrarLeituraReplica() {
+        REPLICA.set(Boolean.TRUE);
+    }
+
+    /** Se a thread obteve uma conexão da réplica desde o último {@link #limpar()}. */
+    public static boolean leuDaReplica() {
+        return REPLICA.get() != null;
+    }
+
+    public static void limpar() {
+        PRIMARIO.remove();
+        REPLICA.remove();
+    }
+}
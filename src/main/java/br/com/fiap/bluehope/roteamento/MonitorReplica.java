@@ -0,0 +1,78 @@
+package br.com.fiap.bluehope.roteamento;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mede o atraso da réplica por um batimento: a cada verificação grava o
+ * instante atual em {@code batimento_replica} no primário e lê o valor que já
+ * chegou à réplica. Enquanto a diferença passar de
+ * {@code bluehope.replica.atraso-maximo}, ou a réplica não responder, as
+ * leituras ficam no primário.
+ */
+@Slf4j
+public class MonitorReplica {
+
+    private static final long ID = 1L;
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final Duration atrasoMaximo;
+
+    private volatile long atraso = Long.MAX_VALUE;
+    private volatile boolean disponivel;
+
+    public MonitorReplica(JdbcTemplate primario, JdbcTemplate replica, Duration atrasoMaximo, MeterRegistry registry) {
+        this.primario = primario;
+        this.replica = replica;
+        this.atrasoMaximo = atrasoMaximo;
+        Gauge.builder("bluehope.replica.atraso", this, m -> m.atraso == Long.MAX_VALUE ? Double.NaN : m.atraso)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    public boolean replicaDisponivel() {
+        return disponivel;
+    }
+
+    @Scheduled(fixedDelayString = "${bluehope.replica.intervalo-batimento-ms:1000}")
+    public void verificar() {
+        long agora = System.currentTimeMillis();
+        try {
+            if (primario.update("update batimento_replica set instante = ? where id = ?", agora, ID) == 0) {
+                primario.update("insert into batimento_replica (id, instante) values (?, ?)", ID, agora);
+            }
+        } catch (DuplicateKeyException e) {
+            // outra instância criou a linha ao mesmo tempo
+        }
+        atraso = lerAtraso(agora);
+        boolean estava = disponivel;
+        disponivel = atraso <= atrasoMaximo.toMillis();
+        if (estava != disponivel) {
+            if (disponivel) {
+                log.info("Réplica disponível para leitura (atraso de {} ms)", atraso);
+            } else {
+                log.warn("Leituras voltaram ao primário: atraso da réplica acima de {} ms", atrasoMaximo.toMillis());
+            }
+        }
+    }
+
+    private long lerAtraso(long agora) {
+        try {
+            List<Long> instantes = replica.queryForList("select instante from batimento_replica where id = ?", Long.class, ID);
+            return instantes.isEmpty() ? Long.MAX_VALUE : Math.max(0, agora - instantes.get(0));
+        } catch (DataAccessException e) {
+            log.debug("Falha ao ler o batimento da réplica", e);
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.fiap.bluehope.roteamento;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "bluehope.replica")
+public class PropriedadesReplica {
+
+    /**
+     * URL JDBC da réplica de leitura. Sem ela, tudo usa o DataSource de
+     * {@code spring.datasource}.
+     */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Atraso máximo tolerado na réplica. Acima dele as leituras voltam para o
+     * primário; é também por quanto tempo um cliente lê do primário depois de
+     * uma escrita sua.
+     */
+    private Duration atrasoMaximo = Duration.ofSeconds(5);
+}
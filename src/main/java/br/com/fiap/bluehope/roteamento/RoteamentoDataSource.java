@@ -0,0 +1,49 @@
+package br.com.fiap.bluehope.roteamento;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Entrega conexões da réplica dentro de transações {@code readOnly} e do
+ * primário em todo o resto. A decisão é tomada quando a conexão é pedida,
+ * então este DataSource precisa ficar atrás de um
+ * {@code LazyConnectionDataSourceProxy}: só assim a conexão é obtida depois
+ * de a transação ter sido marcada como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIO = "primario";
+    private static final String REPLICA = "replica";
+
+    private final MonitorReplica monitor;
+    private final Counter conexoesPrimario;
+    private final Counter conexoesReplica;
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica, MonitorReplica monitor, MeterRegistry registry) {
+        this.monitor = monitor;
+        this.conexoesPrimario = registry.counter("bluehope.roteamento.conexoes", "destino", PRIMARIO);
+        this.conexoesReplica = registry.counter("bluehope.roteamento.conexoes", "destino", REPLICA);
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ContextoRoteamento.primarioForcado()
+                && monitor.replicaDisponivel()) {
+            conexoesReplica.increment();
+            ContextoRoteamento.registrarLeituraReplica();
+            return REPLICA;
+        }
+        conexoesPrimario.increment();
+        return PRIMARIO;
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.fiap.bluehope.unicidade;
+
+public record ChavesUsuario(String email, String cpf) {
+}
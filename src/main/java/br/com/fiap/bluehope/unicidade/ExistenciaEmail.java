@@ -0,0 +1,4 @@
+package br.com.fiap.bluehope.unicidade;
+
+public record ExistenciaEmail(String email, boolean existe) {
+}
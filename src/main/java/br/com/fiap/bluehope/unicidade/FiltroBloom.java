@@ -0,0 +1,80 @@
+package br.com.fiap.bluehope.unicidade;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings. Responde "com certeza não contém" ou "talvez
+ * contenha": uma resposta negativa dispensa a consulta ao banco, uma positiva
+ * precisa ser confirmada. Não permite remoção, então valores apagados só
+ * aumentam a taxa de falsos positivos até o próximo carregamento.
+ *
+ * Os bits ficam num {@link AtomicLongArray}, então adições e consultas
+ * concorrentes dispensam lock.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+
+    /**
+     * Dimensiona o filtro para {@code capacidade} valores com a taxa de falsos
+     * positivos informada.
+     */
+    public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        long n = Math.max(1, capacidade);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.tamanho = bits.length() * 64L;
+        this.funcoes = (int) Math.max(1, Math.round((double) tamanho / n * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, tamanho);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndUpdate(palavra, atual -> atual | mascara);
+            }
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, tamanho);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int funcoes() {
+        return funcoes;
+    }
+
+    public long bits() {
+        return tamanho;
+    }
+
+    /** FNV-1a de 64 bits sobre os caracteres, seguido do finalizador do SplitMix64. */
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
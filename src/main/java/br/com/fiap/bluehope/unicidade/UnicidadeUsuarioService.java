@@ -0,0 +1,126 @@
+package br.com.fiap.bluehope.unicidade;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifica se email e cpf já estão em uso. Um {@link FiltroBloom} por campo,
+ * montado a partir do banco na subida, responde os valores nunca vistos sem
+ * consulta; só os positivos do filtro chegam ao banco, numa busca pelo índice
+ * único. O índice continua sendo a garantia final contra cadastros
+ * simultâneos.
+ * <p>
+ * Os filtros são de cada instância: um cadastro feito em outra instância só
+ * entra aqui na próxima recarga, e o email antigo de quem trocou de email
+ * nunca sai de um filtro de Bloom. Por isso os filtros são remontados do banco
+ * a cada {@code bluehope.unicidade.recarga-ms}, e a resposta de
+ * {@code /usuario/exists} é apenas indicativa entre uma recarga e outra.
+ */
+@Service
+@Slf4j
+public class UnicidadeUsuarioService {
+
+    @Autowired
+    UsuarioRepository repository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Value("${bluehope.unicidade.capacidade:1000000}")
+    long capacidade;
+
+    @Value("${bluehope.unicidade.falsos-positivos:0.01}")
+    double falsosPositivos;
+
+    private volatile FiltroBloom emails;
+    private volatile FiltroBloom cpfs;
+
+    /** Usuarios registrados enquanto uma recarga lê o banco; null fora da recarga. */
+    private List<Usuario> registradosNaRecarga;
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${bluehope.unicidade.recarga-ms:600000}",
+            fixedDelayString = "${bluehope.unicidade.recarga-ms:600000}")
+    public void carregar() {
+        synchronized (this) {
+            registradosNaRecarga = new ArrayList<>();
+        }
+        var chaves = repository.findAllChaves();
+        long tamanho = Math.max(capacidade, 2L * chaves.size());
+        var novosEmails = new FiltroBloom(tamanho, falsosPositivos);
+        var novosCpfs = new FiltroBloom(tamanho, falsosPositivos);
+        for (var chave : chaves) {
+            adicionar(novosEmails, chave.email());
+            adicionar(novosCpfs, chave.cpf());
+        }
+        synchronized (this) {
+            // a leitura pode ter começado antes de um cadastro ser confirmado
+            for (var usuario : registradosNaRecarga) {
+                adicionar(novosEmails, usuario.getEmail());
+                adicionar(novosCpfs, usuario.getCpf());
+            }
+            registradosNaRecarga = null;
+            emails = novosEmails;
+            cpfs = novosCpfs;
+        }
+        log.info("Filtros de unicidade carregados com {} usuarios ({} bits e {} funções de hash cada)",
+                chaves.size(), novosEmails.bits(), novosEmails.funcoes());
+    }
+
+    public boolean emailEmUso(String email) {
+        return emUso("email", emails, email, repository::existsByEmail);
+    }
+
+    public boolean cpfEmUso(String cpf) {
+        return emUso("cpf", cpfs, cpf, repository::existsByCpf);
+    }
+
+    /** Rejeita com 409 um cadastro cujo email ou cpf já pertence a outro usuario. */
+    public void verificarCadastro(Usuario usuario) {
+        if (emailEmUso(usuario.getEmail())) {
+            throw new ResponseStatusException(CONFLICT, "Já existe usuario com o email informado");
+        }
+        if (cpfEmUso(usuario.getCpf())) {
+            throw new ResponseStatusException(CONFLICT, "Já existe usuario com o cpf informado");
+        }
+    }
+
+    /** Acrescenta aos filtros o email e o cpf de um usuario gravado. */
+    public synchronized void registrar(Usuario usuario) {
+        adicionar(emails, usuario.getEmail());
+        adicionar(cpfs, usuario.getCpf());
+        if (registradosNaRecarga != null) {
+            registradosNaRecarga.add(usuario);
+        }
+    }
+
+    private boolean emUso(String campo, FiltroBloom filtro, String valor, Predicate<String> consulta) {
+        if (valor == null || !filtro.talvezContenha(valor)) {
+            registry.counter("bluehope.unicidade.verificacoes", "campo", campo, "origem", "filtro").increment();
+            return false;
+        }
+        registry.counter("bluehope.unicidade.verificacoes", "campo", campo, "origem", "banco").increment();
+        return consulta.test(valor);
+    }
+
+    private static void adicionar(FiltroBloom filtro, String valor) {
+        if (valor != null) {
+            filtro.adicionar(valor);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.bluehope.validation;
+
+import java.util.List;
+
+import br.com.fiap.bluehope.validation.ValidationErrorHandler.ItemValidationError;
+import lombok.Getter;
+
+@Getter
+public class LoteInvalidoException extends RuntimeException {
+
+    private final List<ItemValidationError> erros;
+
+    public LoteInvalidoException(List<ItemValidationError> erros) {
+        super(erros.size() + " itens inválidos no lote");
+        this.erros = erros;
+    }
+}
@@ -10,13 +10,22 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import jakarta.validation.ConstraintViolation;
+
 @RestControllerAdvice
 public class ValidationErrorHandler {
 
-    record ValidationError(String campo, String mensagem){
+    public record ValidationError(String campo, String mensagem){
         public ValidationError(FieldError error){
             this(error.getField(), error.getDefaultMessage());
         }
+
+        public ValidationError(ConstraintViolation<?> violation){
+            this(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+    }
+
+    public record ItemValidationError(int indice, List<ValidationError> erros){
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -29,5 +38,11 @@ public class ValidationErrorHandler {
                 .toList();
        
     }
+
+    @ExceptionHandler(LoteInvalidoException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public List<ItemValidationError> handler(LoteInvalidoException exception){
+        return exception.getErros();
+    }
     
-}
\ No newline at end of file
+}
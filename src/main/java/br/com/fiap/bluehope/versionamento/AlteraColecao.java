@@ -0,0 +1,17 @@
+package br.com.fiap.bluehope.versionamento;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um handler de escrita: ao fim da requisição, depois da transação e
+ * das remoções de cache, a versão das coleções informadas é incrementada.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AlteraColecao {
+
+    String[] value();
+}
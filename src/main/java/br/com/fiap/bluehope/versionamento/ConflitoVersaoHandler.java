@@ -0,0 +1,20 @@
+package br.com.fiap.bluehope.versionamento;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+import java.io.IOException;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestControllerAdvice
+public class ConflitoVersaoHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void conflito(HttpServletResponse response) throws IOException {
+        response.sendError(CONFLICT.value(), "O registro foi alterado por outra requisição; busque a versão atual e tente de novo");
+    }
+}
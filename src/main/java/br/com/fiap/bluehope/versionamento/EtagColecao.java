@@ -0,0 +1,18 @@
+package br.com.fiap.bluehope.versionamento;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca a listagem de uma coleção: a resposta leva a ETag da versão atual da
+ * coleção e um {@code If-None-Match} igual a ela é respondido com 304 antes de
+ * o handler rodar.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EtagColecao {
+
+    String value();
+}
@@ -0,0 +1,53 @@
+package br.com.fiap.bluehope.versionamento;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * ETag forte nos GETs de detalhe, a partir do {@code @Version} da entidade.
+ * Quando o {@code If-None-Match} bate, a resposta vira 304 antes da
+ * serialização; se o modelo veio do cache, o banco também não é consultado.
+ */
+@RestControllerAdvice
+public class EtagEntidadeAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return EntityModel.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request.getMethod() == HttpMethod.GET
+                && body instanceof EntityModel<?> modelo
+                && modelo.getContent() instanceof Versionado entidade
+                && request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            var webRequest = new ServletWebRequest(servletRequest.getServletRequest(), servletResponse.getServletResponse());
+            if (webRequest.checkNotModified("\"" + entidade.etag() + sufixo(selectedContentType) + "\"")) {
+                return null;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Uma ETag forte identifica os bytes da representação, então CBOR e Smile
+     * recebem uma ETag diferente da do JSON.
+     */
+    static String sufixo(MediaType tipo) {
+        return tipo.getSubtype().endsWith("json") ? "" : "-" + tipo.getSubtype();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.fiap.bluehope.versionamento;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+public final class PreCondicoes {
+
+    private PreCondicoes() {
+    }
+
+    /**
+     * Versão que o {@code update} exige no WHERE. Com {@code If-Match}, vale a
+     * versão da entidade contida na ETag (a parte antes do hífen; a versão da
+     * associação não impede a escrita) e só uma ETag é aceita; sem ele, vale a
+     * {@code versao} do corpo. Não há escrita sem versão: sem nenhuma das duas,
+     * ou com {@code If-Match: *}, a resposta é 428.
+     */
+    public static Long versaoEsperada(String ifMatch, Long versaoDoCorpo) {
+        if (!StringUtils.hasText(ifMatch)) {
+            if (versaoDoCorpo == null) {
+                throw new ResponseStatusException(PRECONDITION_REQUIRED,
+                        "Informe a ETag recebida em If-Match ou a versao no corpo");
+            }
+            return versaoDoCorpo;
+        }
+        String etag = ifMatch.trim();
+        if (etag.equals("*")) {
+            throw new ResponseStatusException(PRECONDITION_REQUIRED,
+                    "If-Match: * não identifica uma versão; informe a ETag recebida deste recurso");
+        }
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            String valor = etag.substring(1, etag.length() - 1);
+            int hifen = valor.indexOf('-');
+            try {
+                return Long.valueOf(hifen < 0 ? valor : valor.substring(0, hifen));
+            } catch (NumberFormatException e) {
+                // cai no 412 abaixo
+            }
+        }
+        throw new ResponseStatusException(PRECONDITION_FAILED, "If-Match deve trazer uma única ETag recebida deste recurso");
+    }
+
+    /**
+     * Versão gravada por um {@code update} condicional, que sempre incrementa
+     * a anterior.
+     */
+    public static Long versaoGravada(Long versaoEsperada) {
+        return versaoEsperada + 1;
+    }
+
+    /**
+     * Erro de um {@code update} que não alterou nenhuma linha: 404 se o
+     * registro não existe; senão a versão não bateu, e a resposta é 412 se
+     * ela veio do {@code If-Match} ou 409 se veio do corpo.
+     */
+    public static ResponseStatusException naoAtualizado(boolean existe, String ifMatch, String naoEncontrado) {
+        if (!existe) {
+            return new ResponseStatusException(NOT_FOUND, naoEncontrado);
+        }
+        if (StringUtils.hasText(ifMatch)) {
+            return new ResponseStatusException(PRECONDITION_FAILED, "O registro mudou desde a versão informada em If-Match");
+        }
+        return new ResponseStatusException(CONFLICT, "O registro foi alterado por outra requisição; busque a versão atual e tente de novo");
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.fiap.bluehope.versionamento;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import br.com.fiap.bluehope.config.FormatosBinariosConfiguration;
+import br.com.fiap.bluehope.roteamento.ContextoRoteamento;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica {@link EtagColecao} e {@link AlteraColecao}. O GET condicional é
+ * resolvido no {@code preHandle}, sem consultar o banco nem o cache; o
+ * incremento fica no {@code afterCompletion} para que nenhuma leitura veja a
+ * versão nova enquanto o cache de páginas ainda guarda a antiga.
+ * <p>
+ * Por {@code bluehope.replica.atraso-maximo} depois de uma alteração, a
+ * listagem da coleção lê do primário: lida da réplica, a página poderia ser
+ * anterior à escrita e seguiria com a ETag da versão nova, que o cliente
+ * revalidaria com 304 até a próxima alteração.
+ */
+@Component
+public class VersaoColecaoInterceptor implements HandlerInterceptor {
+
+    private static final HeaderContentNegotiationStrategy ACCEPT = new HeaderContentNegotiationStrategy();
+
+    private static final String PRIMARIO_FORCADO = VersaoColecaoInterceptor.class.getName() + ".primario";
+
+    @Autowired
+    VersoesColecao versoes;
+
+    @Value("${bluehope.replica.atraso-maximo:5s}")
+    Duration atrasoReplica;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod metodo
+                && (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            var colecao = metodo.getMethodAnnotation(EtagColecao.class);
+            if (colecao != null) {
+                var webRequest = new ServletWebRequest(request, response);
+                if (webRequest.checkNotModified(versoes.etag(colecao.value(), sufixo(webRequest)))) {
+                    return false;
+                }
+                if (versoes.alteradaHaMenosDe(colecao.value(), atrasoReplica)) {
+                    ContextoRoteamento.forcarPrimario();
+                    request.setAttribute(PRIMARIO_FORCADO, Boolean.TRUE);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * O formato ainda não foi negociado no {@code preHandle}; vale o primeiro
+     * tipo do {@code Accept}, em ordem de preferência, que algum conversor
+     * JSON, CBOR ou Smile atende.
+     */
+    private String sufixo(ServletWebRequest webRequest) {
+        try {
+            for (var tipo : ACCEPT.resolveMediaTypes(webRequest)) {
+                if (tipo.isWildcardSubtype() || tipo.getSubtype().endsWith("json")) {
+                    return "";
+                }
+                if (tipo.equals(MediaType.APPLICATION_CBOR) || tipo.equals(FormatosBinariosConfiguration.APPLICATION_SMILE)) {
+                    return EtagEntidadeAdvice.sufixo(tipo);
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // O MVC responde 406 adiante.
+        }
+        return "";
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PRIMARIO_FORCADO) != null) {
+            ContextoRoteamento.limpar();
+        }
+        if (handler instanceof HandlerMethod metodo) {
+            var altera = metodo.getMethodAnnotation(AlteraColecao.class);
+            if (altera != null) {
+                versoes.incrementar(altera.value());
+            }
+        }
+    }
+}
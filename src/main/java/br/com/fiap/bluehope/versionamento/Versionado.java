@@ -0,0 +1,17 @@
+package br.com.fiap.bluehope.versionamento;
+
+/**
+ * Entidade com {@code @Version}. A ETag do detalhe combina a versão da
+ * entidade com a da associação que vai junto na resposta, já que uma mudança
+ * em qualquer das duas muda o corpo.
+ */
+public interface Versionado {
+
+    Long getVersao();
+
+    String etag();
+
+    static String etag(Long versao, Versionado associada) {
+        return associada == null ? String.valueOf(versao) : versao + "-" + associada.getVersao();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.fiap.bluehope.versionamento;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contador de versão de cada coleção, incrementado a cada escrita, usado como
+ * ETag das listagens. O contador vive em memória e recomeça a cada
+ * inicialização; por isso a ETag leva também o instante em que a aplicação
+ * subiu, e uma ETag de outra execução (ou de outra instância) nunca coincide.
+ *
+ * Escritas feitas em outra instância não passam pelo contador. Para que elas
+ * não fiquem escondidas atrás de um 304 indefinidamente, a ETag leva também
+ * a janela de {@code bluehope.versoes.validade} em curso e muda a cada
+ * janela, mesmo sem escritas locais. Com a validade igual ao
+ * {@code expireAfterWrite} dos caches de páginas, a ETag não sobrevive mais
+ * que a página que ela descreve.
+ */
+@Component
+public class VersoesColecao {
+
+    private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+    private final long validade;
+    private final ConcurrentMap<String, AtomicLong> versoes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> alteradaEm = new ConcurrentHashMap<>();
+
+    public VersoesColecao(@Value("${bluehope.versoes.validade:1m}") String validade) {
+        this.validade = DurationStyle.detectAndParse(validade).toMillis();
+        if (this.validade <= 0) {
+            throw new IllegalArgumentException("bluehope.versoes.validade deve ser positiva");
+        }
+    }
+
+    public String etag(String colecao) {
+        return etag(colecao, "");
+    }
+
+    public String etag(String colecao, String sufixo) {
+        long janela = System.currentTimeMillis() / validade;
+        return "\"" + colecao + "-" + inicio + "-" + contador(colecao).get() + "-" + Long.toString(janela, 36)
+                + sufixo + "\"";
+    }
+
+    public void incrementar(String... colecoes) {
+        for (String colecao : colecoes) {
+            contador(colecao).incrementAndGet();
+            alteradaEm.put(colecao, System.nanoTime());
+        }
+    }
+
+    /** Se a coleção foi alterada nesta instância há menos de {@code intervalo}. */
+    public boolean alteradaHaMenosDe(String colecao, Duration intervalo) {
+        Long instante = alteradaEm.get(colecao);
+        return instante != null && System.nanoTime() - instante < intervalo.toNanos();
+    }
+
+    private AtomicLong contador(String colecao) {
+        return versoes.computeIfAbsent(colecao, nome -> new AtomicLong());
+    }
+}
@@ -0,0 +1,57 @@
+package db.migration;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Roda antes das restrições únicas da V3 e interrompe a migração se o banco
+ * já tiver valores repetidos nas colunas que elas cobrem. No Oracle o DDL não
+ * é transacional: sem esta verificação a V3 pararia no meio, com parte dos
+ * índices já criados, e não poderia ser repetida sem ajuste manual.
+ *
+ * As duplicatas não são apagadas aqui, porque só quem conhece os dados sabe
+ * qual registro manter; a mensagem traz a consulta que lista cada uma. A
+ * tentativa fica registrada como falha no histórico do Flyway, então depois
+ * da limpeza é preciso rodar o {@code repair} antes de migrar de novo.
+ */
+public class V2_1__VerificarDuplicatas extends BaseJavaMigration {
+
+    private record Restricao(String nome, String tabela, String coluna) {
+
+        String duplicatas() {
+            return "select " + coluna + ", count(*) from " + tabela + " where " + coluna + " is not null"
+                    + " group by " + coluna + " having count(*) > 1";
+        }
+    }
+
+    private static final List<Restricao> RESTRICOES = List.of(
+            new Restricao("uk_perfil_usuario", "perfil", "usuario_id"),
+            new Restricao("uk_validacao_desafio_desafio", "validacao_desafio", "desafio_id"),
+            new Restricao("uk_usuario_email", "usuario", "email"),
+            new Restricao("uk_usuario_cpf", "usuario", "cpf"));
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        List<String> problemas = new ArrayList<>();
+        try (var statement = context.getConnection().createStatement()) {
+            for (var restricao : RESTRICOES) {
+                try (var resultado = statement.executeQuery("select count(*) from (" + restricao.duplicatas() + ") d")) {
+                    resultado.next();
+                    long repetidos = resultado.getLong(1);
+                    if (repetidos > 0) {
+                        problemas.add(restricao.nome() + ": " + repetidos + " valores repetidos em "
+                                + restricao.tabela() + "." + restricao.coluna() + " (" + restricao.duplicatas() + ")");
+                    }
+                }
+            }
+        }
+        if (!problemas.isEmpty()) {
+            throw new IllegalStateException("A migração 3 cria restrições únicas que os dados atuais violam."
+                    + " Resolva as duplicatas, rode o repair do Flyway e migre de novo:\n" + String.join("\n", problemas));
+        }
+    }
+}
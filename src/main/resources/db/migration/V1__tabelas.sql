@@ -0,0 +1,56 @@
+-- Esquema que já existia em produção antes das migrações, como o Hibernate o
+-- gerava para as entidades originais (GenerationType.AUTO: uma sequência por
+-- entidade, com incremento 50). Bancos que já têm estas tabelas recebem o
+-- baseline nesta versão (spring.flyway.baseline-version=1) e não a executam;
+-- as mudanças seguintes vêm em migrações aditivas.
+
+create sequence usuario_seq start with 1 increment by 50;
+create sequence perfil_seq start with 1 increment by 50;
+create sequence desafio_seq start with 1 increment by 50;
+create sequence foto_seq start with 1 increment by 50;
+create sequence validacao_desafio_seq start with 1 increment by 50;
+
+create table usuario (
+    id number(19,0) not null,
+    email varchar2(255 char) not null,
+    telefone varchar2(255 char) not null,
+    cpf varchar2(255 char) not null,
+    senha varchar2(255 char) not null,
+    constraint pk_usuario primary key (id)
+);
+
+create table perfil (
+    id number(19,0) not null,
+    nome varchar2(255 char) not null,
+    soma_pontos number(10,0) not null,
+    medalha varchar2(255 char),
+    usuario_id number(19,0),
+    constraint pk_perfil primary key (id),
+    constraint fk_perfil_usuario foreign key (usuario_id) references usuario (id)
+);
+
+create table desafio (
+    id number(19,0) not null,
+    descricao varchar2(255 char) not null,
+    pontos number(10,0) not null,
+    perfil_id number(19,0),
+    constraint pk_desafio primary key (id),
+    constraint fk_desafio_perfil foreign key (perfil_id) references perfil (id)
+);
+
+create table foto (
+    id number(19,0) not null,
+    caminho_foto varchar2(255 char) not null,
+    desafio_id number(19,0),
+    constraint pk_foto primary key (id),
+    constraint fk_foto_desafio foreign key (desafio_id) references desafio (id)
+);
+
+create table validacao_desafio (
+    id number(19,0) not null,
+    valido number(1,0) not null,
+    desafio_id number(19,0),
+    constraint pk_validacao_desafio primary key (id),
+    constraint fk_validacao_desafio_desafio foreign key (desafio_id) references desafio (id),
+    constraint ck_validacao_desafio_valido check (valido in (0, 1))
+);
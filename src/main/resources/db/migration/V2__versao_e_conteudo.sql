@@ -0,0 +1,24 @@
+-- Colunas acrescentadas às entidades depois do esquema original. Só
+-- acrescentam: as linhas existentes ficam com versao 0, sem pontuação
+-- registrada e sem conteúdo enviado.
+
+-- Versão para a trava otimista; o default evita null nos updates em massa
+-- "versao = versao + 1".
+alter table usuario add versao number(19,0) default 0 not null;
+alter table perfil add versao number(19,0) default 0 not null;
+alter table desafio add versao number(19,0) default 0 not null;
+alter table foto add versao number(19,0) default 0 not null;
+alter table validacao_desafio add versao number(19,0) default 0 not null;
+
+-- Validações cujos pontos já foram creditados no perfil.
+alter table validacao_desafio add pontuada number(1,0);
+alter table validacao_desafio add constraint ck_validacao_desafio_pontuada check (pontuada in (0, 1));
+
+-- Conteúdo enviado da foto e as variantes geradas a partir dele.
+alter table foto add conteudo varchar2(255 char);
+alter table foto add tipo_conteudo varchar2(255 char);
+alter table foto add tamanho_conteudo number(19,0);
+alter table foto add status_variantes varchar2(255 char);
+alter table foto add variante_thumb varchar2(255 char);
+alter table foto add variante_medium varchar2(255 char);
+alter table foto add constraint ck_foto_status_variantes check (status_variantes in ('PENDENTE', 'PRONTA', 'FALHOU'));
@@ -0,0 +1,21 @@
+-- O Oracle não indexa chaves estrangeiras sozinho: sem estes índices, os joins
+-- pelas associações e cada delete na tabela pai varrem a tabela filha inteira.
+create index ix_foto_desafio on foto (desafio_id);
+create index ix_desafio_perfil on desafio (perfil_id);
+
+-- @OneToOne: no máximo um perfil por usuario e uma validação por desafio.
+alter table perfil add constraint uk_perfil_usuario unique (usuario_id);
+alter table validacao_desafio add constraint uk_validacao_desafio_desafio unique (desafio_id);
+
+-- Cadastro de usuarios: email e cpf não se repetem.
+alter table usuario add constraint uk_usuario_email unique (email);
+alter table usuario add constraint uk_usuario_cpf unique (cpf);
+
+-- O ranking é carregado lendo só id e soma_pontos, na ordem do ranking: o
+-- índice cobre a consulta e é lido no lugar da tabela.
+create index ix_perfil_soma_pontos on perfil (soma_pontos desc, id);
+
+-- Deduplicação de uploads e contagem de referências a um objeto armazenado.
+create index ix_foto_conteudo on foto (conteudo, status_variantes);
+create index ix_foto_variante_thumb on foto (variante_thumb);
+create index ix_foto_variante_medium on foto (variante_medium);
@@ -0,0 +1,6 @@
+-- Batimento gravado no primário para medir o atraso da réplica de leitura.
+create table batimento_replica (
+    id number(19,0) not null,
+    instante number(19,0) not null,
+    constraint pk_batimento_replica primary key (id)
+);
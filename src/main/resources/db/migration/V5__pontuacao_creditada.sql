@@ -0,0 +1,4 @@
+-- Perfil e pontos creditados por uma validação pontuada, para o estorno
+-- debitar o mesmo crédito mesmo que o desafio da validação mude depois.
+alter table validacao_desafio add perfil_pontuado_id number(19,0);
+alter table validacao_desafio add pontos_pontuados number(10,0);
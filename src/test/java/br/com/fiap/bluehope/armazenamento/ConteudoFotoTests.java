@@ -0,0 +1,205 @@
+package br.com.fiap.bluehope.armazenamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.repository.FotoRepository;
+
+/**
+ * Envio e download do conteúdo das fotos pela API: faixas de bytes,
+ * compartilhamento do arquivo entre fotos com os mesmos bytes e geração das
+ * variantes. Os bytes são sorteados a cada execução, já que o diretório de
+ * armazenamento do perfil bench sobrevive entre execuções. Usa a mesma
+ * configuração de {@code ConsultasPorEndpointTests} para compartilhar o
+ * contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class ConteudoFotoTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	FotoRepository fotos;
+
+	@Autowired
+	ArmazenamentoFotos armazenamento;
+
+	@Test
+	void downloadDevolveOsBytesEnviadosComEtagDoConteudo() throws Exception {
+		long id = novaFoto();
+		byte[] bytes = sortear(5000);
+
+		mvc.perform(enviar(id, bytes))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.tipoConteudo").value("image/png"))
+				.andExpect(jsonPath("$.tamanhoConteudo").value(bytes.length))
+				.andExpect(jsonPath("$._links.conteudo.href").exists());
+
+		var resposta = mvc.perform(get("/foto/{id}/conteudo", id))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andReturn().getResponse();
+		assertThat(resposta.getContentAsByteArray()).isEqualTo(bytes);
+		String etag = resposta.getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isEqualTo("\"" + fotos.findChavesById(id).orElseThrow().conteudo() + "\"");
+
+		mvc.perform(get("/foto/{id}/conteudo", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void faixasDeBytes() throws Exception {
+		long id = novaFoto();
+		byte[] bytes = sortear(1000);
+		mvc.perform(enviar(id, bytes)).andExpect(status().isOk());
+		String etag = mvc.perform(get("/foto/{id}/conteudo", id)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		var faixa = mvc.perform(get("/foto/{id}/conteudo", id).header(HttpHeaders.RANGE, "bytes=100-199"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+				.andReturn().getResponse();
+		assertThat(faixa.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(bytes, 100, 200));
+
+		var sufixo = mvc.perform(get("/foto/{id}/conteudo", id)
+						.header(HttpHeaders.RANGE, "bytes=-50")
+						.header(HttpHeaders.IF_RANGE, etag))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 950-999/1000"))
+				.andReturn().getResponse();
+		assertThat(sufixo.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(bytes, 950, 1000));
+
+		mvc.perform(get("/foto/{id}/conteudo", id).header(HttpHeaders.RANGE, "bytes=1000-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+
+		// If-Range de outro conteúdo: a faixa é ignorada e o arquivo vai inteiro
+		var inteiro = mvc.perform(get("/foto/{id}/conteudo", id)
+						.header(HttpHeaders.RANGE, "bytes=100-199")
+						.header(HttpHeaders.IF_RANGE, "\"outro-conteudo\""))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+				.andReturn().getResponse();
+		assertThat(inteiro.getContentAsByteArray()).isEqualTo(bytes);
+	}
+
+	@Test
+	void arquivoCompartilhadoSoSaiComAUltimaFoto() throws Exception {
+		long primeira = novaFoto();
+		long segunda = novaFoto();
+		byte[] bytes = sortear(2000);
+		mvc.perform(enviar(primeira, bytes)).andExpect(status().isOk());
+		mvc.perform(enviar(segunda, bytes)).andExpect(status().isOk());
+
+		String chave = fotos.findChavesById(primeira).orElseThrow().conteudo();
+		assertThat(fotos.findChavesById(segunda).orElseThrow().conteudo()).isEqualTo(chave);
+
+		mvc.perform(delete("/foto/{id}", primeira)).andExpect(status().isNoContent());
+		assertThat(armazenamento.abrir(chave)).isPresent();
+		var resposta = mvc.perform(get("/foto/{id}/conteudo", segunda))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+		assertThat(resposta.getContentAsByteArray()).isEqualTo(bytes);
+
+		mvc.perform(delete("/foto/{id}", segunda)).andExpect(status().isNoContent());
+		assertThat(armazenamento.abrir(chave)).isEmpty();
+		mvc.perform(get("/foto/{id}/conteudo", segunda)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void variantesFicamProntasEReduzidas() throws Exception {
+		long id = novaFoto();
+		mvc.perform(enviar(id, imagem(1200, 900))).andExpect(status().isOk());
+
+		String status = null;
+		for (int i = 0; i < 100 && !"PRONTA".equals(status); i++) {
+			Thread.sleep(100);
+			status = JsonPath.read(mvc.perform(get("/foto/{id}", id)).andReturn().getResponse().getContentAsString(),
+					"$.statusVariantes");
+		}
+		assertThat(status).isEqualTo("PRONTA");
+
+		mvc.perform(get("/foto/{id}", id))
+				.andExpect(jsonPath("$._links.thumb.href").exists())
+				.andExpect(jsonPath("$._links.medium.href").exists());
+		for (var variante : Variante.values()) {
+			var resposta = mvc.perform(get("/foto/{id}/conteudo", id).param("variant", variante.nome()))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+					.andReturn().getResponse();
+			var reduzida = ImageIO.read(new ByteArrayInputStream(resposta.getContentAsByteArray()));
+			assertThat(Math.max(reduzida.getWidth(), reduzida.getHeight())).isEqualTo(variante.lado());
+		}
+	}
+
+	private long novaFoto() {
+		var foto = new Foto();
+		foto.setCaminhoFoto("conteudo.png");
+		return fotos.save(foto).getId();
+	}
+
+	private static MockMultipartFile arquivo(byte[] bytes) {
+		return new MockMultipartFile("arquivo", "foto.png", "image/png", bytes);
+	}
+
+	private static MockMultipartHttpServletRequestBuilder enviar(long id, byte[] bytes) {
+		return multipart("/foto/{id}/conteudo", id).file(arquivo(bytes));
+	}
+
+	private static byte[] sortear(int tamanho) {
+		byte[] bytes = new byte[tamanho];
+		ThreadLocalRandom.current().nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] imagem(int largura, int altura) throws Exception {
+		var imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+		var g = imagem.createGraphics();
+		g.setColor(new Color(ThreadLocalRandom.current().nextInt(0x1000000)));
+		g.fillRect(0, 0, largura, altura);
+		g.dispose();
+		var saida = new ByteArrayOutputStream();
+		ImageIO.write(imagem, "png", saida);
+		return saida.toByteArray();
+	}
+}
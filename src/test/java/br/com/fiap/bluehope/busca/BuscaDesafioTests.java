@@ -0,0 +1,109 @@
+package br.com.fiap.bluehope.busca;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Busca por palavras na descrição dos desafios. Usa a mesma configuração de
+ * {@code ConsultasPorEndpointTests} para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class BuscaDesafioTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	void termosSaoNormalizadosSemAcentoEPalavrasVazias() {
+		assertThat(IndiceInvertido.termos("Recolher ÓLEO de cozinha, óleo usado!"))
+				.containsExactly("recolher", "oleo", "cozinha", "usado");
+	}
+
+	@Test
+	void buscaPorPrefixoIgnoraAcentosEMaiusculas() throws Exception {
+		mvc.perform(get("/desafio/search").param("q", "RECIC").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$._embedded.desafioList", hasSize(5)))
+				.andExpect(jsonPath("$._embedded.desafioList[*].descricao", everyItem(startsWith("Reciclar"))))
+				.andExpect(jsonPath("$._links.next.href").exists());
+
+		mvc.perform(get("/desafio/search").param("q", "oleo cozi").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$._embedded.desafioList[*].descricao", everyItem(endsWith("óleo de cozinha"))));
+	}
+
+	@Test
+	void paginasSeguemOCursor() throws Exception {
+		List<Integer> primeira = ids(get("/desafio/search").param("q", "latas").param("limit", "3"));
+		List<Integer> segunda = ids(get("/desafio/search").param("q", "latas").param("limit", "3")
+				.param("after", String.valueOf(primeira.get(2))));
+
+		assertThat(primeira).isSorted().hasSize(3);
+		assertThat(segunda).isSorted().hasSize(3);
+		assertThat(segunda.get(0)).isGreaterThan(primeira.get(2));
+	}
+
+	@Test
+	void escritasDoControllerAtualizamOIndice() throws Exception {
+		String corpo = mvc.perform(post("/desafio").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"descricao\": \"Compostar cascas de maçã\", \"pontos\": 10, \"perfil\": {\"id\": 1}}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		Integer id = JsonPath.read(corpo, "$.id");
+		assertThat(ids(get("/desafio/search").param("q", "maca compost"))).containsExactly(id);
+
+		mvc.perform(put("/desafio/{id}", id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"descricao\": \"Compostar borra de café\", \"pontos\": 10, \"perfil\": {\"id\": 1}, \"versao\": 0}"))
+				.andExpect(status().isOk());
+		assertThat(ids(get("/desafio/search").param("q", "maca"))).isEmpty();
+		assertThat(ids(get("/desafio/search").param("q", "cafe compost"))).containsExactly(id);
+
+		mvc.perform(delete("/desafio/{id}", id)).andExpect(status().isNoContent());
+		assertThat(ids(get("/desafio/search").param("q", "cafe"))).isEmpty();
+	}
+
+	@Test
+	void consultaVaziaRetorna400() throws Exception {
+		mvc.perform(get("/desafio/search").param("q", " ")).andExpect(status().isBadRequest());
+	}
+
+	private List<Integer> ids(RequestBuilder requisicao) throws Exception {
+		String corpo = mvc.perform(requisicao)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(corpo, "$..desafioList[*].id");
+	}
+}
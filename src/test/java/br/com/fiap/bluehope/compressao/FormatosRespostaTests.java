@@ -0,0 +1,136 @@
+package br.com.fiap.bluehope.compressao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.fiap.bluehope.config.FormatosBinariosConfiguration;
+
+/**
+ * Negociação de CBOR e Smile pelo {@code Accept} e compressão gzip pelo
+ * {@code Accept-Encoding}. Usa a mesma configuração de
+ * {@code ConsultasPorEndpointTests} para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class FormatosRespostaTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	void formatosBinariosMantemAEstruturaHalComEtagPropria() throws Exception {
+		var json = new ObjectMapper().readTree(mvc.perform(get("/desafio?size=20"))
+				.andReturn().getResponse().getContentAsByteArray());
+		String etagJson = mvc.perform(get("/desafio?size=20")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		var formatos = new Object[][] {
+				{ MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()) },
+				{ FormatosBinariosConfiguration.APPLICATION_SMILE, new ObjectMapper(new SmileFactory()) }
+		};
+		for (var formato : formatos) {
+			var tipo = (MediaType) formato[0];
+			var resposta = mvc.perform(get("/desafio?size=20").accept(tipo))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, tipo.toString()))
+					.andReturn().getResponse();
+
+			assertThat(((ObjectMapper) formato[1]).readTree(resposta.getContentAsByteArray())).isEqualTo(json);
+			assertThat(resposta.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+			String etag = resposta.getHeader(HttpHeaders.ETAG);
+			assertThat(etag).isNotEqualTo(etagJson).endsWith("-" + tipo.getSubtype() + "\"");
+
+			mvc.perform(get("/desafio?size=20").accept(tipo).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified());
+			mvc.perform(get("/desafio?size=20").header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isOk());
+		}
+	}
+
+	@Test
+	void respostaGrandeSaiComGzipEEtagComSufixo() throws Exception {
+		var simples = mvc.perform(get("/desafio?size=100")).andReturn().getResponse();
+
+		var comprimida = mvc.perform(get("/desafio?size=100").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse();
+
+		byte[] corpo = comprimida.getContentAsByteArray();
+		assertThat(corpo.length).isLessThan(simples.getContentAsByteArray().length / 4);
+		try (var gzip = new GZIPInputStream(new ByteArrayInputStream(corpo))) {
+			assertThat(gzip.readAllBytes()).isEqualTo(simples.getContentAsByteArray());
+		}
+		assertThat(comprimida.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+		String etag = comprimida.getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isEqualTo(simples.getHeader(HttpHeaders.ETAG).replaceAll("\"$", "-gzip\""));
+
+		mvc.perform(get("/desafio?size=100")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	void exportacaoAssincronaSaiComGzip() throws Exception {
+		var simples = mvc.perform(get("/export/foto"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(simples)).andExpect(status().isOk());
+
+		var comprimida = mvc.perform(get("/export/foto").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(comprimida))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+		try (var gzip = new GZIPInputStream(new ByteArrayInputStream(comprimida.getResponse().getContentAsByteArray()))) {
+			assertThat(gzip.readAllBytes()).isEqualTo(simples.getResponse().getContentAsByteArray());
+		}
+	}
+
+	@Test
+	void respostaPequenaOuGzipRecusadoSaiSemCompressao() throws Exception {
+		var detalhe = mvc.perform(get("/desafio/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse();
+		assertThat(new ObjectMapper().readTree(detalhe.getContentAsByteArray()).path("id").asLong()).isEqualTo(1);
+
+		mvc.perform(get("/desafio?size=100").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+}
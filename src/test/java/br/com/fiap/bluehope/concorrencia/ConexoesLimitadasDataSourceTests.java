@@ -0,0 +1,46 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Limite de conexões do modo com threads virtuais sobre um H2 em memória.
+ */
+class ConexoesLimitadasDataSourceTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	ConexoesLimitadasDataSource dataSource() {
+		var h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:limite");
+		return new ConexoesLimitadasDataSource(h2, 2, Duration.ofMillis(50), registry);
+	}
+
+	@Test
+	void recusaQuandoTodasAsVagasEstaoEmUso() throws Exception {
+		var dataSource = dataSource();
+		try (Connection primeira = dataSource.getConnection(); Connection segunda = dataSource.getConnection()) {
+			assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+			assertThat(registry.counter("bluehope.banco.conexoes.recusadas").count()).isEqualTo(1);
+		}
+		assertThat(registry.get("bluehope.banco.conexoes.livres").gauge().value()).isEqualTo(2);
+	}
+
+	@Test
+	void fecharDuasVezesLiberaUmaVagaSo() throws Exception {
+		var dataSource = dataSource();
+		Connection conexao = dataSource.getConnection();
+		conexao.close();
+		conexao.close();
+		assertThat(registry.get("bluehope.banco.conexoes.livres").gauge().value()).isEqualTo(2);
+	}
+}
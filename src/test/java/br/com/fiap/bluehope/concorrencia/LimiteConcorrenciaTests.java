@@ -0,0 +1,150 @@
+package br.com.fiap.bluehope.concorrencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import br.com.fiap.bluehope.concorrencia.LimiteAdaptativo.Prioridade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Ajuste AIMD do limite e recusa com 503 no filtro.
+ */
+class LimiteConcorrenciaTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	PropriedadesLimite propriedades() {
+		var propriedades = new PropriedadesLimite();
+		propriedades.setInicial(8);
+		propriedades.setMinimo(2);
+		propriedades.setMaximo(10);
+		propriedades.setLatenciaMaxima(Duration.ofMillis(100));
+		propriedades.setReducao(0.5);
+		return propriedades;
+	}
+
+	@Test
+	void cresceCercaDeUmaVagaPorLimiteAtendidoComOLimiteEmUso() {
+		var limite = new LimiteAdaptativo("desafio", propriedades(), registry);
+		limite.adquirir(Prioridade.LEITURA);
+		limite.liberar(Prioridade.LEITURA, System.nanoTime(), false);
+		assertThat(limite.getLimite()).isEqualTo(8);
+
+		for (int i = 0; i < 8; i++) {
+			limite.adquirir(Prioridade.LEITURA);
+		}
+		for (int i = 0; i < 9; i++) {
+			limite.liberar(Prioridade.LEITURA, System.nanoTime(), false);
+			limite.adquirir(Prioridade.LEITURA);
+		}
+		assertThat(limite.getLimite()).isEqualTo(9);
+	}
+
+	@Test
+	void reduzUmaVezPorJanelaELotesLentosNaoContam() throws InterruptedException {
+		var limite = new LimiteAdaptativo("desafio", propriedades(), registry);
+		long inicio = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			limite.adquirir(Prioridade.LEITURA);
+		}
+		Thread.sleep(120);
+		limite.liberar(Prioridade.LEITURA, inicio, false);
+		limite.liberar(Prioridade.LEITURA, inicio, true);
+		assertThat(limite.getLimite()).isEqualTo(4);
+
+		limite.adquirir(Prioridade.LEITURA);
+		limite.liberar(Prioridade.LEITURA, System.nanoTime(), true);
+		limite.liberar(Prioridade.LEITURA, inicio, false);
+		assertThat(limite.getLimite()).isEqualTo(2);
+		assertThat(limite.getEmUso()).isZero();
+
+		limite.adquirir(Prioridade.LOTE);
+		long inicioLote = System.nanoTime();
+		Thread.sleep(120);
+		limite.liberar(Prioridade.LOTE, inicioLote, false);
+		assertThat(limite.getLimite()).isEqualTo(2);
+	}
+
+	@Test
+	void lotesNaoOcupamAsVagasDasLeituras() {
+		var limite = new LimiteAdaptativo("desafio", propriedades(), registry);
+		assertThat(limite.adquirir(Prioridade.LOTE)).isTrue();
+		assertThat(limite.adquirir(Prioridade.LOTE)).isTrue();
+		assertThat(limite.adquirir(Prioridade.LOTE)).isFalse();
+		for (int i = 0; i < 6; i++) {
+			assertThat(limite.adquirir(Prioridade.LEITURA)).isTrue();
+		}
+		assertThat(limite.adquirir(Prioridade.LEITURA)).isFalse();
+		assertThat(limite.getRecusadas(Prioridade.LOTE)).isEqualTo(1);
+		assertThat(limite.getRecusadas(Prioridade.LEITURA)).isEqualTo(1);
+	}
+
+	@Test
+	void escritasDeixamVagasParaAsLeituras() {
+		var limite = new LimiteAdaptativo("desafio", propriedades(), registry);
+		for (int i = 0; i < 6; i++) {
+			assertThat(limite.adquirir(Prioridade.ESCRITA)).isTrue();
+		}
+		assertThat(limite.adquirir(Prioridade.ESCRITA)).isFalse();
+		assertThat(limite.adquirir(Prioridade.TRANSFERENCIA)).isFalse();
+		assertThat(limite.adquirir(Prioridade.LEITURA)).isTrue();
+		assertThat(limite.adquirir(Prioridade.LEITURA)).isTrue();
+		assertThat(limite.adquirir(Prioridade.LEITURA)).isFalse();
+		assertThat(new LimitesEndpoint(List.of(limite)).limites().get(0).recusadas())
+				.isEqualTo(new LimitesEndpoint.Recusadas(1, 1, 1, 0));
+	}
+
+	@Test
+	void envioLentoDeConteudoNaoReduzOLimite() throws Exception {
+		var propriedades = propriedades();
+		var limite = new LimiteAdaptativo("foto", propriedades, registry);
+		var filter = new LimiteConcorrenciaFilter(List.of(limite), propriedades);
+		FilterChain lenta = (request, response) -> {
+			try {
+				Thread.sleep(120);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+
+		filter.doFilter(new MockHttpServletRequest("POST", "/foto/1/conteudo"), new MockHttpServletResponse(), lenta);
+		filter.doFilter(new MockHttpServletRequest("GET", "/foto/1/conteudo"), new MockHttpServletResponse(), lenta);
+		assertThat(limite.getLimite()).isEqualTo(8);
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/foto/1"), new MockHttpServletResponse(), lenta);
+		assertThat(limite.getLimite()).isEqualTo(4);
+	}
+
+	@Test
+	void filtroRecusaComRetryAfterForaDoLimiteEIgnoraOutrosCaminhos() throws Exception {
+		var propriedades = propriedades();
+		var limite = new LimiteAdaptativo("foto", propriedades, registry);
+		var filter = new LimiteConcorrenciaFilter(List.of(limite), propriedades);
+		for (int i = 0; i < 8; i++) {
+			limite.adquirir(Prioridade.LEITURA);
+		}
+
+		var recusada = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/foto/1"), recusada, new MockFilterChain());
+		assertThat(recusada.getStatus()).isEqualTo(503);
+		assertThat(recusada.getHeader("Retry-After")).isEqualTo("1");
+
+		var livre = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), livre, new MockFilterChain());
+		assertThat(livre.getStatus()).isEqualTo(200);
+
+		limite.liberar(Prioridade.LEITURA, System.nanoTime(), false);
+		var atendida = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/foto/1"), atendida, new MockFilterChain());
+		assertThat(atendida.getStatus()).isEqualTo(200);
+		assertThat(limite.getEmUso()).isEqualTo(7);
+	}
+}
@@ -0,0 +1,124 @@
+package br.com.fiap.bluehope.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+
+/**
+ * Mesma configuração de {@code ConsultasPorEndpointTests}, para compartilhar o
+ * contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class DependenciasCacheTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	PerfilRepository perfis;
+
+	@Autowired
+	DesafioRepository desafios;
+
+	@Autowired
+	FotoRepository fotos;
+
+	@Test
+	void gravarDesafioRemoveSoAsFotosQueOEmbutem() throws Exception {
+		var perfil = perfil("Dependências");
+		var alterado = desafio(perfil, "Antes");
+		var outro = desafio(perfil, "Outro");
+		var fotoAlterada = foto(alterado);
+		var fotoOutra = foto(outro);
+
+		mvc.perform(get("/foto/{id}", fotoAlterada.getId()))
+				.andExpect(jsonPath("$.desafio.descricao").value("Antes"));
+		mvc.perform(get("/foto/{id}", fotoOutra.getId())).andExpect(status().isOk());
+
+		mvc.perform(put("/desafio/{id}", alterado.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"descricao": "Depois", "pontos": 5, "versao": %d, "perfil": {"id": %d}}
+						""".formatted(alterado.getVersao(), perfil.getId())))
+				.andExpect(status().isOk());
+
+		var cache = cacheManager.getCache("fotos");
+		assertThat(cache.get(fotoAlterada.getId())).isNull();
+		assertThat(cache.get(fotoOutra.getId())).isNotNull();
+		mvc.perform(get("/foto/{id}", fotoAlterada.getId()))
+				.andExpect(jsonPath("$.desafio.descricao").value("Depois"));
+	}
+
+	@Test
+	void gravarPerfilRemoveOsDesafiosQueOEmbutem() throws Exception {
+		var perfil = perfil("Antes");
+		var desafio = desafio(perfil, "Do perfil");
+
+		mvc.perform(get("/desafio/{id}", desafio.getId()))
+				.andExpect(jsonPath("$.perfil.nome").value("Antes"));
+
+		mvc.perform(put("/perfil/{id}", perfil.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"nome": "Depois", "somaPontos": 0, "medalha": "Iniciante", "versao": %d}
+						""".formatted(perfil.getVersao())))
+				.andExpect(status().isOk());
+
+		mvc.perform(get("/desafio/{id}", desafio.getId()))
+				.andExpect(jsonPath("$.perfil.nome").value("Depois"));
+	}
+
+	private Perfil perfil(String nome) {
+		var perfil = new Perfil();
+		perfil.setNome(nome);
+		perfil.setMedalha("Iniciante");
+		return perfis.save(perfil);
+	}
+
+	private Desafio desafio(Perfil perfil, String descricao) {
+		var desafio = new Desafio();
+		desafio.setDescricao(descricao);
+		desafio.setPontos(5);
+		desafio.setPerfil(perfil);
+		return desafios.save(desafio);
+	}
+
+	private Foto foto(Desafio desafio) {
+		var foto = new Foto();
+		foto.setCaminhoFoto("dependencias.jpg");
+		foto.setDesafio(desafio);
+		return fotos.save(foto);
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.fiap.bluehope.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Beans do springdoc criados só no primeiro uso. Usa a mesma configuração de
+ * {@code ConsultasPorEndpointTests} para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class InicializacaoSobDemandaTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ConfigurableListableBeanFactory beanFactory;
+
+	@Test
+	void documentacaoESoCriadaNoPrimeiroAcesso() throws Exception {
+		assertThat(beanFactory.getBeanDefinition("openApiResource").isLazyInit()).isTrue();
+		assertThat(beanFactory.containsSingleton("openApiResource")).isFalse();
+
+		mvc.perform(get("/v3/api-docs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.paths['/desafio/search']").exists());
+		assertThat(beanFactory.containsSingleton("openApiResource")).isTrue();
+		mvc.perform(get("/docs")).andExpect(status().is3xxRedirection());
+	}
+
+	@Test
+	void beansDaAplicacaoContinuamSendoCriadosNaSubida() {
+		assertThat(beanFactory.getBeanDefinition("rankingService").isLazyInit()).isFalse();
+		assertThat(beanFactory.containsSingleton("rankingService")).isTrue();
+	}
+}
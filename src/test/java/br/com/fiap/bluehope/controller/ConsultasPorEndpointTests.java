@@ -0,0 +1,294 @@
+package br.com.fiap.bluehope.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.pontuacao.PontuacaoService;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.FotoRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import br.com.fiap.bluehope.repository.UsuarioRepository;
+import br.com.fiap.bluehope.repository.ValidacaoDesafioRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Número de comandos SQL por endpoint sobre os dados sintéticos do profile
+ * {@code bench}, com os caches vazios. Listagens e detalhes não podem depender
+ * da quantidade de linhas nem das associações.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class ConsultasPorEndpointTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	FotoRepository fotos;
+
+	@Autowired
+	DesafioRepository desafios;
+
+	@Autowired
+	PerfilRepository perfis;
+
+	@Autowired
+	UsuarioRepository usuarios;
+
+	@Autowired
+	ValidacaoDesafioRepository validacoes;
+
+	@Autowired
+	PontuacaoService pontuacao;
+
+	Statistics estatisticas;
+
+	@BeforeEach
+	void setUp() {
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+		// a pontuação das validações alteradas antes roda em segundo plano e entraria na contagem
+		pontuacao.aplicarPendentes();
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"/foto?limit=100, 1",
+			"/desafio?size=100, 2",
+			"/perfil?limit=100, 1",
+			"/usuario?limit=100, 1",
+			"/validacaodesafio?limit=100, 1",
+			"/perfil/ranking?top=100, 0"
+	})
+	void listagens(String uri, int comandos) throws Exception {
+		assertThat(comandos(uri)).isEqualTo(comandos);
+	}
+
+	@Test
+	void detalheDeFotoTrazODesafioEOPerfilSoPeloId() throws Exception {
+		long id = fotos.findResumosByIdGreaterThan(0L, Limit.of(1)).get(0).id();
+
+		estatisticas.clear();
+		mvc.perform(get("/foto/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.desafio.descricao").exists())
+				.andExpect(jsonPath("$.desafio.perfil.id").exists())
+				.andExpect(jsonPath("$.desafio.perfil.nome").doesNotExist());
+		assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void detalhesFazemUmaUnicaConsulta() throws Exception {
+		long desafio = desafios.findResumos(Pageable.ofSize(1)).getContent().get(0).id();
+		long perfil = perfis.findResumosByIdGreaterThan(0L, Limit.of(1)).get(0).id();
+		long usuario = usuarios.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0).getId();
+		long validacao = validacoes.findResumosByIdGreaterThan(0L, Limit.of(1)).get(0).id();
+
+		assertThat(comandos("/desafio/" + desafio)).isEqualTo(1);
+		assertThat(comandos("/perfil/" + perfil)).isEqualTo(1);
+		assertThat(comandos("/usuario/" + usuario)).isEqualTo(1);
+		assertThat(comandos("/validacaodesafio/" + validacao)).isEqualTo(1);
+		assertThat(comandos("/perfil/" + perfil + "/rank")).isZero();
+	}
+
+	@Test
+	void listagemNaoCarregaAssociacoes() throws Exception {
+		mvc.perform(get("/foto?limit=5"))
+				.andExpect(jsonPath("$._embedded.fotoList[0].desafio.id").exists())
+				.andExpect(jsonPath("$._embedded.fotoList[0].desafio.descricao").doesNotExist());
+		mvc.perform(get("/perfil?limit=5"))
+				.andExpect(jsonPath("$._embedded.perfilList[0].usuario.id").exists())
+				.andExpect(jsonPath("$._embedded.perfilList[0].usuario.email").doesNotExist());
+	}
+
+	@Test
+	void senhaNaoSaiNasRespostas() throws Exception {
+		long perfil = perfis.findResumosByIdGreaterThan(0L, Limit.of(1)).get(0).id();
+
+		mvc.perform(get("/perfil/{id}", perfil))
+				.andExpect(jsonPath("$.usuario.email").exists())
+				.andExpect(jsonPath("$.usuario.senha").doesNotExist());
+		mvc.perform(get("/usuario?limit=5"))
+				.andExpect(jsonPath("$._embedded.usuarioList[0].email").exists())
+				.andExpect(jsonPath("$._embedded.usuarioList[0].senha").doesNotExist());
+	}
+
+	@Test
+	void exportacaoFazUmaUnicaConsulta() throws Exception {
+		estatisticas.clear();
+		var resultado = mvc.perform(get("/export/foto"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+
+		assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(resultado.getResponse().getContentAsString().lines())
+				.hasSize((int) fotos.count())
+				.allSatisfy(linha -> assertThat(linha).contains("\"desafio\":{\"id\":").doesNotContain("descricao"));
+	}
+
+	@Test
+	void updateFazUmUnicoComando() throws Exception {
+		var foto = fotos.findResumosByIdGreaterThan(0L, Limit.of(2)).get(1);
+		var desafio = desafios.findResumos(Pageable.ofSize(2)).getContent().get(1);
+		var perfil = perfis.findResumosByIdGreaterThan(0L, Limit.of(2)).get(1);
+		var usuario = usuarios.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)).get(1);
+
+		long versaoFoto = fotos.findById(foto.id()).orElseThrow().getVersao();
+		long versaoDesafio = desafios.findById(desafio.id()).orElseThrow().getVersao();
+		long versaoPerfil = perfis.findById(perfil.id()).orElseThrow().getVersao();
+
+		assertThat(comandos(json(put("/foto/{id}", foto.id()), """
+				{"caminhoFoto": "%s", "desafio": {"id": %d}, "versao": %d}
+				""".formatted(foto.caminhoFoto(), foto.desafio().id(), versaoFoto)), status().isOk())).isEqualTo(1);
+		assertThat(comandos(json(put("/desafio/{id}", desafio.id()), """
+				{"descricao": "%s", "pontos": %d, "perfil": {"id": %d}, "versao": %d}
+				""".formatted(desafio.descricao(), desafio.pontos(), desafio.perfil().id(), versaoDesafio)), status().isOk())).isEqualTo(1);
+		assertThat(comandos(json(put("/perfil/{id}", perfil.id()), """
+				{"nome": "%s", "somaPontos": %d, "medalha": "%s", "usuario": {"id": %d}, "versao": %d}
+				""".formatted(perfil.nome(), perfil.somaPontos(), perfil.medalha(), perfil.usuario().id(), versaoPerfil)), status().isOk())).isEqualTo(1);
+		assertThat(comandos(json(put("/usuario/{id}", usuario.getId()), """
+				{"email": "%s", "telefone": "%s", "cpf": "%s", "senha": "%s", "versao": %d}
+				""".formatted(usuario.getEmail(), usuario.getTelefone(), usuario.getCpf(), usuario.getSenha(), usuario.getVersao())), status().isOk())).isEqualTo(1);
+	}
+
+	@Test
+	void updateDeValidacaoDeixaAPontuacaoParaDepois() throws Exception {
+		var validacao = validacoes.findResumosByIdGreaterThan(0L, Limit.of(2)).get(1);
+		long versao = validacoes.findById(validacao.id()).orElseThrow().getVersao();
+
+		// a pontuação é conferida depois, pelo PontuacaoService.aplicarPendentes
+		assertThat(comandos(json(put("/validacaodesafio/{id}", validacao.id()), """
+				{"valido": %s, "desafio": {"id": %d}, "versao": %d}
+				""".formatted(validacao.valido(), validacao.desafio().id(), versao)), status().isOk())).isEqualTo(1);
+	}
+
+	@Test
+	void updateInvalidoRetorna400SemTocarNoBanco() throws Exception {
+		var desafio = desafios.findResumos(Pageable.ofSize(1)).getContent().get(0);
+
+		assertThat(comandos(json(put("/desafio/{id}", desafio.id()), """
+				{"descricao": null, "pontos": 0, "versao": 0}
+				"""), status().isBadRequest())).isZero();
+	}
+
+	@Test
+	void updateRespondeComAVersaoGravada() throws Exception {
+		var perfil = perfis.findResumosByIdGreaterThan(0L, Limit.of(3)).get(2);
+		long versao = perfis.findById(perfil.id()).orElseThrow().getVersao();
+
+		mvc.perform(json(put("/perfil/{id}", perfil.id()), """
+				{"nome": "%s", "somaPontos": %d, "medalha": "%s", "usuario": {"id": %d}, "versao": %d}
+				""".formatted(perfil.nome(), perfil.somaPontos(), perfil.medalha(), perfil.usuario().id(), versao)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.versao").value(versao + 1));
+		assertThat(perfis.findById(perfil.id()).orElseThrow().getVersao()).isEqualTo(versao + 1);
+	}
+
+	@Test
+	void updateDeRegistroInexistenteRetorna404() throws Exception {
+		mvc.perform(json(put("/desafio/{id}", Long.MAX_VALUE), """
+				{"descricao": "Inexistente", "pontos": 10, "versao": 0}
+				"""))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void deleteFazUmUnicoComando() throws Exception {
+		var usuario = new Usuario();
+		usuario.setEmail("apagar@bluehope.example");
+		usuario.setTelefone("11999999999");
+		usuario.setCpf("88888888888");
+		usuario.setSenha("segredo");
+		usuario = usuarios.save(usuario);
+		var perfil = new Perfil();
+		perfil.setNome("Apagar");
+		perfil.setMedalha("Iniciante");
+		perfil = perfis.save(perfil);
+		var desafio = new Desafio();
+		desafio.setDescricao("Apagar");
+		desafio.setPontos(10);
+		desafio = desafios.save(desafio);
+
+		assertThat(comandos(delete("/desafio/{id}", desafio.getId()), status().isNoContent())).isEqualTo(1);
+		assertThat(comandos(delete("/perfil/{id}", perfil.getId()), status().isNoContent())).isEqualTo(1);
+		assertThat(comandos(delete("/usuario/{id}", usuario.getId()), status().isNoContent())).isEqualTo(1);
+		assertThat(comandos(delete("/desafio/{id}", desafio.getId()), status().isNotFound())).isEqualTo(1);
+	}
+
+	@Test
+	void deleteQueDependeDoRegistroLeAntesDoDelete() throws Exception {
+		var foto = new Foto();
+		foto.setCaminhoFoto("apagar.jpg");
+		foto = fotos.save(foto);
+		var validacao = new ValidacaoDesafio();
+		validacao.setValido(false);
+		validacao = validacoes.save(validacao);
+
+		// as chaves do conteúdo são lidas antes do DELETE
+		assertThat(comandos(delete("/foto/{id}", foto.getId()), status().isNoContent())).isEqualTo(2);
+		// a validação é travada antes de a pontuação a estornar ser lida
+		assertThat(comandos(delete("/validacaodesafio/{id}", validacao.getId()), status().isNoContent())).isEqualTo(3);
+	}
+
+	private long comandos(String uri) throws Exception {
+		return comandos(get(uri), status().isOk());
+	}
+
+	private long comandos(MockHttpServletRequestBuilder requisicao, ResultMatcher esperado) throws Exception {
+		estatisticas.clear();
+		ResultActions resposta = mvc.perform(requisicao);
+		resposta.andExpect(esperado);
+		return estatisticas.getPrepareStatementCount();
+	}
+
+	private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder requisicao, String corpo) {
+		return requisicao.contentType(MediaType.APPLICATION_JSON).content(corpo);
+	}
+}
@@ -0,0 +1,167 @@
+package br.com.fiap.bluehope.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import br.com.fiap.bluehope.armazenamento.ConteudoFotoService;
+import br.com.fiap.bluehope.armazenamento.EnvioConteudo;
+import br.com.fiap.bluehope.config.CacheConfiguration;
+import br.com.fiap.bluehope.lote.LoteService;
+import br.com.fiap.bluehope.model.FotoResumo;
+import br.com.fiap.bluehope.repository.FotoRepository;
+
+@SpringJUnitConfig
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = {
+		"bluehope.cache.especificacoes.fotos-paginas=maximumSize=100,recordStats",
+		"bluehope.cache.servir-obsoleto=fotos-paginas",
+		"bluehope.cache.obsoleto-por=1m"
+})
+class FotoControllerCacheTests {
+
+	private static final int REQUISICOES = 32;
+
+	@Configuration
+	@EnableCaching
+	@Import({ CacheConfiguration.class, FotoController.class })
+	static class Config {
+
+		@Bean
+		FotoRepository fotoRepository() {
+			return mock(FotoRepository.class);
+		}
+	}
+
+	@Autowired
+	FotoController controller;
+
+	@Autowired
+	FotoRepository repository;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@MockBean
+	LoteService loteService;
+
+	@MockBean
+	ConteudoFotoService conteudoService;
+
+	@MockBean
+	EnvioConteudo envioConteudo;
+
+	ExecutorService executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newFixedThreadPool(REQUISICOES);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void missesConcorrentesFazemUmaUnicaConsulta() throws Exception {
+		var liberar = new CountDownLatch(1);
+		when(repository.findResumosByIdGreaterThan(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+			liberar.await(5, TimeUnit.SECONDS);
+			return List.of(foto(1L, "nova.jpg"));
+		});
+
+		var respostas = disparar(REQUISICOES);
+		Thread.sleep(200);
+		liberar.countDown();
+
+		for (var resposta : respostas) {
+			assertThat(caminhos(resposta.get(5, TimeUnit.SECONDS))).containsExactly("nova.jpg");
+		}
+		verify(repository, times(1)).findResumosByIdGreaterThan(anyLong(), any(Limit.class));
+	}
+
+	@Test
+	void servemValorAntigoEnquantoUmaRequisicaoRecarrega() throws Exception {
+		when(repository.findResumosByIdGreaterThan(anyLong(), any(Limit.class)))
+				.thenReturn(List.of(foto(1L, "antiga.jpg")));
+		controller.index(null, 20);
+		cacheManager.getCache("fotos-paginas").clear();
+
+		var liberar = new CountDownLatch(1);
+		when(repository.findResumosByIdGreaterThan(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+			liberar.await(5, TimeUnit.SECONDS);
+			return List.of(foto(1L, "nova.jpg"));
+		});
+
+		var respostas = disparar(REQUISICOES);
+		int antigas = 0;
+		Future<CollectionModel<EntityModel<FotoResumo>>> recarga = null;
+		for (var resposta : respostas) {
+			try {
+				assertThat(caminhos(resposta.get(1, TimeUnit.SECONDS))).containsExactly("antiga.jpg");
+				antigas++;
+			} catch (TimeoutException e) {
+				recarga = resposta;
+			}
+		}
+		liberar.countDown();
+
+		assertThat(antigas).isEqualTo(REQUISICOES - 1);
+		assertThat(caminhos(recarga.get(5, TimeUnit.SECONDS))).containsExactly("nova.jpg");
+		assertThat(caminhos(controller.index(null, 20))).containsExactly("nova.jpg");
+		verify(repository, times(2)).findResumosByIdGreaterThan(anyLong(), any(Limit.class));
+	}
+
+	private List<Future<CollectionModel<EntityModel<FotoResumo>>>> disparar(int quantidade) throws InterruptedException {
+		var largada = new CountDownLatch(1);
+		var respostas = new ArrayList<Future<CollectionModel<EntityModel<FotoResumo>>>>();
+		for (int i = 0; i < quantidade; i++) {
+			respostas.add(executor.submit(() -> {
+				largada.await();
+				return controller.index(null, 20);
+			}));
+		}
+		largada.countDown();
+		return respostas;
+	}
+
+	private static List<String> caminhos(CollectionModel<EntityModel<FotoResumo>> pagina) {
+		return pagina.getContent().stream().map(modelo -> modelo.getContent().caminhoFoto()).toList();
+	}
+
+	private static FotoResumo foto(Long id, String caminho) {
+		return new FotoResumo(id, caminho, (Long) null, null, null, null);
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.fiap.bluehope.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Foto;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.ranking.PosicaoRanking;
+
+class LinksRecursoTests {
+
+	private static final Long ID = 42L;
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "http://localhost:8080", "https://bluehope.example:8443" })
+	void geraOsMesmosLinksQueOLinkBuilder(String base) {
+		requisicao(base);
+
+		var desafio = new Desafio();
+		desafio.setId(ID);
+		assertThat(resumo(desafio.toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(DesafioController.class).show(ID)).withSelfRel(),
+				linkTo(methodOn(DesafioController.class).destroy(ID)).withRel("delete"),
+				linkTo(methodOn(DesafioController.class).index(null)).withRel("contents"))));
+		assertThat(resumo(desafio.toModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(DesafioController.class).index(null)).withRel("contents"))));
+
+		var foto = new Foto();
+		foto.setId(ID);
+		assertThat(resumo(foto.toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(FotoController.class).show(ID)).withSelfRel(),
+				linkTo(methodOn(FotoController.class).destroy(ID)).withRel("delete"),
+				linkTo(methodOn(FotoController.class).index(null, null)).withRel("contents"))));
+		assertThat(resumo(foto.toModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(FotoController.class).index(null, null)).withRel("contents"))));
+
+		var perfil = new Perfil();
+		perfil.setId(ID);
+		assertThat(resumo(perfil.toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(PerfilController.class).show(ID)).withSelfRel(),
+				linkTo(methodOn(PerfilController.class).destroy(ID)).withRel("delete"),
+				linkTo(methodOn(PerfilController.class).index(null, null)).withRel("contents"))));
+		assertThat(resumo(perfil.toModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(PerfilController.class).index(null, null)).withRel("contents"))));
+
+		var usuario = new Usuario();
+		usuario.setId(ID);
+		assertThat(resumo(usuario.toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(UsuarioController.class).show(ID)).withSelfRel(),
+				linkTo(methodOn(UsuarioController.class).destroy(ID)).withRel("delete"),
+				linkTo(methodOn(UsuarioController.class).index(null, null)).withRel("contents"))));
+
+		var validacao = new ValidacaoDesafio();
+		validacao.setId(ID);
+		assertThat(resumo(validacao.toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(ValidacaoDesafioController.class).show(ID)).withSelfRel(),
+				linkTo(methodOn(ValidacaoDesafioController.class).destroy(ID)).withRel("delete"),
+				linkTo(methodOn(ValidacaoDesafioController.class).index(null, null)).withRel("contents"))));
+
+		assertThat(resumo(new PosicaoRanking(1, ID, 10).toEntityModel().getLinks())).isEqualTo(resumo(Links.of(
+				linkTo(methodOn(PerfilController.class).rank(ID)).withSelfRel(),
+				linkTo(methodOn(PerfilController.class).show(ID)).withRel("perfil"))));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/api", "/api/v1" })
+	void mantemOContextPath(String contextPath) {
+		requisicao("https://bluehope.example:8443" + contextPath);
+
+		var desafio = new Desafio();
+		desafio.setId(ID);
+		assertThat(resumo(desafio.toEntityModel().getLinks())).containsExactly(
+				"self https://bluehope.example:8443" + contextPath + "/desafio/42 false",
+				"delete https://bluehope.example:8443" + contextPath + "/desafio/42 false",
+				"contents https://bluehope.example:8443" + contextPath + "/desafio false");
+	}
+
+	/**
+	 * O que vai para o JSON de cada link: rel, href e se é template.
+	 */
+	private static List<String> resumo(Links links) {
+		return links.stream().map(link -> link.getRel() + " " + link.getHref() + " " + link.isTemplated()).toList();
+	}
+
+	private static void requisicao(String base) {
+		if (base.isEmpty()) {
+			return;
+		}
+		var uri = URI.create(base);
+		var request = new MockHttpServletRequest("GET", uri.getPath() + "/foto");
+		request.setScheme(uri.getScheme());
+		request.setServerName(uri.getHost());
+		request.setServerPort(uri.getPort());
+		request.setContextPath(uri.getPath());
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+}
@@ -0,0 +1,80 @@
+package br.com.fiap.bluehope.lote;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.bluehope.config.NdjsonHttpMessageConverter;
+import br.com.fiap.bluehope.repository.FotoRepository;
+
+/**
+ * Mesma configuração de {@code ConsultasPorEndpointTests}, para compartilhar o
+ * contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class LoteTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	FotoRepository fotos;
+
+	@Test
+	void itemComIdOuVersaoRecusaOLoteCom400() throws Exception {
+		long antes = fotos.count();
+
+		mvc.perform(post("/foto/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						[{"caminhoFoto": "a.jpg"}, {"id": 1, "caminhoFoto": "b.jpg"}, {"versao": 3, "caminhoFoto": "c.jpg"}]
+						"""))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].indice").value(1))
+				.andExpect(jsonPath("$[0].erros[0].campo").value("id"))
+				.andExpect(jsonPath("$[1].indice").value(2))
+				.andExpect(jsonPath("$[1].erros[0].campo").value("versao"));
+
+		assertThat(fotos.count()).isEqualTo(antes);
+	}
+
+	@Test
+	void errosDoLoteSaemEmNdjsonQuandoPedido() throws Exception {
+		var resposta = mvc.perform(post("/foto/batch")
+				.contentType(NdjsonHttpMessageConverter.APPLICATION_NDJSON)
+				.accept(NdjsonHttpMessageConverter.APPLICATION_NDJSON)
+				.content("""
+						{"caminhoFoto": null}
+						{"id": 7, "caminhoFoto": "b.jpg"}
+						"""))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentTypeCompatibleWith(NdjsonHttpMessageConverter.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(resposta.lines()).satisfiesExactly(
+				linha -> assertThat(linha).startsWith("{\"indice\":0,\"erros\":[{\"campo\":\"caminhoFoto\""),
+				linha -> assertThat(linha).startsWith("{\"indice\":1,\"erros\":[{\"campo\":\"id\""));
+	}
+}
@@ -0,0 +1,86 @@
+package br.com.fiap.bluehope.metricas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas por entidade e o endpoint {@code desempenho}. Usa a mesma
+ * configuração de {@code ConsultasPorEndpointTests} para compartilhar o
+ * contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class DesempenhoEndpointTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Test
+	void separaOTempoDeBancoDaMontagemEDaSerializacao() throws Exception {
+		cacheManager.getCache("fotos-paginas").clear();
+		mvc.perform(get("/foto?limit=20")).andExpect(status().isOk());
+
+		var banco = registry.get("bluehope.requisicao.banco").tag("entidade", "foto").tag("operacao", "index").timer();
+		var serializacao = registry.get("bluehope.requisicao.serializacao").tag("entidade", "foto").tag("operacao", "index").timer();
+		assertThat(banco.count()).isPositive();
+		assertThat(banco.max(TimeUnit.NANOSECONDS)).isPositive();
+		assertThat(serializacao.count()).isPositive();
+		assertThat(registry.get("bluehope.requisicao.montagem").tag("entidade", "foto").timer().count()).isPositive();
+		var links = registry.get("bluehope.requisicao.links").tag("entidade", "foto").tag("operacao", "index").timer();
+		assertThat(links.count()).isPositive();
+		assertThat(links.max(TimeUnit.NANOSECONDS)).isPositive();
+	}
+
+	@Test
+	void repositoriosEHttpTemATagDaEntidade() throws Exception {
+		mvc.perform(get("/perfil?limit=5")).andExpect(status().isOk());
+
+		assertThat(registry.get("spring.data.repository.invocations").tag("entidade", "perfil").timers()).isNotEmpty();
+		assertThat(registry.get("http.server.requests").tag("entidade", "perfil").timers()).isNotEmpty();
+		assertThat(registry.find("hibernate.query.executions").meters()).isNotEmpty();
+	}
+
+	@Test
+	void endpointExpoeHibernateECamadas() throws Exception {
+		mvc.perform(get("/desafio?size=5")).andExpect(status().isOk());
+
+		mvc.perform(get("/actuator/desempenho"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hibernate.habilitadas").value(true))
+				.andExpect(jsonPath("$.hibernate.consultas").value(greaterThan(0)))
+				.andExpect(jsonPath("$.consultasMaisDemoradas[0].execucoes").value(greaterThan(0)))
+				.andExpect(jsonPath("$.camadas[?(@.entidade == 'desafio' && @.operacao == 'index')].requisicoes").isNotEmpty())
+				.andExpect(jsonPath("$.camadas[?(@.entidade == 'desafio' && @.operacao == 'index')].linksMs").isNotEmpty());
+	}
+}
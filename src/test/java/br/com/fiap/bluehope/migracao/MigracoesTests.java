@@ -0,0 +1,69 @@
+package br.com.fiap.bluehope.migracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Roda as migrações do Flyway num H2 em modo Oracle. Os demais testes usam o
+ * esquema gerado pelo Hibernate e não passam por elas.
+ */
+class MigracoesTests {
+
+	@Test
+	void migracoesRodamNumBancoVazio() {
+		var dataSource = dataSource("vazio");
+		var resultado = flyway(dataSource, null).migrate();
+
+		assertThat(resultado.success).isTrue();
+		assertThat(resultado.targetSchemaVersion).isEqualTo("5");
+		var jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("insert into usuario (id, email, telefone, cpf, senha) values (1, 'a@b.c', '1', '1', 's')");
+		jdbc.update("insert into perfil (id, nome, soma_pontos, usuario_id) values (1, 'Perfil', 0, 1)");
+		assertThat(jdbc.queryForObject("select versao from perfil where id = 1", Long.class)).isZero();
+		assertThat(jdbc.queryForList("select perfil_pontuado_id, pontos_pontuados from validacao_desafio")).isEmpty();
+		assertThatThrownBy(() -> jdbc.update(
+				"insert into perfil (id, nome, soma_pontos, usuario_id) values (2, 'Outro', 0, 1)"))
+				.hasMessageContaining("UK_PERFIL_USUARIO");
+	}
+
+	@Test
+	void duplicatasInterrompemAntesDasRestricoesUnicas() {
+		var dataSource = dataSource("duplicatas");
+		flyway(dataSource, "2").migrate();
+		var jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("insert into usuario (id, email, telefone, cpf, senha) values (1, 'repetido@b.c', '1', '1', 's')");
+		jdbc.update("insert into usuario (id, email, telefone, cpf, senha) values (2, 'repetido@b.c', '1', '2', 's')");
+
+		assertThatThrownBy(() -> flyway(dataSource, null).migrate())
+				.isInstanceOf(FlywayException.class)
+				.rootCause()
+				.hasMessageContaining("uk_usuario_email: 1 valores repetidos em usuario.email")
+				.hasMessageNotContaining("uk_usuario_cpf");
+		assertThat(flyway(dataSource, null).info().current().getState()).isEqualTo(MigrationState.FAILED);
+		assertThat(jdbc.queryForObject("select count(*) from information_schema.indexes where index_name = 'IX_FOTO_DESAFIO'",
+				Integer.class)).isZero();
+
+		jdbc.update("update usuario set email = 'outro@b.c' where id = 2");
+		flyway(dataSource, null).repair();
+		assertThat(flyway(dataSource, null).migrate().targetSchemaVersion).isEqualTo("5");
+	}
+
+	private static DriverManagerDataSource dataSource(String nome) {
+		return new DriverManagerDataSource("jdbc:h2:mem:migracoes-" + nome + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private static Flyway flyway(DriverManagerDataSource dataSource, String alvo) {
+		var configuracao = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+		if (alvo != null) {
+			configuracao.target(alvo);
+		}
+		return configuracao.load();
+	}
+}
@@ -0,0 +1,205 @@
+package br.com.fiap.bluehope.pontuacao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.bluehope.model.Desafio;
+import br.com.fiap.bluehope.model.Perfil;
+import br.com.fiap.bluehope.model.ValidacaoDesafio;
+import br.com.fiap.bluehope.ranking.RankingService;
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import br.com.fiap.bluehope.repository.ValidacaoDesafioRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Crédito e estorno dos pontos das validações. Usa a mesma configuração de
+ * {@code ConsultasPorEndpointTests} para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class PontuacaoTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	PontuacaoService pontuacao;
+
+	@Autowired
+	PerfilRepository perfis;
+
+	@Autowired
+	DesafioRepository desafios;
+
+	@Autowired
+	ValidacaoDesafioRepository validacoes;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	RankingService ranking;
+
+	@Test
+	void creditoEFlagSaoGravadosJuntos() throws Exception {
+		var perfil = perfil("Crédito");
+		var desafio = desafio(perfil, 10);
+
+		long validacaoId = criarValidacao(desafio, true);
+		pontuacao.aplicarPendentes();
+
+		var validacao = validacoes.findById(validacaoId).orElseThrow();
+		assertThat(validacao.getPontuada()).isTrue();
+		assertThat(validacao.getPerfilPontuadoId()).isEqualTo(perfil.getId());
+		assertThat(validacao.getPontosPontuados()).isEqualTo(10);
+		assertThat(somaPontos(perfil)).isEqualTo(10);
+
+		// aplicar de novo não credita duas vezes
+		pontuacao.registrar(validacaoId);
+		pontuacao.aplicarPendentes();
+		assertThat(somaPontos(perfil)).isEqualTo(10);
+	}
+
+	@Test
+	void estornoDebitaOPerfilCreditadoMesmoComOutroDesafio() throws Exception {
+		var creditado = perfil("Creditado");
+		var outro = perfil("Outro");
+		var desafio = desafio(creditado, 10);
+		var outroDesafio = desafio(outro, 7);
+
+		long validacaoId = criarValidacao(desafio, true);
+		pontuacao.aplicarPendentes();
+		assertThat(somaPontos(creditado)).isEqualTo(10);
+
+		long versao = validacoes.findById(validacaoId).orElseThrow().getVersao();
+		mvc.perform(put("/validacaodesafio/{id}", validacaoId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"valido": false, "desafio": {"id": %d}, "versao": %d}
+						""".formatted(outroDesafio.getId(), versao)))
+				.andExpect(status().isOk());
+		pontuacao.aplicarPendentes();
+
+		assertThat(somaPontos(creditado)).isZero();
+		assertThat(somaPontos(outro)).isZero();
+		assertThat(validacoes.findById(validacaoId).orElseThrow().getPontuada()).isFalse();
+	}
+
+	@Test
+	void apagarValidacaoPontuadaEstornaNaMesmaTransacao() throws Exception {
+		var perfil = perfil("Apagada");
+		long validacaoId = criarValidacao(desafio(perfil, 4), true);
+		pontuacao.aplicarPendentes();
+		assertThat(somaPontos(perfil)).isEqualTo(4);
+
+		mvc.perform(delete("/validacaodesafio/{id}", validacaoId)).andExpect(status().isNoContent());
+
+		assertThat(somaPontos(perfil)).isZero();
+		assertThat(validacoes.existsById(validacaoId)).isFalse();
+	}
+
+	@Test
+	void loteEPontuadoComComandosUnicos() throws Exception {
+		var perfil = perfil("Lote");
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			var validacao = new ValidacaoDesafio();
+			validacao.setValido(true);
+			validacao.setDesafio(desafio(perfil, 3));
+			ids.add(validacoes.save(validacao).getId());
+		}
+		var estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		ids.forEach(pontuacao::registrar);
+		pontuacao.aplicarPendentes();
+
+		// trava, marcação, leitura dos créditos e incremento do perfil
+		assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(somaPontos(perfil)).isEqualTo(18);
+	}
+
+	@Test
+	void somaPontosNaoEGravadaPeloCliente() throws Exception {
+		var resposta = mvc.perform(post("/perfil").contentType(MediaType.APPLICATION_JSON).content("""
+				{"nome": "Sem atalho", "somaPontos": 500, "medalha": "Iniciante"}
+				"""))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse();
+		long id = objectMapper.readTree(resposta.getContentAsByteArray()).path("id").asLong();
+		var perfil = perfis.findById(id).orElseThrow();
+		assertThat(perfil.getSomaPontos()).isZero();
+		assertThat(ranking.posicao(id)).hasValueSatisfying(posicao -> assertThat(posicao.somaPontos()).isZero());
+
+		criarValidacao(desafio(perfil, 5), true);
+		pontuacao.aplicarPendentes();
+		mvc.perform(put("/perfil/{id}", id).contentType(MediaType.APPLICATION_JSON).content("""
+				{"nome": "Renomeado", "somaPontos": 999, "medalha": "Iniciante", "versao": %d}
+				""".formatted(perfis.findById(id).orElseThrow().getVersao())))
+				.andExpect(status().isOk());
+
+		assertThat(somaPontos(perfil)).isEqualTo(5);
+		assertThat(ranking.posicao(id)).hasValueSatisfying(posicao -> assertThat(posicao.somaPontos()).isEqualTo(5));
+	}
+
+	private Perfil perfil(String nome) {
+		var perfil = new Perfil();
+		perfil.setNome(nome);
+		perfil.setMedalha("Iniciante");
+		return perfis.save(perfil);
+	}
+
+	private Desafio desafio(Perfil perfil, int pontos) {
+		var desafio = new Desafio();
+		desafio.setDescricao("Pontuação " + perfil.getNome());
+		desafio.setPontos(pontos);
+		desafio.setPerfil(perfil);
+		return desafios.save(desafio);
+	}
+
+	private long criarValidacao(Desafio desafio, boolean valido) throws Exception {
+		var resposta = mvc.perform(post("/validacaodesafio")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"valido": %s, "desafio": {"id": %d}}
+						""".formatted(valido, desafio.getId())))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse();
+		return objectMapper.readTree(resposta.getContentAsByteArray()).path("id").asLong();
+	}
+
+	private int somaPontos(Perfil perfil) {
+		return perfis.findById(perfil.getId()).orElseThrow().getSomaPontos();
+	}
+}
@@ -0,0 +1,128 @@
+package br.com.fiap.bluehope.ranking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Confere a árvore contra uma lista ordenada por pontos decrescentes e id
+ * crescente. As pontuações saem de um intervalo pequeno para forçar empates.
+ */
+class ArvoreRankingTests {
+
+	private static final Comparator<Map.Entry<Long, Integer>> ORDEM = Comparator
+			.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+			.thenComparing(Map.Entry::getKey);
+
+	ArvoreRanking arvore = new ArvoreRanking();
+
+	Map<Long, Integer> oraculo = new HashMap<>();
+
+	@Test
+	void empateEmPontosOrdenaPeloId() {
+		definir(30, 10);
+		definir(10, 10);
+		definir(20, 10);
+		definir(5, 7);
+		definir(40, 12);
+
+		assertThat(arvore.primeiros(10)).containsExactly(
+				new PosicaoRanking(1, 40L, 12),
+				new PosicaoRanking(2, 10L, 10),
+				new PosicaoRanking(3, 20L, 10),
+				new PosicaoRanking(4, 30L, 10),
+				new PosicaoRanking(5, 5L, 7));
+		assertThat(arvore.posicao(20)).isEqualTo(3);
+		conferir();
+	}
+
+	@Test
+	void novaPontuacaoMoveOPerfilSemDuplicar() {
+		definir(1, 5);
+		definir(2, 8);
+		definir(3, 3);
+
+		definir(3, 9);
+		assertThat(arvore.posicao(3)).isEqualTo(1);
+		definir(2, 8);
+		definir(2, 1);
+		assertThat(arvore.posicao(2)).isEqualTo(3);
+		assertThat(arvore.tamanho()).isEqualTo(3);
+		conferir();
+	}
+
+	@Test
+	void removerAteEsvaziarPassaPelaRaiz() {
+		var ids = new ArrayList<Long>();
+		for (long id = 1; id <= 200; id++) {
+			definir(id, (int) (id % 7));
+			ids.add(id);
+		}
+		// a cada remoção um nó sai da árvore; com todos removidos, a raiz saiu várias vezes
+		var random = new Random(7);
+		while (!ids.isEmpty()) {
+			long id = ids.remove(random.nextInt(ids.size()));
+			assertThat(arvore.remover(id)).isTrue();
+			oraculo.remove(id);
+			assertThat(arvore.posicao(id)).isEqualTo(-1);
+			conferir();
+		}
+		assertThat(arvore.remover(1)).isFalse();
+		assertThat(arvore.primeiros(5)).isEmpty();
+	}
+
+	@Test
+	void removerUnicoPerfilEsvaziaAArvore() {
+		definir(1, 5);
+		assertThat(arvore.remover(1)).isTrue();
+		assertThat(arvore.tamanho()).isZero();
+		definir(2, 3);
+		assertThat(arvore.primeiros(5)).containsExactly(new PosicaoRanking(1, 2L, 3));
+	}
+
+	@Test
+	void operacoesAleatoriasBatemComAListaOrdenada() {
+		var random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			long id = random.nextInt(300);
+			if (random.nextInt(4) == 0) {
+				assertThat(arvore.remover(id)).isEqualTo(oraculo.remove(id) != null);
+			} else {
+				definir(id, random.nextInt(20));
+			}
+			if (i % 250 == 0) {
+				conferir();
+			}
+		}
+		conferir();
+	}
+
+	private void definir(long id, int pontos) {
+		arvore.definir(id, pontos);
+		oraculo.put(id, pontos);
+	}
+
+	private void conferir() {
+		List<Map.Entry<Long, Integer>> ordenada = new ArrayList<>(oraculo.entrySet());
+		ordenada.sort(ORDEM);
+
+		assertThat(arvore.tamanho()).isEqualTo(ordenada.size());
+		var esperados = new ArrayList<PosicaoRanking>();
+		for (int i = 0; i < ordenada.size(); i++) {
+			var entrada = ordenada.get(i);
+			esperados.add(new PosicaoRanking(i + 1, entrada.getKey(), entrada.getValue()));
+			assertThat(arvore.posicao(entrada.getKey())).isEqualTo(i + 1);
+			assertThat(arvore.pontos(entrada.getKey())).isEqualTo(entrada.getValue());
+		}
+		assertThat(arvore.primeiros(Integer.MAX_VALUE)).isEqualTo(esperados);
+		int quantidade = Math.min(10, esperados.size());
+		assertThat(arvore.primeiros(10)).isEqualTo(esperados.subList(0, quantidade));
+	}
+}
@@ -0,0 +1,185 @@
+package br.com.fiap.bluehope.roteamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Roteamento entre dois H2 em memória no papel de primário e réplica. Não há
+ * replicação entre eles: cada teste copia o primário para a réplica com
+ * {@code SCRIPT}/{@code RUNSCRIPT} e depois altera um dos lados para saber de
+ * onde a leitura veio.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1",
+		"bluehope.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+		"bluehope.replica.username=sa",
+		"bluehope.replica.atraso-maximo=1h",
+		"bluehope.replica.intervalo-batimento-ms=3600000",
+		"bluehope.bench.usuarios=20",
+		"bluehope.bench.desafios=30",
+		"bluehope.bench.fotos-por-desafio=1"
+})
+class RoteamentoTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	@Qualifier("primario")
+	HikariDataSource primario;
+
+	@Autowired
+	@Qualifier("replica")
+	HikariDataSource replica;
+
+	@Autowired
+	MonitorReplica monitor;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@TempDir
+	Path diretorio;
+
+	@BeforeEach
+	void replicar() throws Exception {
+		Path copia = Files.createTempFile(diretorio, "primario", ".sql");
+		new JdbcTemplate(primario).execute("script to '" + copia + "'");
+		var destino = new JdbcTemplate(replica);
+		destino.execute("drop all objects");
+		destino.execute("runscript from '" + copia + "'");
+		monitor.verificar();
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+
+	@Test
+	void getSomenteLeituraVaiParaAReplica() throws Exception {
+		long id = primeiroDesafio();
+		new JdbcTemplate(replica).update("update desafio set descricao = 'Lido da réplica' where id = ?", id);
+
+		mvc.perform(get("/desafio/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(cookie().doesNotExist(AderenciaPrimarioFilter.COOKIE))
+				.andExpect(jsonPath("$.descricao").value("Lido da réplica"));
+	}
+
+	@Test
+	void clienteLeOQueEscreveuPeloPrimario() throws Exception {
+		long perfil = new JdbcTemplate(primario).queryForObject("select min(id) from perfil", Long.class);
+		var escrita = mvc.perform(post("/desafio").contentType(MediaType.APPLICATION_JSON).content("""
+				{"descricao": "Plantar mudas nativas", "pontos": 10, "perfil": {"id": %d}}
+				""".formatted(perfil)))
+				.andExpect(status().isCreated())
+				.andExpect(cookie().exists(AderenciaPrimarioFilter.COOKIE))
+				.andReturn().getResponse();
+		long id = primeiroDesafio();
+		new JdbcTemplate(primario).update("update desafio set descricao = 'Lido do primário' where id = ?", id);
+		cacheManager.getCache("desafios").clear();
+
+		mvc.perform(get("/desafio/{id}", id).cookie(escrita.getCookie(AderenciaPrimarioFilter.COOKIE)))
+				.andExpect(jsonPath("$.descricao").value("Lido do primário"));
+		// Sem o cookie a leitura vai para a réplica, onde a alteração ainda não chegou.
+		cacheManager.getCache("desafios").clear();
+		mvc.perform(get("/desafio/{id}", id))
+				.andExpect(jsonPath("$.descricao").value(new JdbcTemplate(replica)
+						.queryForObject("select descricao from desafio where id = ?", String.class, id)));
+	}
+
+	@Test
+	void listagemAlteradaHaPoucoLeDoPrimario() throws Exception {
+		long perfil = new JdbcTemplate(primario).queryForObject("select min(id) from perfil", Long.class);
+		mvc.perform(post("/desafio").contentType(MediaType.APPLICATION_JSON).content("""
+				{"descricao": "Recolher lixo da praia", "pontos": 10, "perfil": {"id": %d}}
+				""".formatted(perfil)))
+				.andExpect(status().isCreated());
+
+		// A ETag já é a da versão nova; a página precisa conter a escrita.
+		mvc.perform(get("/desafio/search").param("q", "recolher lixo"))
+				.andExpect(jsonPath("$._embedded.desafioList[0].descricao").value("Recolher lixo da praia"));
+	}
+
+	@Test
+	void leituraDaReplicaLogoAposUmaRemocaoNaoEntraNoCache() throws Exception {
+		long id = primeiroDesafio();
+		cacheManager.getCache("desafios").evict(id);
+
+		mvc.perform(get("/desafio/{id}", id))
+				.andExpect(status().isOk());
+
+		assertThat(cacheManager.getCache("desafios").get(id)).isNull();
+	}
+
+	@Test
+	void replicaAtrasadaDevolveAsLeiturasAoPrimario() throws Exception {
+		long id = primeiroDesafio();
+		var destino = new JdbcTemplate(replica);
+		destino.update("update desafio set descricao = 'Lido da réplica' where id = ?", id);
+		destino.update("update batimento_replica set instante = 0");
+		monitor.verificar();
+		assertThat(monitor.replicaDisponivel()).isFalse();
+
+		mvc.perform(get("/desafio/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.descricao").value(new JdbcTemplate(primario)
+						.queryForObject("select descricao from desafio where id = ?", String.class, id)));
+	}
+
+	@Test
+	void cargaSincronizadaDaReplicaLogoAposUmaRemocaoNaoEntraNoCache() {
+		long id = primeiroDesafio();
+		new JdbcTemplate(replica).update("update desafio set descricao = 'Lido da réplica' where id = ?", id);
+		var somenteLeitura = new TransactionTemplate(transactionManager);
+		somenteLeitura.setReadOnly(true);
+		var paginas = cacheManager.getCache("usuarios-paginas");
+		paginas.clear();
+
+		try {
+			String lida = paginas.get("pagina", () -> somenteLeitura.execute(status -> new JdbcTemplate(dataSource)
+					.queryForObject("select descricao from desafio where id = ?", String.class, id)));
+			assertThat(lida).isEqualTo("Lido da réplica");
+			assertThat(paginas.get("pagina")).isNull();
+		} finally {
+			ContextoRoteamento.limpar();
+		}
+	}
+
+	private long primeiroDesafio() {
+		return new JdbcTemplate(primario).queryForObject("select min(id) from desafio", Long.class);
+	}
+}
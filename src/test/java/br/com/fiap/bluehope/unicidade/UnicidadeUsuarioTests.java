@@ -0,0 +1,142 @@
+package br.com.fiap.bluehope.unicidade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.bluehope.model.Usuario;
+import br.com.fiap.bluehope.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Unicidade de email e cpf no cadastro de usuarios. Usa a mesma configuração
+ * de {@code ConsultasPorEndpointTests} para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class UnicidadeUsuarioTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	UsuarioRepository usuarios;
+
+	@Autowired
+	UnicidadeUsuarioService unicidade;
+
+	Statistics estatisticas;
+
+	@BeforeEach
+	void setUp() {
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void filtroNaoTemFalsosNegativosEFicaPertoDaTaxaPedida() {
+		var filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.adicionar("usuario" + i + "@bluehope.example");
+		}
+		int falsosPositivos = 0;
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filtro.talvezContenha("usuario" + i + "@bluehope.example")).isTrue();
+			if (filtro.talvezContenha("outro" + i + "@bluehope.example")) {
+				falsosPositivos++;
+			}
+		}
+		assertThat(falsosPositivos).isLessThan(200);
+	}
+
+	@Test
+	void emailNovoEVerificadoSemConsultarOBanco() throws Exception {
+		estatisticas.clear();
+		mvc.perform(get("/usuario/exists").param("email", "ninguem@bluehope.example"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.existe").value(false));
+		assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+		var existente = usuarios.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0);
+		mvc.perform(get("/usuario/exists").param("email", existente.getEmail()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.existe").value(true));
+	}
+
+	@Test
+	void cadastroComEmailOuCpfRepetidoRetorna409() throws Exception {
+		var existente = usuarios.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0);
+
+		mvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content(usuario(existente.getEmail(), "77777777701")))
+				.andExpect(status().isConflict());
+		mvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content(usuario("unico@bluehope.example", existente.getCpf())))
+				.andExpect(status().isConflict());
+
+		mvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content(usuario("unico@bluehope.example", "77777777701")))
+				.andExpect(status().isCreated());
+		mvc.perform(get("/usuario/exists").param("email", "unico@bluehope.example"))
+				.andExpect(jsonPath("$.existe").value(true));
+	}
+
+	@Test
+	void atualizacaoParaEmailDeOutroUsuarioRetorna409() throws Exception {
+		var primeiros = usuarios.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+
+		mvc.perform(put("/usuario/{id}", primeiros.get(1).getId()).contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_MATCH, "\"" + primeiros.get(1).getVersao() + "\"")
+				.content(usuario(primeiros.get(0).getEmail(), primeiros.get(1).getCpf())))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void recargaTrazCadastrosFeitosPorOutraInstancia() throws Exception {
+		var usuario = new Usuario();
+		usuario.setEmail("outra.instancia@bluehope.example");
+		usuario.setTelefone("11999999999");
+		usuario.setCpf("77777777702");
+		usuario.setSenha("segredo");
+		usuarios.saveAndFlush(usuario);
+
+		unicidade.carregar();
+
+		mvc.perform(get("/usuario/exists").param("email", "outra.instancia@bluehope.example"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.existe").value(true));
+		mvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content(usuario("nova@bluehope.example", "77777777702")))
+				.andExpect(status().isConflict());
+	}
+
+	private static String usuario(String email, String cpf) {
+		return """
+				{"email": "%s", "telefone": "11999999999", "cpf": "%s", "senha": "segredo"}
+				""".formatted(email, cpf);
+	}
+}
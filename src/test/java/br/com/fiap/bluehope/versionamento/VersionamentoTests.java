@@ -0,0 +1,154 @@
+package br.com.fiap.bluehope.versionamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.bluehope.repository.DesafioRepository;
+import br.com.fiap.bluehope.repository.PerfilRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * GET condicional nas listagens e nos detalhes e escrita condicional no
+ * {@code update}. Usa a mesma configuração de {@code ConsultasPorEndpointTests}
+ * para compartilhar o contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("bench")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:consultas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"bluehope.bench.usuarios=200",
+		"bluehope.bench.desafios=300",
+		"bluehope.bench.fotos-por-desafio=2"
+})
+class VersionamentoTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	DesafioRepository desafios;
+
+	@Autowired
+	PerfilRepository perfis;
+
+	Statistics estatisticas;
+
+	@BeforeEach
+	void setUp() {
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void listagemSemMudancaResponde304SemConsultarOBanco() throws Exception {
+		for (String uri : new String[] { "/foto?limit=5", "/desafio?size=5", "/perfil?limit=5" }) {
+			String etag = etag(uri);
+
+			estatisticas.clear();
+			var resposta = mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, etag))
+					.andReturn().getResponse();
+			assertThat(resposta.getContentAsByteArray()).isEmpty();
+			assertThat(estatisticas.getPrepareStatementCount()).isZero();
+		}
+	}
+
+	@Test
+	void escritaMudaAEtagDaColecao() throws Exception {
+		String antes = etag("/usuario?limit=5");
+
+		mvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content("""
+				{"email": "novo@bluehope.example", "telefone": "11999999999", "cpf": "99999999999", "senha": "segredo"}
+				"""))
+				.andExpect(status().isCreated());
+
+		mvc.perform(get("/usuario?limit=5").header(HttpHeaders.IF_NONE_MATCH, antes))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.not(antes)));
+	}
+
+	@Test
+	void detalheSemMudancaResponde304() throws Exception {
+		long perfil = perfis.findResumosByIdGreaterThan(0L, Limit.of(1)).get(0).id();
+		String etag = etag("/perfil/" + perfil);
+
+		mvc.perform(get("/perfil/{id}", perfil).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void updateExigeAVersaoAtual() throws Exception {
+		var desafio = desafios.findResumos(Pageable.ofSize(1)).getContent().get(0);
+		String uri = "/desafio/" + desafio.id();
+		String etag = etag(uri);
+		String corpo = """
+				{"descricao": "Recolher tampinhas", "pontos": 20, "perfil": {"id": %d}}
+				""".formatted(desafio.perfil().id());
+
+		mvc.perform(put(uri).contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andExpect(status().isPreconditionRequired());
+		mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, "*").contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andExpect(status().isPreconditionRequired());
+		mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, "\"-1\"").contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andExpect(status().isPreconditionFailed());
+
+		long versao = ((Number) com.jayway.jsonpath.JsonPath.read(
+				mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(corpo))
+						.andExpect(status().isOk())
+						.andExpect(jsonPath("$.descricao").value("Recolher tampinhas"))
+						.andReturn().getResponse().getContentAsString(),
+				"$.versao")).longValue();
+
+		mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andExpect(status().isPreconditionFailed());
+		mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+
+		String comVersaoAntiga = corpo.replace("}\n", ", \"versao\": " + (versao - 1) + "}\n");
+		mvc.perform(put(uri).contentType(MediaType.APPLICATION_JSON).content(comVersaoAntiga))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void etagDaColecaoMudaACadaJanelaMesmoSemEscritaLocal() throws Exception {
+		var versoes = new VersoesColecao("50ms");
+		String etag = versoes.etag("fotos");
+
+		Thread.sleep(120);
+		assertThat(versoes.etag("fotos")).isNotEqualTo(etag);
+	}
+
+	private String etag(String uri) throws Exception {
+		String etag = mvc.perform(get(uri))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"").endsWith("\"");
+		return etag;
+	}
+}